@@ -0,0 +1,31 @@
+package groovyutil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @Description: 基准测试入口，默认启用GC分析器并把结果以JSON格式保存到jmh-result.json，便于跨版本比较。
+ * 其余参数与JMH命令行相同，如只运行渲染基准：java -jar benchmarks.jar RenderBenchmark
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> params = new ArrayList<>(Arrays.asList(args));
+        if (!params.contains("-prof")) {
+            params.add("-prof");
+            params.add("gc");
+        }
+        if (!params.contains("-rf")) {
+            params.add("-rf");
+            params.add("json");
+        }
+        if (!params.contains("-rff")) {
+            params.add("-rff");
+            params.add("jmh-result.json");
+        }
+        org.openjdk.jmh.Main.main(params.toArray(new String[0]));
+    }
+}
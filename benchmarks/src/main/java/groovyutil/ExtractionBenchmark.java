@@ -0,0 +1,74 @@
+package groovyutil;
+
+import groovyutil.standin.StandInDatabase;
+import groovyutil.standin.StandInDriver;
+import groovyutil.standin.SyntheticSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description: 从替身库抽取一个库所有表的结构，比较逐表调用DatabaseMetaData与按库批量查询information_schema。
+ * 替身库在内存中，结果反映的是驱动调用次数和结果处理的开销，不含网络往返
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractionBenchmark {
+
+    @Param({"false", "true"})
+    public boolean bulk;
+
+    @Param({"50", "500"})
+    public int tables;
+
+    @Param({"20"})
+    public int columns;
+
+    private ConnectionManager connectionManager;
+    private GroovyScriptGenerator generator;
+    private List<String> dbs;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ClassNotFoundException {
+        StandInDatabase database = new SyntheticSchema().tables(tables).columns(columns).indexes(4).indexColumns(3)
+                .register("extraction");
+        dbs = new ArrayList<>();
+        dbs.add(SyntheticSchema.schemaName(0));
+        connectionManager = new ConnectionManager(StandInDriver.class.getName(), database.url(dbs.get(0)), "", "");
+        generator = new GroovyScriptGenerator();
+        generator.setConnectionManager(connectionManager);
+        generator.setBulk(bulk);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionManager.close();
+        StandInDatabase.unregister("extraction");
+    }
+
+    @Benchmark
+    public Map<String, List<TableSchema>> extract() throws Exception {
+        return generator.extractTableSchemas(dbs);
+    }
+}
@@ -0,0 +1,59 @@
+package groovyutil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description: 组合索引按列序号输出的循环，索引列以随机顺序给出（与STATISTICS未排序时相同），
+ * 该循环对每个序号扫描一遍索引列，开销随列数平方增长
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexOrderBenchmark {
+
+    @Param({"1", "4", "16", "64"})
+    public int indexColumns;
+
+    private List<IndexInfo> index;
+    private StringBuilder buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new ArrayList<>(indexColumns);
+        for (int i = 0; i < indexColumns; i++) {
+            index.add(new IndexInfo(true, "idx_benchmark", "col_" + i, i + 1));
+        }
+        Collections.shuffle(index, new Random(42));
+        buffer = new StringBuilder(4096);
+    }
+
+    @Benchmark
+    public int renderIndex() throws IOException {
+        buffer.setLength(0);
+        GroovyScriptRenderer.renderIndex("t_benchmark", "idx_benchmark", index, buffer);
+        return buffer.length();
+    }
+}
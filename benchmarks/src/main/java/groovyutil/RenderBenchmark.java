@@ -0,0 +1,76 @@
+package groovyutil;
+
+import groovyutil.standin.StandInDatabase;
+import groovyutil.standin.SyntheticSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description: 单表脚本渲染的吞吐量，表结构由替身库抽取，配合-prof gc观察每次渲染的内存分配
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int columns;
+
+    @Param({"0", "10", "50"})
+    public int indexes;
+
+    private TableSchema table;
+    private GroovyScriptRenderer renderer;
+    private StringBuilder buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        StandInDatabase database = new SyntheticSchema().tables(1).columns(columns).indexes(indexes).indexColumns(4)
+                .register("render");
+        try (Connection con = DriverManager.getConnection(database.url(SyntheticSchema.schemaName(0)))) {
+            table = BulkMetadataExtractor.extract(con, SyntheticSchema.schemaName(0)).values().iterator().next();
+        }
+        StandInDatabase.unregister("render");
+        renderer = new GroovyScriptRenderer("script.db", "benchmark", "2026-10-17");
+        buffer = new StringBuilder(8192);
+    }
+
+    /**
+     * 渲染到复用的StringBuilder，只统计渲染本身的分配
+     */
+    @Benchmark
+    public int renderToBuffer() throws IOException {
+        buffer.setLength(0);
+        renderer.render(table, buffer);
+        return buffer.length();
+    }
+
+    /**
+     * 渲染为字符串
+     */
+    @Benchmark
+    public String renderToString() {
+        return renderer.render(table);
+    }
+}
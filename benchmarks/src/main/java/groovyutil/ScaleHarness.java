@@ -0,0 +1,328 @@
+package groovyutil;
+
+import groovyutil.standin.StandInDatabase;
+import groovyutil.standin.StandInDriver;
+import groovyutil.standin.SyntheticSchema;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * @Description: 端到端的规模测试：按参数在内存替身库中生成库、表、列、索引（少量宽表有几百列、几十个索引），
+ * 用完整的命令行参数运行生成器，记录总耗时、堆内存峰值、查询数（按类型）、连接数和生成的脚本数，结果保存为JSON，
+ * 用于在上线前验证吞吐和扩展性的改动。有表失败、某种格式生成的表数或脚本文件数与库数×表数不符时，错误写入结果并以非0状态退出，
+ * 避免把不完整的生成当作成绩。规模参数以外的参数原样传给生成器，如：
+ * java -cp benchmarks/target/benchmarks.jar groovyutil.ScaleHarness -schemas=50 -tables=400 -bulk -threads=8
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class ScaleHarness {
+
+    private static final String DATABASE_NAME = "scale";
+    /**
+     * 堆内存的采样间隔（毫秒）
+     */
+    private static final long HEAP_SAMPLE_MILLIS = 10;
+    /**
+     * 结果中最多记录的失败表数
+     */
+    private static final int MAX_REPORTED_FAILURES = 20;
+
+    public static void main(String[] args) throws Exception {
+        int schemas = 50;
+        int tables = 400;
+        int columns = 20;
+        int indexes = 4;
+        int indexColumns = 3;
+        int wideEvery = 100;
+        int wideColumns = 500;
+        int wideIndexes = 30;
+        long seed = 42;
+        String resultFile = "scale-result.json";
+        boolean verbose = false;
+        String targetPath = null;
+        String url = null;
+        String hosts = null;
+        String hostsFile = null;
+        String formats = GroovyFormat.NAME;
+        //合并、依赖层级、数据导出、比较和快照导出时.groovy文件与表不是一一对应的
+        boolean scriptPerTable = true;
+        List<String> generatorArgs = new ArrayList<>();
+        for (String param : args) {
+            if (param.startsWith("-schemas")) {
+                schemas = Integer.parseInt(optionValue(param, "-schemas"));
+            } else if (param.startsWith("-tables")) {
+                tables = Integer.parseInt(optionValue(param, "-tables"));
+            } else if (param.startsWith("-columns")) {
+                columns = Integer.parseInt(optionValue(param, "-columns"));
+            } else if (param.startsWith("-indexes")) {
+                indexes = Integer.parseInt(optionValue(param, "-indexes"));
+            } else if (param.startsWith("-index-columns")) {
+                indexColumns = Integer.parseInt(optionValue(param, "-index-columns"));
+            } else if (param.startsWith("-wide-every")) {
+                wideEvery = Integer.parseInt(optionValue(param, "-wide-every"));
+            } else if (param.startsWith("-wide-columns")) {
+                wideColumns = Integer.parseInt(optionValue(param, "-wide-columns"));
+            } else if (param.startsWith("-wide-indexes")) {
+                wideIndexes = Integer.parseInt(optionValue(param, "-wide-indexes"));
+            } else if (param.startsWith("-seed")) {
+                seed = Long.parseLong(optionValue(param, "-seed"));
+            } else if (param.startsWith("-result")) {
+                resultFile = optionValue(param, "-result");
+            } else if (param.equals("-verbose")) {
+                verbose = true;
+            } else {
+                if (param.startsWith("-target")) {
+                    targetPath = param.substring(7);
+                }
+                if (param.startsWith("-url")) {
+                    url = param.substring(4);
+                } else if (param.startsWith("-hosts-file")) {
+                    hostsFile = optionValue(param, "-hosts-file");
+                } else if (param.startsWith("-hosts")) {
+                    hosts = optionValue(param, "-hosts");
+                } else if (param.startsWith("-formats")) {
+                    formats = optionValue(param, "-formats");
+                } else if (param.startsWith("-bundle") || param.equals("-dependencies") || param.startsWith("-data-tables")
+                        || param.startsWith("-diff-base") || param.startsWith("-export-snapshot")) {
+                    scriptPerTable = false;
+                }
+                generatorArgs.add(param);
+            }
+        }
+        if (targetPath == null) {
+            targetPath = Files.createTempDirectory("scale-harness").toString() + File.separator;
+            generatorArgs.add("-target" + targetPath);
+        }
+
+        long buildStart = System.nanoTime();
+        StandInDatabase database = new SyntheticSchema().schemas(schemas).tables(tables).columns(columns).indexes(indexes)
+                .indexColumns(indexColumns).wideTables(wideEvery, wideColumns, wideIndexes).seed(seed).register(DATABASE_NAME);
+        long buildMillis = (System.nanoTime() - buildStart) / 1000000;
+        if (url == null) {
+            url = database.url(SyntheticSchema.schemaName(0));
+            if (hosts == null && hostsFile == null) {
+                generatorArgs.add("-url" + url);
+            }
+        }
+        generatorArgs.add("-driver" + StandInDriver.class.getName());
+        generatorArgs.add("-usernamestandin");
+        generatorArgs.add("-passwordstandin");
+        System.out.println("Synthetic layout: " + schemas + " schemas x " + tables + " tables, " + columns + " columns, " + indexes
+                + " indexes" + (wideEvery > 0 ? ", every " + wideEvery + "th table " + wideColumns + " columns, " + wideIndexes + " indexes" : "")
+                + " (built in " + buildMillis + " ms)");
+        System.out.println("Generator arguments: " + String.join(" ", generatorArgs));
+
+        System.gc();
+        database.resetCounters();
+        HeapSampler sampler = new HeapSampler();
+        sampler.start();
+        PrintStream out = System.out;
+        if (!verbose) {
+            //生成器逐表输出日志，大规模时输出本身会成为瓶颈
+            System.setOut(new PrintStream(new OutputStream() {
+                @Override
+                public void write(int b) {
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                }
+            }));
+        }
+        ResultCounter counter = new ResultCounter();
+        boolean generated = false;
+        Exception error = null;
+        long start = System.nanoTime();
+        try {
+            generated = GroovyScriptGenerator.run(generatorArgs.toArray(new String[0]), counter);
+        } catch (Exception e) {
+            error = e;
+        } finally {
+            System.setOut(out);
+            sampler.interrupt();
+            sampler.join();
+        }
+        long wallMillis = (System.nanoTime() - start) / 1000000;
+        long scripts = countScripts(new File(targetPath).toPath());
+        Map<String, Long> queryCounts = database.getQueryCounts();
+        long expectedTables = (long) schemas * tables;
+        List<String> errors = new ArrayList<>();
+        if (error != null) {
+            errors.add("The generation failed: " + error);
+        } else if (!generated) {
+            errors.add("The generator did not run, check the generator arguments");
+        } else {
+            expectedTables *= serverCount(hosts, hostsFile, url);
+            if (counter.failed.get() > 0) {
+                errors.add(counter.failed.get() + " tables failed: " + String.join("; ", counter.failures));
+            }
+            for (ScriptFormat format : ScriptFormats.resolve(formats)) {
+                AtomicLong count = counter.succeeded.get(format.getName());
+                long succeeded = count == null ? 0 : count.get();
+                if (succeeded != expectedTables) {
+                    errors.add("Format[" + format.getName() + "] : " + succeeded + " tables generated, expected " + expectedTables);
+                }
+            }
+            if (scriptPerTable && ScriptFormats.includesGroovy(ScriptFormats.resolve(formats)) && scripts != expectedTables) {
+                errors.add(scripts + " scripts under " + targetPath + ", expected " + expectedTables);
+            }
+        }
+
+        System.out.println();
+        System.out.println("==== Scale harness ====");
+        System.out.println("Wall time: " + wallMillis + " ms, peak heap: " + sampler.peak.get() / (1024 * 1024) + " MB");
+        System.out.println("Queries: " + database.getQueries() + " " + queryCounts + ", connections: " + database.getConnections());
+        System.out.println("Scripts: " + scripts + " under " + targetPath + ", failed tables: " + counter.failed.get());
+        for (String message : errors) {
+            System.out.println("ERROR: " + message);
+        }
+        writeResult(new File(resultFile), schemas, tables, columns, indexes, wideEvery, wideColumns, wideIndexes, generatorArgs,
+                wallMillis, sampler.peak.get(), database, queryCounts, scripts, expectedTables, counter.failed.get(), errors);
+        System.out.println("Result saved to " + resultFile);
+        StandInDatabase.unregister(DATABASE_NAME);
+        if (error != null) {
+            error.printStackTrace();
+        }
+        if (!errors.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 生成的服务器数，使用-hosts、-hosts-file时每个服务器各生成一份
+     */
+    private static int serverCount(String hosts, String hostsFile, String url) throws IOException {
+        if (hosts == null && hostsFile == null) {
+            return 1;
+        }
+        int count = 0;
+        if (hosts != null) {
+            count += ServerEndpoint.parseList(hosts, url).size();
+        }
+        if (hostsFile != null) {
+            count += ServerEndpoint.load(new File(hostsFile), url).size();
+        }
+        return count;
+    }
+
+    private static long countScripts(Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(file -> file.toString().endsWith(".groovy")).count();
+        }
+    }
+
+    private static void writeResult(File file, int schemas, int tables, int columns, int indexes, int wideEvery, int wideColumns,
+                                    int wideIndexes, List<String> generatorArgs, long wallMillis, long peakHeap,
+                                    StandInDatabase database, Map<String, Long> queryCounts, long scripts, long expectedTables,
+                                    long failedTables, List<String> errors) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("{\n");
+            writer.write("  \"layout\": {\"schemas\": " + schemas + ", \"tables\": " + tables + ", \"columns\": " + columns
+                    + ", \"indexes\": " + indexes + ", \"wideEvery\": " + wideEvery + ", \"wideColumns\": " + wideColumns
+                    + ", \"wideIndexes\": " + wideIndexes + "},\n");
+            writer.write("  \"arguments\": [");
+            for (int i = 0; i < generatorArgs.size(); i++) {
+                writer.write((i == 0 ? "" : ", ") + quote(generatorArgs.get(i)));
+            }
+            writer.write("],\n");
+            writer.write("  \"wallMillis\": " + wallMillis + ",\n");
+            writer.write("  \"peakHeapBytes\": " + peakHeap + ",\n");
+            writer.write("  \"queries\": " + database.getQueries() + ",\n");
+            writer.write("  \"queryCounts\": {");
+            boolean first = true;
+            for (Map.Entry<String, Long> entry : queryCounts.entrySet()) {
+                writer.write((first ? "" : ", ") + quote(entry.getKey()) + ": " + entry.getValue());
+                first = false;
+            }
+            writer.write("},\n");
+            writer.write("  \"connections\": " + database.getConnections() + ",\n");
+            writer.write("  \"scripts\": " + scripts + ",\n");
+            writer.write("  \"expectedTables\": " + expectedTables + ",\n");
+            writer.write("  \"failedTables\": " + failedTables + ",\n");
+            writer.write("  \"errors\": [");
+            for (int i = 0; i < errors.size(); i++) {
+                writer.write((i == 0 ? "" : ", ") + quote(errors.get(i)));
+            }
+            writer.write("]\n");
+            writer.write("}\n");
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n").replace("\r", "\\r") + "\"";
+    }
+
+    private static String optionValue(String param, String name) {
+        String value = param.substring(name.length());
+        return value.startsWith("=") ? value.substring(1) : value;
+    }
+
+    /**
+     * 按格式统计成功的表数，记录失败的表
+     */
+    private static class ResultCounter implements GenerationListener {
+        private final Map<String, AtomicLong> succeeded = new ConcurrentHashMap<>();
+        private final AtomicLong failed = new AtomicLong();
+        private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onTable(TableResult result) {
+            if (!result.isFailed()) {
+                succeeded.computeIfAbsent(result.getFormat(), format -> new AtomicLong()).incrementAndGet();
+                return;
+            }
+            if (failed.incrementAndGet() <= MAX_REPORTED_FAILURES) {
+                failures.add(result.getDb() + "." + result.getTableName() + " (" + result.getFormat() + "): " + result.getError());
+            }
+        }
+    }
+
+    /**
+     * 按固定间隔采样已使用的堆内存，记录最大值
+     */
+    private static class HeapSampler extends Thread {
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final AtomicLong peak = new AtomicLong();
+
+        private HeapSampler() {
+            super("heap-sampler");
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (!isInterrupted()) {
+                sample();
+                try {
+                    Thread.sleep(HEAP_SAMPLE_MILLIS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            sample();
+        }
+
+        private void sample() {
+            peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+        }
+    }
+}
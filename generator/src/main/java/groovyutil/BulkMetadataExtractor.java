@@ -0,0 +1,220 @@
+package groovyutil;
+
+import org.springframework.util.StringUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * @Description: 按库批量抽取表结构，每个库只查询一次information_schema的COLUMNS、STATISTICS、KEY_COLUMN_USAGE，
+ * 代替逐表调用DatabaseMetaData的getPrimaryKeys、getIndexInfo、getColumns
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+class BulkMetadataExtractor {
+
+    private static final String SELECT_COLUMN_SQL = "select table_name, column_name, data_type, column_type, " +
+            "character_maximum_length, numeric_precision, numeric_scale, datetime_precision, is_nullable, extra, column_comment, " +
+            "column_default from information_schema.columns where table_schema=?";
+
+    private static final String ORDER_COLUMN_SQL = " order by table_name, ordinal_position";
+
+    private static final String SELECT_INDEX_SQL = "select table_name, non_unique, index_name, column_name, seq_in_index " +
+            "from information_schema.statistics where table_schema=?";
+
+    private static final String ORDER_INDEX_SQL = " order by table_name, non_unique, index_name, seq_in_index";
+
+    private static final String SELECT_PK_SQL = "select table_name, column_name from information_schema.key_column_usage " +
+            "where table_schema=? and constraint_name='PRIMARY'";
+
+    private static final String ORDER_PK_SQL = " order by table_name, ordinal_position";
+
+    private static final String SELECT_FK_SQL = "select table_name, referenced_table_schema, referenced_table_name " +
+            "from information_schema.key_column_usage where table_schema=? and referenced_table_name is not null";
+
+    private static final String ORDER_FK_SQL = " order by table_name, referenced_table_schema, referenced_table_name";
+
+    private BulkMetadataExtractor() {
+    }
+
+    /**
+     * 抽取指定库下所有表的元数据
+     *
+     * @param con 数据库连接
+     * @param db  库名
+     * @return key为表名，按表名排序
+     */
+    static Map<String, TableSchema> extract(Connection con, String db) throws SQLException {
+        return extract(con, db, ObjectFilter.acceptAll(), GenerationMetrics.DISABLED);
+    }
+
+    /**
+     * 抽取指定库下所有表的元数据，表的过滤规则作为三次查询的where条件，三次查询的耗时分别计入主键、列、索引查询阶段
+     *
+     * @param con     数据库连接
+     * @param db      库名
+     * @param filter  表的过滤规则
+     * @param metrics 耗时统计
+     * @return key为表名，按表名排序
+     */
+    static Map<String, TableSchema> extract(Connection con, String db, ObjectFilter filter, GenerationMetrics metrics) throws SQLException {
+        ObjectFilter.Condition condition = filter.tableCondition(db, "table_name");
+        //表的主键信息，先于列查询，以便构建列时直接确定主键标志
+        Map<String, Set<String>> pkColumns = new HashMap<>();
+        long start = metrics.start();
+        try (PreparedStatement ps = prepare(con, SELECT_PK_SQL, condition, ORDER_PK_SQL, db)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    pkColumns.computeIfAbsent(rs.getString("table_name"), k -> new HashSet<>()).add(rs.getString("column_name"));
+                }
+            }
+        }
+        metrics.record(GenerationMetrics.Phase.PK_QUERY, start);
+        Map<String, TableSchema.Builder> tables = new LinkedHashMap<>();
+        //表的列信息
+        start = metrics.start();
+        try (PreparedStatement ps = prepare(con, SELECT_COLUMN_SQL, condition, ORDER_COLUMN_SQL, db)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                TableSchema.Builder current = null;
+                while (rs.next()) {
+                    String tableName = rs.getString("table_name");
+                    //结果按表名排序，表名变化时才切换当前表
+                    if (current == null || !current.getTableName().equals(tableName)) {
+                        current = tables.computeIfAbsent(tableName, k -> new TableSchema.Builder(k, pkColumns.get(k)));
+                    }
+                    String columnName = rs.getString("column_name");
+                    String dataType = rs.getString("data_type").toLowerCase();
+                    String columnType = rs.getString("column_type").toLowerCase();
+                    String typeName = columnType.contains(" unsigned") ? dataType + " unsigned" : dataType;
+                    String extra = rs.getString("extra");
+                    current.addColumn(new ColumnDef(columnName,
+                            typeName.startsWith("bit") ? "tinyint" : typeName,
+                            columnSize(rs, dataType, columnType),
+                            GroovyScriptGenerator.decimalDigits(dataType, rs.getInt("numeric_scale")),
+                            "YES".equalsIgnoreCase(rs.getString("is_nullable")),
+                            !StringUtils.isEmpty(extra) && extra.toLowerCase().contains("auto_increment"),
+                            current.getPkColumn().contains(columnName),
+                            rs.getString("column_comment"),
+                            rs.getString("column_default")));
+                }
+            }
+        }
+        metrics.record(GenerationMetrics.Phase.COLUMN_QUERY, start);
+        //表的索引信息
+        start = metrics.start();
+        try (PreparedStatement ps = prepare(con, SELECT_INDEX_SQL, condition, ORDER_INDEX_SQL, db)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                TableSchema.Builder current = null;
+                while (rs.next()) {
+                    String tableName = rs.getString("table_name");
+                    if (current == null || !current.getTableName().equals(tableName)) {
+                        current = tables.get(tableName);
+                    }
+                    if (current == null) {
+                        continue;
+                    }
+                    current.addIndex(new IndexInfo(rs.getInt("non_unique") != 0, rs.getString("index_name"),
+                            rs.getString("column_name"), rs.getInt("seq_in_index")));
+                }
+            }
+        }
+        metrics.record(GenerationMetrics.Phase.INDEX_QUERY, start);
+        Map<String, TableSchema> result = new LinkedHashMap<>(tables.size() * 2);
+        tables.forEach((tableName, builder) -> {
+            //不支持条件下推时（如替身库）在此过滤
+            if (filter.acceptsTable(db, tableName)) {
+                result.put(tableName, builder.build());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 拼接过滤条件并设置参数，第一个参数为库名
+     */
+    static PreparedStatement prepare(Connection con, String select, ObjectFilter.Condition condition, String order,
+                                     String db) throws SQLException {
+        PreparedStatement ps = con.prepareStatement(select + condition.getSql() + order);
+        ps.setString(1, db);
+        List<String> params = condition.getParams();
+        for (int i = 0; i < params.size(); i++) {
+            ps.setString(i + 2, params.get(i));
+        }
+        return ps;
+    }
+
+    /**
+     * 一次查询库中所有表的外键引用
+     *
+     * @return key为表名，value为引用的表，其他库的表为"库.表"
+     */
+    static Map<String, Set<String>> extractForeignKeys(Connection con, String db, ObjectFilter filter) throws SQLException {
+        Map<String, Set<String>> foreignKeys = new TreeMap<>();
+        try (PreparedStatement ps = prepare(con, SELECT_FK_SQL, filter.tableCondition(db, "table_name"), ORDER_FK_SQL, db)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String tableName = rs.getString("table_name");
+                    if (!filter.acceptsTable(db, tableName)) {
+                        continue;
+                    }
+                    String referencedSchema = rs.getString("referenced_table_schema");
+                    String referencedTable = rs.getString("referenced_table_name");
+                    foreignKeys.computeIfAbsent(tableName, k -> new TreeSet<>())
+                            .add(db.equals(referencedSchema) ? referencedTable : referencedSchema + "." + referencedTable);
+                }
+            }
+        }
+        return foreignKeys;
+    }
+
+    /**
+     * 按mysql驱动getColumns的规则推导COLUMN_SIZE：优先取列定义括号中的长度，其次取字符长度或数值精度
+     */
+    private static int columnSize(ResultSet rs, String dataType, String columnType) throws SQLException {
+        boolean temporal = "date".equals(dataType) || "time".equals(dataType) || "datetime".equals(dataType)
+                || "timestamp".equals(dataType) || "year".equals(dataType);
+        int start = columnType.indexOf('(');
+        if (!temporal && start > 0) {
+            int end = start + 1;
+            while (end < columnType.length() && Character.isDigit(columnType.charAt(end))) {
+                end++;
+            }
+            if (end > start + 1) {
+                return Integer.parseInt(columnType.substring(start + 1, end));
+            }
+        }
+        long charLength = rs.getLong("character_maximum_length");
+        if (!rs.wasNull()) {
+            return (int) Math.min(charLength, Integer.MAX_VALUE);
+        }
+        int precision = rs.getInt("numeric_precision");
+        if (!rs.wasNull()) {
+            return precision;
+        }
+        if (!temporal) {
+            return 0;
+        }
+        int fraction = rs.getInt("datetime_precision");
+        int fractionSize = fraction > 0 ? fraction + 1 : 0;
+        switch (dataType) {
+            case "date":
+                return 10;
+            case "time":
+                return 8 + fractionSize;
+            case "year":
+                return 4;
+            default:
+                return 19 + fractionSize;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package groovyutil;
+
+/**
+ * @Description: 列定义，抽取时一次性计算好渲染需要的标志位，渲染时不再做字符串比较
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+public class ColumnDef {
+
+    /**
+     * 列名
+     */
+    private final String name;
+    /**
+     * 列类型，已转为小写，bit类型已转为tinyint
+     */
+    private final String type;
+    /**
+     * 列大小
+     */
+    private final int size;
+    /**
+     * 小数位数，只对decimal、numeric有意义，其他类型为0
+     */
+    private final int decimalDigits;
+    /**
+     * 是否允许为空
+     */
+    private final boolean nullable;
+    /**
+     * 是否自增
+     */
+    private final boolean autoIncrement;
+    /**
+     * 是否主键列
+     */
+    private final boolean primaryKey;
+    /**
+     * 列描述
+     */
+    private final String remarks;
+    /**
+     * 列默认值，没有默认值时为空
+     */
+    private final String defaultValue;
+    /**
+     * 默认值是否为计算值（CURRENT_TIMESTAMP）
+     */
+    private final boolean defaultValueComputed;
+    /**
+     * 是否timestamp类型，渲染时长度固定为6
+     */
+    private final boolean timestamp;
+
+    ColumnDef(String name, String type, int size, int decimalDigits, boolean nullable, boolean autoIncrement, boolean primaryKey,
+              String remarks, String defaultValue) {
+        this.name = name;
+        this.type = type;
+        this.size = size;
+        this.decimalDigits = decimalDigits;
+        this.nullable = nullable;
+        this.autoIncrement = autoIncrement;
+        this.primaryKey = primaryKey;
+        this.remarks = remarks;
+        //与原有渲染逻辑一致：空串及字符串"null"都视为没有默认值
+        this.defaultValue = defaultValue == null || defaultValue.isEmpty() || "null".equalsIgnoreCase(defaultValue) ? null : defaultValue;
+        this.defaultValueComputed = "CURRENT_TIMESTAMP".equalsIgnoreCase(this.defaultValue);
+        this.timestamp = type != null && type.startsWith("timestamp");
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getDecimalDigits() {
+        return decimalDigits;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public boolean isAutoIncrement() {
+        return autoIncrement;
+    }
+
+    public boolean isPrimaryKey() {
+        return primaryKey;
+    }
+
+    public String getRemarks() {
+        return remarks;
+    }
+
+    public boolean hasDefaultValue() {
+        return defaultValue != null;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    public boolean isDefaultValueComputed() {
+        return defaultValueComputed;
+    }
+
+    public boolean isTimestamp() {
+        return timestamp;
+    }
+}
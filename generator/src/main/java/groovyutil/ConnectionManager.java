@@ -0,0 +1,262 @@
+package groovyutil;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @Description: 数据库连接管理，同一个服务器复用少量连接，通过setCatalog切换库，不再为每张表重新建立连接。
+ * 等待连接使用ReentrantLock，虚拟线程等待时不会占住载体线程
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+class ConnectionManager implements AutoCloseable {
+
+    /**
+     * 默认最多保留的空闲连接数
+     */
+    static final int DEFAULT_MAX_IDLE = 4;
+    /**
+     * 使用虚拟线程且未指定线程数时同时借出的连接上限，虚拟线程的数量不受限制，连接数需要单独限制
+     */
+    static final int DEFAULT_VIRTUAL_MAX_ACTIVE = 8;
+    /**
+     * 空闲超过该时长的连接在复用前先检查是否有效，避免常驻运行时使用已被服务器断开的连接
+     */
+    static final long VALIDATE_AFTER_IDLE_MILLIS = 30000;
+    private static final int VALIDATE_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int maxIdle;
+    /**
+     * 同时借出的连接上限，0表示不限制
+     */
+    private final int maxActive;
+    /**
+     * 当前借出的连接数
+     */
+    private int active;
+    /**
+     * 空闲连接
+     */
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    /**
+     * 新建连接数
+     */
+    private int opened;
+    /**
+     * 复用连接数
+     */
+    private int reused;
+    private boolean closed;
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * 有连接归还或连接管理关闭
+     */
+    private final Condition released = lock.newCondition();
+    /**
+     * 耗时统计，记录建立连接的耗时
+     */
+    private volatile GenerationMetrics metrics = GenerationMetrics.DISABLED;
+    /**
+     * 查询限流，为空时不限流
+     */
+    private volatile QueryThrottle throttle;
+
+    ConnectionManager(String driver, String url, String username, String password) throws ClassNotFoundException {
+        this(driver, url, username, password, 0);
+    }
+
+    /**
+     * @param maxActive 同时借出的连接上限，并发生成时每个线程最多占用一个连接
+     */
+    ConnectionManager(String driver, String url, String username, String password, int maxActive) throws ClassNotFoundException {
+        Class.forName(driver);
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxActive = maxActive;
+        this.maxIdle = Math.max(maxActive, DEFAULT_MAX_IDLE);
+    }
+
+    /**
+     * 获取连接并切换到指定库
+     *
+     * @param db 库名，为空时保持连接当前的库
+     */
+    Connection acquire(String db) throws SQLException {
+        Connection con = null;
+        long idleSince = 0;
+        lock.lock();
+        try {
+            while (!closed && maxActive > 0 && active >= maxActive) {
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a connection", e);
+                }
+            }
+            if (closed) {
+                throw new SQLException("ConnectionManager is closed");
+            }
+            active++;
+            while (con == null && !idle.isEmpty()) {
+                IdleConnection candidate = idle.pop();
+                if (candidate.con.isClosed()) {
+                    continue;
+                }
+                con = candidate.con;
+                idleSince = candidate.since;
+                reused++;
+            }
+            if (con == null) {
+                opened++;
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            if (con != null && System.currentTimeMillis() - idleSince > VALIDATE_AFTER_IDLE_MILLIS
+                    && !con.isValid(VALIDATE_TIMEOUT_SECONDS)) {
+                closeQuietly(con);
+                con = null;
+                lock.lock();
+                try {
+                    reused--;
+                    opened++;
+                } finally {
+                    lock.unlock();
+                }
+            }
+            if (con == null) {
+                long start = metrics.start();
+                con = DriverManager.getConnection(url, username, password);
+                metrics.record(GenerationMetrics.Phase.CONNECT, start);
+                if (throttle != null) {
+                    con = throttle.wrap(con);
+                }
+            }
+            if (db != null && !db.equals(con.getCatalog())) {
+                con.setCatalog(db);
+            }
+            return con;
+        } catch (SQLException e) {
+            if (con != null) {
+                closeQuietly(con);
+            }
+            lock.lock();
+            try {
+                active--;
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 归还连接，超出空闲上限的连接直接关闭
+     */
+    void release(Connection con) {
+        if (con == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            active--;
+            released.signalAll();
+            if (!closed && idle.size() < maxIdle) {
+                idle.push(new IdleConnection(con, System.currentTimeMillis()));
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        closeQuietly(con);
+    }
+
+    void setMetrics(GenerationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 设置查询限流，之后新建的连接上的查询都经过限流，需在获取连接之前设置
+     */
+    void setThrottle(QueryThrottle throttle) {
+        this.throttle = throttle;
+    }
+
+    int getOpened() {
+        lock.lock();
+        try {
+            return opened;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getReused() {
+        lock.lock();
+        try {
+            return reused;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        Deque<IdleConnection> toClose;
+        lock.lock();
+        try {
+            closed = true;
+            released.signalAll();
+            toClose = new ArrayDeque<>(idle);
+            idle.clear();
+        } finally {
+            lock.unlock();
+        }
+        for (IdleConnection connection : toClose) {
+            closeQuietly(connection.con);
+        }
+    }
+
+    private static void closeQuietly(Connection con) {
+        try {
+            con.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 空闲连接及归还的时间
+     */
+    private static class IdleConnection {
+        private final Connection con;
+        private final long since;
+
+        private IdleConnection(Connection con, long since) {
+            this.con = con;
+            this.since = since;
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return "Connections opened: " + opened + ", reused: " + reused;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,658 @@
+package groovyutil;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @Description: 导出选定表的数据，生成liquibase的初始化数据脚本：loadData引用的CSV文件，或分批的insert changeSet。
+ * 每张表的数据写在库目录下的data子目录中，data/表名.groovy为该表的数据changelog，data/表名/下为按行数切分的数据文件。
+ * 数据以流式结果集逐行读取、逐行写入，内存中不保留整张表；所有表按information_schema.tables中估算的数据量从大到小调度，
+ * 最大的表最先开始，减少并发导出的总耗时
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+class DataExporter {
+
+    enum Format {
+        /**
+         * CSV数据文件，由loadData加载
+         */
+        LOAD_DATA,
+        /**
+         * insert changeSet
+         */
+        INSERT
+    }
+
+    /**
+     * 默认每个数据文件的行数
+     */
+    static final int DEFAULT_CHUNK_ROWS = 100000;
+    /**
+     * 默认每个insert changeSet的行数
+     */
+    static final int DEFAULT_BATCH_ROWS = 1000;
+    /**
+     * mysql驱动逐行流式读取结果集的fetchSize；连接参数带useCursorFetch=true时可改为正数，按批使用游标读取
+     */
+    static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    /**
+     * 导出失败时交给listener的结果的格式名
+     */
+    static final String FORMAT = "data";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String SELECT_TABLE_SQL = "select table_name, table_rows, data_length from information_schema.tables " +
+            "where table_schema=? and table_type='BASE TABLE'";
+    private static final String SELECT_COLUMN_SQL = "select column_name, data_type, extra from information_schema.columns " +
+            "where table_schema=? and table_name=? order by ordinal_position";
+    private static final String SELECT_PK_SQL = "select column_name from information_schema.key_column_usage " +
+            "where table_schema=? and table_name=? and constraint_name='PRIMARY' order by ordinal_position";
+
+    /**
+     * 需要导出数据的表，只导出被包含规则选中的表
+     */
+    private final ObjectFilter tables;
+    private Format format = Format.LOAD_DATA;
+    private int chunkRows = DEFAULT_CHUNK_ROWS;
+    private int batchRows = DEFAULT_BATCH_ROWS;
+    private int fetchSize = STREAMING_FETCH_SIZE;
+    private int threads = 1;
+    private GenerationMetrics metrics = GenerationMetrics.DISABLED;
+    private GenerationListener listener;
+
+    /**
+     * @param tables 表的包含规则，格式与-include-table相同
+     */
+    DataExporter(ObjectFilter tables) {
+        this.tables = tables;
+    }
+
+    /**
+     * 导出所有库中选定表的数据
+     *
+     * @param filter 生成脚本时的过滤规则，被排除的表同样不导出数据
+     */
+    void export(ConnectionManager connectionManager, GroovyScriptRenderer renderer, String targetPath,
+                ObjectFilter filter, List<String> dbs) throws SQLException, InterruptedException {
+        List<DataTable> dataTables = new ArrayList<>();
+        for (String db : dbs) {
+            if (tables.includesTables(db)) {
+                dataTables.addAll(obtainDataTables(connectionManager, db, filter));
+            }
+        }
+        //数据量最大的表最先导出
+        dataTables.sort(Comparator.comparingLong((DataTable table) -> table.dataLength)
+                .thenComparingLong(table -> table.tableRows).reversed()
+                .thenComparing(table -> table.db).thenComparing(table -> table.tableName));
+        ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (DataTable table : dataTables) {
+                Runnable task = () -> exportTable(connectionManager, renderer, targetPath, table);
+                if (executor == null) {
+                    task.run();
+                } else {
+                    futures.add(executor.submit(task));
+                }
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                }
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * 库中需要导出数据的表及估算的行数、数据量
+     */
+    private List<DataTable> obtainDataTables(ConnectionManager connectionManager, String db, ObjectFilter filter) throws SQLException {
+        ObjectFilter.Condition condition = filter.tableCondition(db, "table_name").and(tables.tableCondition(db, "table_name"));
+        Connection con = connectionManager.acquire(null);
+        try (PreparedStatement ps = BulkMetadataExtractor.prepare(con, SELECT_TABLE_SQL, condition, "", db);
+             ResultSet rs = ps.executeQuery()) {
+            List<DataTable> dataTables = new ArrayList<>();
+            while (rs.next()) {
+                String tableName = rs.getString("table_name");
+                if (filter.acceptsTable(db, tableName) && tables.acceptsTable(db, tableName)) {
+                    dataTables.add(new DataTable(db, tableName, rs.getLong("table_rows"), rs.getLong("data_length")));
+                }
+            }
+            return dataTables;
+        } finally {
+            connectionManager.release(con);
+        }
+    }
+
+    /**
+     * 导出一张表，失败时不影响其他表：设置了listener时交给listener，否则输出异常
+     */
+    private void exportTable(ConnectionManager connectionManager, GroovyScriptRenderer renderer, String targetPath, DataTable table) {
+        long start = metrics.start();
+        long startNanos = System.nanoTime();
+        File dataPath = new File(targetPath + table.db + "/data/");
+        File chunkPath = new File(dataPath, table.tableName);
+        Connection con = null;
+        try {
+            con = connectionManager.acquire(null);
+            List<DataColumn> columns = obtainDataColumns(con, table);
+            List<String> pkColumns = obtainPkColumns(con, table);
+            prepareChunkPath(chunkPath);
+            int chunks;
+            long rows = 0;
+            try (PreparedStatement ps = con.prepareStatement(selectSql(table, columns, pkColumns),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(fetchSize);
+                try (ResultSet rs = ps.executeQuery()) {
+                    ChunkWriter writer = format == Format.LOAD_DATA ? new CsvChunkWriter(chunkPath, columns)
+                            : new InsertChunkWriter(chunkPath, renderer, table.tableName, columns);
+                    try {
+                        while (rs.next()) {
+                            writer.write(rs);
+                            rows++;
+                        }
+                    } finally {
+                        writer.close();
+                    }
+                    chunks = writer.chunks;
+                }
+            }
+            File changelog = new File(dataPath, table.tableName + ".groovy");
+            if (chunks == 0) {
+                changelog.delete();
+                chunkPath.delete();
+                System.out.println("Database[" + table.db + "] : Table[ " + table.tableName + " ] : The table is empty, no data exported");
+                return;
+            }
+            writeChangelog(changelog, renderer, table.tableName, columns, chunks);
+            metrics.count("data.rows", rows);
+            metrics.count("data.files", chunks + 1);
+            System.out.println("Database[" + table.db + "] : Table[ " + table.tableName + " ] : " + rows + " rows exported into "
+                    + chunks + " files successfully! Please check the directory[" + dataPath.getPath() + "]");
+        } catch (SQLException | IOException | RuntimeException e) {
+            metrics.count("data.failed");
+            if (listener == null) {
+                System.out.println("Database[" + table.db + "] : Table[ " + table.tableName + " ] : The data export failed");
+                e.printStackTrace();
+                return;
+            }
+            listener.onTable(new TableResult(table.db, table.tableName, TableResult.Status.FAILED, null, null, null, 0,
+                    System.nanoTime() - startNanos, e, FORMAT));
+        } finally {
+            connectionManager.release(con);
+            metrics.record(GenerationMetrics.Phase.DATA_EXPORT, start);
+        }
+    }
+
+    private static List<DataColumn> obtainDataColumns(Connection con, DataTable table) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(SELECT_COLUMN_SQL)) {
+            ps.setString(1, table.db);
+            ps.setString(2, table.tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<DataColumn> columns = new ArrayList<>();
+                while (rs.next()) {
+                    String extra = rs.getString("extra");
+                    //生成列的值由数据库计算，不能插入
+                    if (extra != null && extra.toUpperCase().contains("GENERATED")) {
+                        continue;
+                    }
+                    columns.add(new DataColumn(rs.getString("column_name"), rs.getString("data_type").toLowerCase()));
+                }
+                return columns;
+            }
+        }
+    }
+
+    private static List<String> obtainPkColumns(Connection con, DataTable table) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(SELECT_PK_SQL)) {
+            ps.setString(1, table.db);
+            ps.setString(2, table.tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<String> columns = new ArrayList<>();
+                while (rs.next()) {
+                    columns.add(rs.getString("column_name"));
+                }
+                return columns;
+            }
+        }
+    }
+
+    /**
+     * 按主键排序查询，相同的数据每次导出的文件相同
+     */
+    private static String selectSql(DataTable table, List<DataColumn> columns, List<String> pkColumns) {
+        StringBuilder sql = new StringBuilder("select ");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            appendIdentifier(sql, columns.get(i).name);
+        }
+        sql.append(" from ");
+        appendIdentifier(sql, table.db);
+        sql.append('.');
+        appendIdentifier(sql, table.tableName);
+        for (int i = 0; i < pkColumns.size(); i++) {
+            sql.append(i == 0 ? " order by " : ", ");
+            appendIdentifier(sql, pkColumns.get(i));
+        }
+        return sql.toString();
+    }
+
+    private static void appendIdentifier(StringBuilder sql, String name) {
+        sql.append('`').append(name.replace("`", "``")).append('`');
+    }
+
+    /**
+     * 清理表上次导出的数据文件
+     */
+    private static void prepareChunkPath(File chunkPath) {
+        if (!chunkPath.exists()) {
+            chunkPath.mkdirs();
+            return;
+        }
+        File[] files = chunkPath.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * 表的数据changelog：loadData时每个CSV文件一个changeSet，insert时依次include每个数据文件
+     */
+    private void writeChangelog(File file, GroovyScriptRenderer renderer, String tableName, List<DataColumn> columns,
+                                int chunks) throws IOException {
+        try (Writer out = newWriter(file)) {
+            renderer.renderHeader(tableName + "-data", out);
+            for (int chunk = 1; chunk <= chunks; chunk++) {
+                String chunkName = chunkName(chunk);
+                if (format == Format.LOAD_DATA) {
+                    renderer.renderDataChangeSetStart(tableName, chunkName, out);
+                    out.append("\t\tloadData(tableName: \"").append(tableName).append("\", file: \"").append(tableName).append('/')
+                            .append(chunkName).append(".csv\", relativeToChangelogFile: true, encoding: \"UTF-8\", separator: \",\", quotchar: '\"') {\r\n");
+                    for (DataColumn column : columns) {
+                        out.append("\t\t\tcolumn(name: \"").append(column.name).append("\", type: \"").append(column.type.name()).append("\")\r\n");
+                    }
+                    out.append("\t\t}\r\n");
+                    out.append("\t}\r\n");
+                } else {
+                    out.append("\tinclude(file: \"").append(tableName).append('/').append(chunkName)
+                            .append(".groovy\", relativeToChangelogFile: true)\r\n");
+                }
+            }
+            out.append('}').append(renderer.lineSeparator());
+        }
+    }
+
+    private static Writer newWriter(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE), BUFFER_SIZE);
+    }
+
+    /**
+     * 数据文件名，按序号补零，文件按名称排序即为导出顺序
+     */
+    private static String chunkName(int chunk) {
+        String number = String.valueOf(chunk);
+        return "00000".substring(Math.min(number.length(), 5)) + number;
+    }
+
+    void setFormat(Format format) {
+        this.format = format;
+    }
+
+    void setChunkRows(int chunkRows) {
+        this.chunkRows = chunkRows;
+    }
+
+    void setBatchRows(int batchRows) {
+        this.batchRows = batchRows;
+    }
+
+    void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    void setMetrics(GenerationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 导出失败的表交给listener，格式为data；为空时输出到控制台
+     */
+    void setListener(GenerationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 按行数切分的数据文件，达到chunkRows行时切换到下一个文件
+     */
+    private abstract class ChunkWriter {
+        final File chunkPath;
+        final List<DataColumn> columns;
+        Writer out;
+        int chunks;
+        int chunkRowCount;
+
+        ChunkWriter(File chunkPath, List<DataColumn> columns) {
+            this.chunkPath = chunkPath;
+            this.columns = columns;
+        }
+
+        void write(ResultSet rs) throws SQLException, IOException {
+            if (out == null || chunkRowCount >= chunkRows) {
+                close();
+                chunks++;
+                chunkRowCount = 0;
+                out = newWriter(new File(chunkPath, chunkName(chunks) + extension()));
+                start();
+            }
+            writeRow(rs);
+            chunkRowCount++;
+        }
+
+        void close() throws IOException {
+            if (out != null) {
+                end();
+                out.close();
+                out = null;
+            }
+        }
+
+        abstract String extension();
+
+        abstract void start() throws IOException;
+
+        abstract void writeRow(ResultSet rs) throws SQLException, IOException;
+
+        abstract void end() throws IOException;
+    }
+
+    /**
+     * CSV数据文件：首行为列名，空值为不带引号的NULL，字符串、日期都带双引号
+     */
+    private class CsvChunkWriter extends ChunkWriter {
+
+        CsvChunkWriter(File chunkPath, List<DataColumn> columns) {
+            super(chunkPath, columns);
+        }
+
+        @Override
+        String extension() {
+            return ".csv";
+        }
+
+        @Override
+        void start() throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendQuoted(columns.get(i).name);
+            }
+            out.append("\r\n");
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                DataColumn column = columns.get(i);
+                String value = column.value(rs, i + 1);
+                if (value == null) {
+                    out.append("NULL");
+                } else if (column.type == ValueType.STRING || column.type == ValueType.DATE) {
+                    appendQuoted(value);
+                } else {
+                    out.append(value);
+                }
+            }
+            out.append("\r\n");
+        }
+
+        private void appendQuoted(String value) throws IOException {
+            out.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    out.append('"');
+                }
+                out.append(c);
+            }
+            out.append('"');
+        }
+
+        @Override
+        void end() {
+        }
+    }
+
+    /**
+     * insert数据文件：一个databaseChangeLog，每batchRows行一个changeSet，每行一个insert
+     */
+    private class InsertChunkWriter extends ChunkWriter {
+        private final GroovyScriptRenderer renderer;
+        private final String tableName;
+
+        InsertChunkWriter(File chunkPath, GroovyScriptRenderer renderer, String tableName, List<DataColumn> columns) {
+            super(chunkPath, columns);
+            this.renderer = renderer;
+            this.tableName = tableName;
+        }
+
+        @Override
+        String extension() {
+            return ".groovy";
+        }
+
+        @Override
+        void start() throws IOException {
+            renderer.renderHeader(tableName + "-data-" + chunkName(chunks), out);
+        }
+
+        @Override
+        void writeRow(ResultSet rs) throws SQLException, IOException {
+            if (chunkRowCount % batchRows == 0) {
+                if (chunkRowCount > 0) {
+                    out.append("\t}\r\n");
+                }
+                renderer.renderDataChangeSetStart(tableName, chunkName(chunks) + "-" + chunkName(chunkRowCount / batchRows + 1), out);
+            }
+            out.append("\t\tinsert(tableName: \"").append(tableName).append("\") {\r\n");
+            for (int i = 0; i < columns.size(); i++) {
+                DataColumn column = columns.get(i);
+                String value = column.value(rs, i + 1);
+                out.append("\t\t\tcolumn(name: \"").append(column.name).append("\", ").append(column.type.insertAttribute).append(": ");
+                if (value == null) {
+                    out.append("null");
+                } else {
+                    appendGroovyString(value);
+                }
+                out.append(")\r\n");
+            }
+            out.append("\t\t}\r\n");
+        }
+
+        /**
+         * 单引号字符串，不做${}插值
+         */
+        private void appendGroovyString(String value) throws IOException {
+            out.append('\'');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\'':
+                        out.append("\\'");
+                        break;
+                    case '\\':
+                        out.append("\\\\");
+                        break;
+                    case '\r':
+                        out.append("\\r");
+                        break;
+                    case '\n':
+                        out.append("\\n");
+                        break;
+                    case '\t':
+                        out.append("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            out.append(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.append(c);
+                        }
+                }
+            }
+            out.append('\'');
+        }
+
+        @Override
+        void end() throws IOException {
+            if (chunkRowCount > 0) {
+                out.append("\t}\r\n");
+            }
+            out.append('}').append(renderer.lineSeparator());
+        }
+    }
+
+    /**
+     * 列值在loadData中的类型及在insert中使用的属性
+     */
+    enum ValueType {
+        NUMERIC("valueNumeric"),
+        DATE("valueDate"),
+        STRING("value"),
+        /**
+         * 二进制值，以X'十六进制'表达式导出
+         */
+        COMPUTED("valueComputed");
+
+        private final String insertAttribute;
+
+        ValueType(String insertAttribute) {
+            this.insertAttribute = insertAttribute;
+        }
+
+        static ValueType of(String dataType) {
+            switch (dataType) {
+                case "tinyint":
+                case "smallint":
+                case "mediumint":
+                case "int":
+                case "integer":
+                case "bigint":
+                case "decimal":
+                case "numeric":
+                case "float":
+                case "double":
+                case "real":
+                case "bit":
+                    return NUMERIC;
+                case "date":
+                case "datetime":
+                case "timestamp":
+                    return DATE;
+                case "binary":
+                case "varbinary":
+                case "tinyblob":
+                case "blob":
+                case "mediumblob":
+                case "longblob":
+                    return COMPUTED;
+                default:
+                    return STRING;
+            }
+        }
+    }
+
+    private static class DataColumn {
+        private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+        private final String name;
+        private final String dataType;
+        private final ValueType type;
+
+        private DataColumn(String name, String dataType) {
+            this.name = name;
+            this.dataType = dataType;
+            this.type = ValueType.of(dataType);
+        }
+
+        /**
+         * 列值的文本，空值为null。数值、日期使用驱动返回的原始文本，不经过浮点或时区转换
+         */
+        private String value(ResultSet rs, int index) throws SQLException {
+            if (type == ValueType.COMPUTED) {
+                byte[] bytes = rs.getBytes(index);
+                if (bytes == null) {
+                    return null;
+                }
+                StringBuilder sb = new StringBuilder(bytes.length * 2 + 3).append("X'");
+                for (byte b : bytes) {
+                    sb.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+                }
+                return sb.append('\'').toString();
+            }
+            if ("bit".equals(dataType)) {
+                long value = rs.getLong(index);
+                return rs.wasNull() ? null : String.valueOf(value);
+            }
+            return rs.getString(index);
+        }
+    }
+
+    /**
+     * 需要导出数据的表
+     */
+    private static class DataTable {
+        private final String db;
+        private final String tableName;
+        /**
+         * information_schema.tables中估算的行数和数据量，用于调度
+         */
+        private final long tableRows;
+        private final long dataLength;
+
+        private DataTable(String db, String tableName, long tableRows, long dataLength) {
+            this.db = db;
+            this.tableName = tableName;
+            this.tableRows = tableRows;
+            this.dataLength = dataLength;
+        }
+    }
+}
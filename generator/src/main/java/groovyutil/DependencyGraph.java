@@ -0,0 +1,240 @@
+package groovyutil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * @Description: 库内表的外键依赖图。表依赖于它的外键引用的表，按拓扑层级分组：第0层不依赖其他表，
+ * 第n层只依赖前n-1层的表，同一层的表互不依赖，可以并行创建。循环依赖的表（强连通分量）作为一个整体放在同一层，并单独列出
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+class DependencyGraph {
+
+    /**
+     * 所有库的层级清单，保存在脚本根目录
+     */
+    static final String MANIFEST_FILE_NAME = "dependency-levels.json";
+
+    /**
+     * 表及其依赖的表，只包含图中的表，不含自引用
+     */
+    private final Map<String, Set<String>> dependencies = new TreeMap<>();
+    /**
+     * 引用了图之外的表（其他库或被过滤的表），key为表名
+     */
+    private final Map<String, Set<String>> unresolved = new TreeMap<>();
+    private final List<List<String>> levels = new ArrayList<>();
+    private final List<List<String>> cycles = new ArrayList<>();
+
+    /**
+     * @param tables      图中的表
+     * @param foreignKeys 表引用的表，其他库的表为"库.表"
+     */
+    DependencyGraph(Collection<String> tables, Map<String, Set<String>> foreignKeys) {
+        for (String table : tables) {
+            dependencies.put(table, new TreeSet<>());
+        }
+        for (Map.Entry<String, Set<String>> entry : foreignKeys.entrySet()) {
+            Set<String> tableDependencies = dependencies.get(entry.getKey());
+            if (tableDependencies == null) {
+                continue;
+            }
+            for (String referenced : entry.getValue()) {
+                if (referenced.equals(entry.getKey())) {
+                    continue;
+                }
+                if (dependencies.containsKey(referenced)) {
+                    tableDependencies.add(referenced);
+                } else {
+                    unresolved.computeIfAbsent(entry.getKey(), k -> new TreeSet<>()).add(referenced);
+                }
+            }
+        }
+        build();
+    }
+
+    /**
+     * 求强连通分量（Tarjan），再按分量之间的依赖计算层级
+     */
+    private void build() {
+        Map<String, Integer> index = new HashMap<>();
+        Map<String, Integer> lowLink = new HashMap<>();
+        Deque<String> stack = new ArrayDeque<>();
+        Set<String> onStack = new TreeSet<>();
+        Map<String, Integer> component = new HashMap<>();
+        List<List<String>> components = new ArrayList<>();
+        for (String table : dependencies.keySet()) {
+            if (!index.containsKey(table)) {
+                strongConnect(table, index, lowLink, stack, onStack, component, components);
+            }
+        }
+        //Tarjan按依赖在前的顺序产生分量，依赖的分量的层级已经确定
+        int[] componentLevel = new int[components.size()];
+        for (int c = 0; c < components.size(); c++) {
+            int level = 0;
+            for (String table : components.get(c)) {
+                for (String dependency : dependencies.get(table)) {
+                    int d = component.get(dependency);
+                    if (d != c) {
+                        level = Math.max(level, componentLevel[d] + 1);
+                    }
+                }
+            }
+            componentLevel[c] = level;
+            List<String> members = components.get(c);
+            Collections.sort(members);
+            if (members.size() > 1) {
+                cycles.add(members);
+            }
+            while (levels.size() <= level) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(level).addAll(members);
+        }
+        for (List<String> level : levels) {
+            Collections.sort(level);
+        }
+        cycles.sort((a, b) -> a.get(0).compareTo(b.get(0)));
+    }
+
+    /**
+     * 迭代实现的Tarjan算法，避免依赖链很长时栈溢出
+     */
+    private void strongConnect(String root, Map<String, Integer> index, Map<String, Integer> lowLink, Deque<String> stack,
+                               Set<String> onStack, Map<String, Integer> component, List<List<String>> components) {
+        Deque<String> callStack = new ArrayDeque<>();
+        Map<String, Iterator<String>> iterators = new HashMap<>();
+        visit(root, index, lowLink, stack, onStack);
+        callStack.push(root);
+        iterators.put(root, dependencies.get(root).iterator());
+        while (!callStack.isEmpty()) {
+            String table = callStack.peek();
+            Iterator<String> iterator = iterators.get(table);
+            if (iterator.hasNext()) {
+                String dependency = iterator.next();
+                if (!index.containsKey(dependency)) {
+                    visit(dependency, index, lowLink, stack, onStack);
+                    callStack.push(dependency);
+                    iterators.put(dependency, dependencies.get(dependency).iterator());
+                } else if (onStack.contains(dependency)) {
+                    lowLink.put(table, Math.min(lowLink.get(table), index.get(dependency)));
+                }
+                continue;
+            }
+            callStack.pop();
+            if (!callStack.isEmpty()) {
+                String parent = callStack.peek();
+                lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(table)));
+            }
+            if (lowLink.get(table).equals(index.get(table))) {
+                List<String> members = new ArrayList<>();
+                String member;
+                do {
+                    member = stack.pop();
+                    onStack.remove(member);
+                    component.put(member, components.size());
+                    members.add(member);
+                } while (!member.equals(table));
+                components.add(members);
+            }
+        }
+    }
+
+    private static void visit(String table, Map<String, Integer> index, Map<String, Integer> lowLink, Deque<String> stack,
+                              Set<String> onStack) {
+        index.put(table, index.size());
+        lowLink.put(table, index.get(table));
+        stack.push(table);
+        onStack.add(table);
+    }
+
+    /**
+     * 拓扑层级，每层的表按名称排序
+     */
+    List<List<String>> getLevels() {
+        return levels;
+    }
+
+    /**
+     * 循环依赖的表，每个循环按名称排序
+     */
+    List<List<String>> getCycles() {
+        return cycles;
+    }
+
+    /**
+     * 保存所有库的层级、循环依赖和图之外的引用，供初始化工具按层级并行创建表
+     *
+     * @param graphs key为库名
+     */
+    static void writeManifest(File file, Map<String, DependencyGraph> graphs) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("{");
+            boolean firstDb = true;
+            for (Map.Entry<String, DependencyGraph> entry : graphs.entrySet()) {
+                DependencyGraph graph = entry.getValue();
+                writer.write(firstDb ? "\n" : ",\n");
+                firstDb = false;
+                writer.write("  " + quote(entry.getKey()) + ": {\n    \"levels\": [");
+                writeLists(writer, graph.levels);
+                writer.write("],\n    \"cycles\": [");
+                writeLists(writer, graph.cycles);
+                writer.write("],\n    \"unresolved\": {");
+                boolean first = true;
+                for (Map.Entry<String, Set<String>> unresolvedEntry : graph.unresolved.entrySet()) {
+                    writer.write(first ? "" : ", ");
+                    first = false;
+                    writer.write(quote(unresolvedEntry.getKey()) + ": ");
+                    writeList(writer, unresolvedEntry.getValue());
+                }
+                writer.write("}\n  }");
+            }
+            writer.write(graphs.isEmpty() ? "}\n" : "\n}\n");
+        }
+    }
+
+    private static void writeLists(Writer writer, List<List<String>> lists) throws IOException {
+        for (int i = 0; i < lists.size(); i++) {
+            writer.write(i == 0 ? "\n      " : ",\n      ");
+            writeList(writer, lists.get(i));
+        }
+        if (!lists.isEmpty()) {
+            writer.write("\n    ");
+        }
+    }
+
+    private static void writeList(Writer writer, Collection<String> values) throws IOException {
+        writer.write('[');
+        boolean first = true;
+        for (String value : values) {
+            writer.write(first ? "" : ", ");
+            first = false;
+            writer.write(quote(value));
+        }
+        writer.write(']');
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
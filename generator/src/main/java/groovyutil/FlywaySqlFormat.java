@@ -0,0 +1,70 @@
+package groovyutil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * @Description: Flyway版本迁移脚本，文件名为V1_表名的CRC32__create_表名.sql，版本号只由表名决定，
+ * 库中增删其他表时已执行过的脚本版本不变。版本号的大小与表的新旧无关，后加的表可能小于已执行的版本，
+ * 执行时需要开启Flyway的outOfOrder，否则这类脚本会被当作遗漏的版本而校验失败；两张表的CRC32相同时后写入的表失败，
+ * 需要手工改名。建表语句只含主键，索引用单独的CREATE INDEX语句创建
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+class FlywaySqlFormat implements ScriptFormat {
+
+    static final String NAME = "flyway";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public ScriptRenderer newRenderer(RenderSettings settings) {
+        ScriptTemplate header = ScriptTemplate.compile("-- changeSet ${id} by ${author}\r\n", "id", "author")
+                .with("author", settings.getAuthor().replace("\r", " ").replace("\n", " "));
+        ScriptTemplate createIndex = ScriptTemplate.compile(";\r\nCREATE ${unique}INDEX ${index} ON ${table} ",
+                "unique", "index", "table");
+        return new ScriptRenderer() {
+            @Override
+            public String getFileName(String tableName) {
+                return getVersion(tableName) + "__create_" + tableName + ".sql";
+            }
+
+            @Override
+            public String getVersion(String tableName) {
+                return "V1_" + version(tableName);
+            }
+
+            @Override
+            public void render(TableSchema table, Appendable out) throws IOException {
+                header.render(out, settings.changeSetId(table));
+                MysqlDdlFormat.renderCreateTable(table, false, out);
+                String tableName = MysqlDdlFormat.identifier(table.getTableName());
+                for (Map.Entry<String, List<IndexInfo>> entry : table.getIndexMap().entrySet()) {
+                    if ("PRIMARY".equalsIgnoreCase(entry.getKey())) {
+                        continue;
+                    }
+                    List<IndexInfo> columns = SchemaDiff.sortedByOrdinal(entry.getValue());
+                    createIndex.render(out, columns.get(0).isNonUnique() ? "" : "UNIQUE ",
+                            MysqlDdlFormat.identifier(entry.getKey()), tableName);
+                    MysqlDdlFormat.appendIndexColumns(columns, out);
+                }
+                out.append(';');
+            }
+        };
+    }
+
+    /**
+     * 表名UTF-8编码的CRC32，按无符号数输出
+     */
+    static long version(String tableName) {
+        CRC32 crc = new CRC32();
+        crc.update(tableName.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,177 @@
+package groovyutil;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Description: groovy以外的输出格式。表结构只抽取一次，每张表交给所有格式渲染；每种格式有自己的线程池和输出目录
+ * (根目录/格式名/库名/)，各格式之间、格式与groovy脚本之间并行渲染和写入，互不等待
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+class FormatOutput {
+
+    private final List<Target> targets = new ArrayList<>();
+    private final GroovyScriptRenderer writer;
+    private final GenerationMetrics metrics;
+    private final GenerationListener listener;
+    private final boolean captureScripts;
+
+    /**
+     * @param rootPath 脚本根目录，以分隔符结尾
+     * @param writer   提供渲染参数，并按groovy脚本的规则写文件：文件末尾的换行相同，内容相同时不重写
+     */
+    FormatOutput(List<ScriptFormat> formats, String rootPath, GroovyScriptRenderer writer, int threads, GenerationMetrics metrics,
+                 GenerationListener listener, boolean captureScripts) {
+        this.writer = writer;
+        this.metrics = metrics;
+        this.listener = listener;
+        this.captureScripts = captureScripts;
+        RenderSettings settings = writer.settings();
+        for (ScriptFormat format : formats) {
+            targets.add(new Target(format, format.newRenderer(settings), rootPath + format.getName() + File.separator, threads));
+        }
+    }
+
+    /**
+     * 库的表开始生成之前调用一次：创建并清理每种格式的库目录
+     */
+    void prepareSchema(String db) {
+        for (Target target : targets) {
+            File directory = new File(target.path + db);
+            if (!directory.exists()) {
+                directory.mkdirs();
+                continue;
+            }
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+        }
+    }
+
+    /**
+     * 把表交给所有格式，立即返回
+     */
+    void submit(String db, TableSchema table) {
+        for (Target target : targets) {
+            target.futures.add(target.executor.submit(() -> write(target, db, table)));
+        }
+    }
+
+    private void write(Target target, String db, TableSchema table) {
+        long start = System.nanoTime();
+        String tableName = table.getTableName();
+        String name = target.format.getName();
+        File file = new File(target.path + db, target.renderer.getFileName(tableName));
+        try {
+            //文件名只由表名决定，不同的表得到相同的文件名（如大小写不敏感的文件系统）时不能互相覆盖
+            String previous = target.fileNames.putIfAbsent(db + File.separator + file.getName().toLowerCase(), tableName);
+            if (previous != null && !previous.equals(tableName)) {
+                throw new IOException("The file name [" + file.getName() + "] is already used by table [" + previous + "]");
+            }
+            //文件名不同但版本号相同（如Flyway版本号的CRC32冲突）时迁移工具会拒绝整个库的脚本
+            String version = target.renderer.getVersion(tableName);
+            if (version != null) {
+                previous = target.versions.putIfAbsent(db + File.separator + version, tableName);
+                if (previous != null && !previous.equals(tableName)) {
+                    throw new IOException("The version [" + version + "] of [" + file.getName() + "] is already used by table [" + previous + "]");
+                }
+            }
+            StringBuilder sb = new StringBuilder();
+            target.renderer.render(table, sb);
+            String script = sb.toString();
+            TableResult.Status status;
+            if (writer.writeScript(script, file.toPath())) {
+                target.written.incrementAndGet();
+                metrics.count("scripts." + name + ".written");
+                status = TableResult.Status.WRITTEN;
+            } else {
+                target.unchanged.incrementAndGet();
+                metrics.count("scripts." + name + ".unchanged");
+                status = TableResult.Status.UNCHANGED;
+            }
+            if (listener != null) {
+                listener.onTable(new TableResult(db, tableName, status, table, captureScripts ? script : null, file, 0,
+                        System.nanoTime() - start, null, name));
+            }
+        } catch (IOException | RuntimeException e) {
+            target.failed.incrementAndGet();
+            metrics.count("scripts." + name + ".failed");
+            if (listener == null) {
+                System.out.println("Database[" + db + "] : Table[ " + tableName + " ] : Format[" + name + "] : The script generation failed");
+                e.printStackTrace();
+                return;
+            }
+            listener.onTable(new TableResult(db, tableName, TableResult.Status.FAILED, table, null, null, 0,
+                    System.nanoTime() - start, e, name));
+        }
+    }
+
+    /**
+     * 等待所有格式写完，输出每种格式的汇总并关闭线程池
+     */
+    void finish() throws InterruptedException {
+        for (Target target : targets) {
+            try {
+                for (Future<?> future : target.futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        e.getCause().printStackTrace();
+                    }
+                }
+            } finally {
+                target.executor.shutdown();
+            }
+            System.out.println("Format[" + target.format.getName() + "] : " + target.written + " written, " + target.unchanged
+                    + " unchanged, " + target.failed + " failed, please check the directory[" + target.path + "]");
+        }
+    }
+
+    /**
+     * 单种格式的渲染器、输出目录和线程池
+     */
+    private static class Target {
+        private final ScriptFormat format;
+        private final ScriptRenderer renderer;
+        private final String path;
+        private final ExecutorService executor;
+        private final ConcurrentLinkedQueue<Future<?>> futures = new ConcurrentLinkedQueue<>();
+        /**
+         * 已写入的文件（库名/小写文件名）与表名的对应关系
+         */
+        private final Map<String, String> fileNames = new ConcurrentHashMap<>();
+        /**
+         * 已使用的版本号（库名/版本号）与表名的对应关系
+         */
+        private final Map<String, String> versions = new ConcurrentHashMap<>();
+        private final AtomicInteger written = new AtomicInteger();
+        private final AtomicInteger unchanged = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+
+        Target(ScriptFormat format, ScriptRenderer renderer, String path, int threads) {
+            this.format = format;
+            this.renderer = renderer;
+            this.path = path;
+            //守护线程：生成中途失败时未关闭的线程池不会阻止进程退出
+            this.executor = Executors.newFixedThreadPool(Math.max(threads, 1), task -> {
+                Thread thread = new Thread(task, "format-" + format.getName());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+}
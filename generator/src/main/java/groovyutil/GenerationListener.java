@@ -0,0 +1,12 @@
+package groovyutil;
+
+/**
+ * @Description: 逐表接收生成结果。并发生成时由生成线程调用，实现需要线程安全；
+ * 设置了监听时，单表的异常交给监听处理，不再输出到控制台
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public interface GenerationListener {
+
+    void onTable(TableResult result);
+}
@@ -0,0 +1,401 @@
+package groovyutil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Description: 一次生成的耗时统计：各阶段（连接、查询、渲染、写文件）的次数和耗时，每个库、每张表的耗时分布，
+ * 以及最慢的表。未启用时（{@link #DISABLED}）start返回0、record直接返回，不调用System.nanoTime
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+class GenerationMetrics {
+
+    /**
+     * 未启用统计
+     */
+    static final GenerationMetrics DISABLED = new GenerationMetrics(false);
+
+    /**
+     * 结束时列出的最慢的表的数量
+     */
+    static final int SLOWEST_TABLES = 10;
+
+    /**
+     * 耗时分布的区间上限（毫秒），最后一个区间没有上限
+     */
+    private static final double[] BUCKETS = {0.1, 0.25, 0.5, 1, 2.5, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    enum Phase {
+        /**
+         * 建立数据库连接
+         */
+        CONNECT("connect"),
+        /**
+         * 获取所有库名
+         */
+        DB_LIST("db_list"),
+        /**
+         * 获取库的所有表名
+         */
+        TABLE_LIST("table_list"),
+        /**
+         * 主键查询，逐表为getPrimaryKeys，批量为KEY_COLUMN_USAGE
+         */
+        PK_QUERY("pk_query"),
+        /**
+         * 索引查询，逐表为getIndexInfo，批量为STATISTICS
+         */
+        INDEX_QUERY("index_query"),
+        /**
+         * 列查询，逐表为getColumns，批量为COLUMNS
+         */
+        COLUMN_QUERY("column_query"),
+        /**
+         * 渲染脚本
+         */
+        RENDER("render"),
+        /**
+         * 比较并写入脚本文件
+         */
+        WRITE("write"),
+        /**
+         * 导出一张表的数据
+         */
+        DATA_EXPORT("data_export"),
+        /**
+         * 等待查询限流的并发许可和每秒查询数配额
+         */
+        THROTTLE("throttle");
+
+        private final String key;
+
+        Phase(String key) {
+            this.key = key;
+        }
+    }
+
+    private final boolean enabled;
+    private final long startTime;
+    private final Map<Phase, PhaseTimer> phases = new EnumMap<>(Phase.class);
+    private final ConcurrentMap<String, SchemaTimer> schemas = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<TableTime> tables = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    GenerationMetrics() {
+        this(true);
+    }
+
+    private GenerationMetrics(boolean enabled) {
+        this.enabled = enabled;
+        this.startTime = enabled ? System.nanoTime() : 0;
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new PhaseTimer());
+        }
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 计时开始，未启用时返回0
+     */
+    long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * 记录一次阶段耗时
+     *
+     * @param start {@link #start()}的返回值
+     */
+    void record(Phase phase, long start) {
+        if (!enabled) {
+            return;
+        }
+        phases.get(phase).add(System.nanoTime() - start);
+    }
+
+    /**
+     * 库开始生成，库的耗时从此时到最后一张表完成
+     */
+    void schemaStarted(String db) {
+        if (!enabled) {
+            return;
+        }
+        schemas.putIfAbsent(db, new SchemaTimer(System.nanoTime()));
+    }
+
+    /**
+     * 记录一张表从获取表结构到写入脚本的耗时
+     */
+    void recordTable(String db, String tableName, long start) {
+        if (!enabled) {
+            return;
+        }
+        long end = System.nanoTime();
+        tables.add(new TableTime(db, tableName, end - start));
+        SchemaTimer schema = schemas.computeIfAbsent(db, k -> new SchemaTimer(start));
+        schema.end.accumulateAndGet(end, Math::max);
+    }
+
+    void count(String name) {
+        count(name, 1);
+    }
+
+    void count(String name, long delta) {
+        if (!enabled) {
+            return;
+        }
+        counters.computeIfAbsent(name, k -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * 输出可读的汇总
+     */
+    void printSummary() {
+        if (!enabled) {
+            return;
+        }
+        List<TableTime> all = new ArrayList<>(tables);
+        System.out.println();
+        System.out.println("==== Generation metrics ====");
+        System.out.println(String.format("Total: %.1f ms, tables: %d", millis(System.nanoTime() - startTime), all.size()));
+        System.out.println(String.format("%-14s %10s %14s %12s %12s", "phase", "count", "total(ms)", "avg(ms)", "max(ms)"));
+        for (Phase phase : Phase.values()) {
+            PhaseTimer timer = phases.get(phase);
+            long count = timer.count.sum();
+            if (count == 0) {
+                continue;
+            }
+            long total = timer.total.sum();
+            System.out.println(String.format("%-14s %10d %14.1f %12.3f %12.3f", phase.key, count, millis(total),
+                    millis(total) / count, millis(timer.max.get())));
+        }
+        if (!counters.isEmpty()) {
+            for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+                System.out.println(entry.getKey() + ": " + entry.getValue().sum());
+            }
+        }
+        System.out.println("Table latency: " + percentiles(all));
+        for (Map.Entry<String, List<TableTime>> entry : tablesBySchema(all).entrySet()) {
+            SchemaTimer schema = schemas.get(entry.getKey());
+            System.out.println(String.format("Database[%s] : %.1f ms, tables: %d, %s", entry.getKey(),
+                    millis(schema.end.get() - schema.start), entry.getValue().size(), percentiles(entry.getValue())));
+        }
+        List<TableTime> slowest = slowest(all);
+        if (!slowest.isEmpty()) {
+            System.out.println("Slowest tables:");
+            for (TableTime table : slowest) {
+                System.out.println(String.format("  %10.3f ms  %s.%s", millis(table.nanos), table.db, table.tableName));
+            }
+        }
+    }
+
+    /**
+     * 以JSON格式保存完整报告
+     */
+    void writeJson(File file) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        List<TableTime> all = new ArrayList<>(tables);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (Writer out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            out.write("{\n");
+            out.write("  \"totalMs\": " + format(millis(System.nanoTime() - startTime)) + ",\n");
+            out.write("  \"tables\": " + all.size() + ",\n");
+            out.write("  \"phases\": {");
+            boolean first = true;
+            for (Phase phase : Phase.values()) {
+                PhaseTimer timer = phases.get(phase);
+                out.write(first ? "\n" : ",\n");
+                first = false;
+                out.write("    \"" + phase.key + "\": {\"count\": " + timer.count.sum() + ", \"totalMs\": "
+                        + format(millis(timer.total.sum())) + ", \"maxMs\": " + format(millis(timer.max.get())) + "}");
+            }
+            out.write("\n  },\n");
+            out.write("  \"counters\": {");
+            first = true;
+            for (Map.Entry<String, LongAdder> entry : new TreeMap<>(counters).entrySet()) {
+                out.write(first ? "\n" : ",\n");
+                first = false;
+                out.write("    " + quote(entry.getKey()) + ": " + entry.getValue().sum());
+            }
+            out.write(first ? "},\n" : "\n  },\n");
+            out.write("  \"tableLatency\": " + histogramJson(all) + ",\n");
+            out.write("  \"schemas\": [");
+            first = true;
+            for (Map.Entry<String, List<TableTime>> entry : tablesBySchema(all).entrySet()) {
+                SchemaTimer schema = schemas.get(entry.getKey());
+                out.write(first ? "\n" : ",\n");
+                first = false;
+                out.write("    {\"name\": " + quote(entry.getKey()) + ", \"totalMs\": "
+                        + format(millis(schema.end.get() - schema.start)) + ", \"tables\": " + entry.getValue().size()
+                        + ", \"tableLatency\": " + histogramJson(entry.getValue()) + "}");
+            }
+            out.write(first ? "],\n" : "\n  ],\n");
+            out.write("  \"slowestTables\": [");
+            first = true;
+            for (TableTime table : slowest(all)) {
+                out.write(first ? "\n" : ",\n");
+                first = false;
+                out.write("    {\"schema\": " + quote(table.db) + ", \"table\": " + quote(table.tableName)
+                        + ", \"ms\": " + format(millis(table.nanos)) + "}");
+            }
+            out.write(first ? "]\n" : "\n  ]\n");
+            out.write("}\n");
+        }
+    }
+
+    private static Map<String, List<TableTime>> tablesBySchema(List<TableTime> all) {
+        Map<String, List<TableTime>> bySchema = new TreeMap<>();
+        for (TableTime table : all) {
+            bySchema.computeIfAbsent(table.db, k -> new ArrayList<>()).add(table);
+        }
+        return bySchema;
+    }
+
+    private static List<TableTime> slowest(List<TableTime> all) {
+        List<TableTime> sorted = new ArrayList<>(all);
+        sorted.sort(Comparator.comparingLong((TableTime table) -> table.nanos).reversed());
+        return sorted.subList(0, Math.min(SLOWEST_TABLES, sorted.size()));
+    }
+
+    private static long[] sortedNanos(List<TableTime> tables) {
+        long[] nanos = new long[tables.size()];
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = tables.get(i).nanos;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static String percentiles(List<TableTime> tables) {
+        long[] nanos = sortedNanos(tables);
+        if (nanos.length == 0) {
+            return "no tables";
+        }
+        return String.format("p50=%.3f ms, p90=%.3f ms, p99=%.3f ms, max=%.3f ms", millis(percentile(nanos, 50)),
+                millis(percentile(nanos, 90)), millis(percentile(nanos, 99)), millis(nanos[nanos.length - 1]));
+    }
+
+    private static long percentile(long[] sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * 耗时分布：百分位数及每个区间的表数量，区间以上限表示
+     */
+    private static String histogramJson(List<TableTime> tables) {
+        long[] nanos = sortedNanos(tables);
+        long[] counts = new long[BUCKETS.length + 1];
+        for (long value : nanos) {
+            double ms = millis(value);
+            int bucket = 0;
+            while (bucket < BUCKETS.length && ms > BUCKETS[bucket]) {
+                bucket++;
+            }
+            counts[bucket]++;
+        }
+        StringBuilder sb = new StringBuilder("{");
+        if (nanos.length > 0) {
+            sb.append("\"p50Ms\": ").append(format(millis(percentile(nanos, 50))))
+                    .append(", \"p90Ms\": ").append(format(millis(percentile(nanos, 90))))
+                    .append(", \"p99Ms\": ").append(format(millis(percentile(nanos, 99))))
+                    .append(", \"maxMs\": ").append(format(millis(nanos[nanos.length - 1]))).append(", ");
+        }
+        sb.append("\"buckets\": [");
+        boolean first = true;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            if (!first) {
+                sb.append(", ");
+            }
+            first = false;
+            sb.append("{\"leMs\": ").append(i < BUCKETS.length ? format(BUCKETS[i]) : "null")
+                    .append(", \"count\": ").append(counts[i]).append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static class PhaseTimer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        private void add(long nanos) {
+            count.increment();
+            total.add(nanos);
+            max.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    private static class SchemaTimer {
+        private final long start;
+        private final AtomicLong end;
+
+        private SchemaTimer(long start) {
+            this.start = start;
+            this.end = new AtomicLong(start);
+        }
+    }
+
+    private static class TableTime {
+        private final String db;
+        private final String tableName;
+        private final long nanos;
+
+        private TableTime(String db, String tableName, long nanos) {
+            this.db = db;
+            this.tableName = tableName;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package groovyutil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * @Description: 一次生成的结果，包含所有表的结果，顺序为表完成的顺序
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public final class GenerationResult {
+
+    private final List<TableResult> tables;
+    private final long elapsedMillis;
+
+    GenerationResult(List<TableResult> tables, long elapsedMillis) {
+        this.tables = Collections.unmodifiableList(new ArrayList<>(tables));
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public List<TableResult> getTables() {
+        return tables;
+    }
+
+    public Stream<TableResult> stream() {
+        return tables.stream();
+    }
+
+    public List<TableResult> getFailures() {
+        List<TableResult> failures = new ArrayList<>();
+        for (TableResult table : tables) {
+            if (table.isFailed()) {
+                failures.add(table);
+            }
+        }
+        return failures;
+    }
+
+    public boolean isSuccessful() {
+        for (TableResult table : tables) {
+            if (table.isFailed()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int count(TableResult.Status status) {
+        int count = 0;
+        for (TableResult table : tables) {
+            if (table.getStatus() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "Tables: " + tables.size() + ", written: " + count(TableResult.Status.WRITTEN) + ", unchanged: "
+                + count(TableResult.Status.UNCHANGED) + ", bundled: " + count(TableResult.Status.BUNDLED) + ", failed: "
+                + count(TableResult.Status.FAILED) + ", total: " + elapsedMillis + " ms";
+    }
+}
@@ -0,0 +1,35 @@
+package groovyutil;
+
+import java.io.IOException;
+
+/**
+ * @Description: groovy格式，与单独生成groovy脚本时的内容相同，作为扩展格式使用时不启用结构缓存
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+class GroovyFormat implements ScriptFormat {
+
+    static final String NAME = "groovy";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public ScriptRenderer newRenderer(RenderSettings settings) {
+        GroovyScriptRenderer renderer = new GroovyScriptRenderer(settings.getPackageName(), settings.getAuthor(),
+                settings.getDate(), settings.isDeterministic());
+        return new ScriptRenderer() {
+            @Override
+            public String getFileName(String tableName) {
+                return tableName + ".groovy";
+            }
+
+            @Override
+            public void render(TableSchema table, Appendable out) throws IOException {
+                renderer.render(table, out);
+            }
+        };
+    }
+}
@@ -0,0 +1,2000 @@
+package groovyutil;
+
+
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * @ProjectName: yqcloud
+ * @Description: 生成groovy数据库表脚本 适用mysql数据库
+ * @Author: WeiLingYun
+ * @CreateDate: 2018/12/10 11:18
+ * @Version: 1.0.0
+ */
+public class GroovyScriptGenerator {
+
+    /**
+     * 指定脚本包名
+     */
+    private String scriptOutPath;
+    /**
+     * 作者名字
+     */
+    private String scriptAuthor;
+
+    /**
+     * 脚本生成的根目录，每个库的脚本存放在根目录下以库名命名的子目录
+     */
+    private String targetPath;
+    /**
+     * 是否按库批量抽取表结构
+     */
+    private boolean bulk;
+    /**
+     * 并发线程数，小于等于1时顺序生成
+     */
+    private int threads = 1;
+    /**
+     * 是否使用虚拟线程（需要JDK21及以上，否则退回普通线程池）
+     */
+    private boolean virtualThreads;
+    /**
+     * 是否增量生成：根据指纹文件跳过未变化的表，只重写内容有变化的脚本
+     */
+    private boolean incremental;
+
+    /**
+     * 数据库连接管理，由main创建，跨表、跨库复用连接
+     */
+    private ConnectionManager connectionManager;
+    /**
+     * 脚本渲染器，根据包名、作者创建
+     */
+    private volatile GroovyScriptRenderer renderer;
+    /**
+     * 耗时统计，默认不统计
+     */
+    private GenerationMetrics metrics = GenerationMetrics.DISABLED;
+    /**
+     * 合并输出方式，为空时每张表生成一个脚本文件
+     */
+    private ScriptBundle.Mode bundleMode;
+    /**
+     * 本次生成的合并输出，仅在合并输出时存在
+     */
+    private volatile ScriptBundle bundle;
+    /**
+     * 库、表的过滤规则
+     */
+    private ObjectFilter filter = ObjectFilter.defaults();
+    /**
+     * 结构相同的表复用渲染结果并记录重复结构，为空时不去重
+     */
+    private StructureCache structures;
+    /**
+     * 是否抽取外键并按依赖层级生成主changelog
+     */
+    private boolean dependencies;
+    /**
+     * 是否确定性输出：changeSet id由结构哈希生成，索引按规范顺序输出，相同的表结构总是生成相同的脚本
+     */
+    private boolean deterministic;
+    /**
+     * 逐表接收生成结果，为空时结果只输出到控制台
+     */
+    private GenerationListener listener;
+    /**
+     * 是否在结果中保留渲染的脚本
+     */
+    private boolean captureScripts;
+    /**
+     * groovy以外的输出格式，为空时只生成groovy脚本
+     */
+    private List<ScriptFormat> formats;
+    /**
+     * 多种格式的根目录，每种格式写入以格式名命名的子目录
+     */
+    private String formatsPath;
+    /**
+     * 是否生成内置的groovy脚本
+     */
+    private boolean groovyEnabled = true;
+    private volatile FormatOutput formatOutput;
+
+    public GroovyScriptGenerator() {
+    }
+
+    /**
+     * 逐表调用DatabaseMetaData获取表结构并生成脚本
+     */
+    public void generateGroovyScript(String db, String tableName) {
+        generateGroovyScript(db, tableName, null);
+    }
+
+    /**
+     * 使用已抽取的元数据生成脚本，不再查询数据库
+     */
+    public void generateGroovyScript(String db, TableSchema table) {
+        generateGroovyScript(db, table, null, 0);
+    }
+
+    /**
+     * 生成单张表的脚本并记录耗时，metadata为空时逐表抽取表结构。设置了监听时，单表的异常作为失败的结果交给监听
+     */
+    private void generateTable(String db, String tableName, TableSchema metadata, SchemaFingerprintCache fingerprints) {
+        long start = metrics.start();
+        try {
+            if (metadata == null) {
+                generateGroovyScript(db, tableName, fingerprints);
+            } else {
+                generateGroovyScript(db, metadata, fingerprints, 0);
+            }
+        } catch (RuntimeException e) {
+            if (listener == null) {
+                throw e;
+            }
+            listener.onTable(new TableResult(db, tableName, TableResult.Status.FAILED, metadata, null, null, 0, 0, e));
+        } finally {
+            metrics.recordTable(db, tableName, start);
+        }
+    }
+
+    private void generateGroovyScript(String db, String tableName, SchemaFingerprintCache fingerprints) {
+        long start = System.nanoTime();
+        TableSchema table;
+        try {
+            table = extractTableSchema(db, tableName);
+        } catch (SQLException e) {
+            failed(db, tableName, null, System.nanoTime() - start, 0, e);
+            return;
+        }
+        generateGroovyScript(db, table, fingerprints, System.nanoTime() - start);
+    }
+
+    /**
+     * 单表失败：有监听时交给监听，否则输出异常
+     */
+    private void failed(String db, String tableName, TableSchema table, long extractNanos, long renderNanos, Exception e) {
+        if (listener == null) {
+            e.printStackTrace();
+            return;
+        }
+        listener.onTable(new TableResult(db, tableName, TableResult.Status.FAILED, table, null, null, extractNanos, renderNanos, e));
+    }
+
+    private void notifyListener(String db, TableSchema table, TableResult.Status status, String script, File file,
+                                long extractNanos, long renderStart) {
+        if (listener != null) {
+            listener.onTable(new TableResult(db, table.getTableName(), status, table, script, file, extractNanos,
+                    System.nanoTime() - renderStart, null));
+        }
+    }
+
+    /**
+     * 需要在结果中保留脚本时单独渲染一次，合并输出时为单表的完整脚本
+     */
+    private String capturedScript(TableSchema table) {
+        return listener != null && captureScripts ? renderer().render(table) : null;
+    }
+
+    /**
+     * 逐表调用DatabaseMetaData获取表结构
+     */
+    private TableSchema extractTableSchema(String db, String tableName) throws SQLException {
+        //创建连接
+        Connection con = null;
+        try {
+            con = connectionManager.acquire(db);
+            return obtainTableSchema(con.getMetaData(), tableName);
+        } finally {
+            connectionManager.release(con);
+        }
+    }
+
+    /**
+     * @param fingerprints 增量生成时的指纹缓存，表结构指纹未变化时不再渲染脚本
+     * @param extractNanos 抽取表结构的耗时，用于生成结果
+     */
+    private void generateGroovyScript(String db, TableSchema table, SchemaFingerprintCache fingerprints, long extractNanos) {
+        long start = System.nanoTime();
+        table = canonical(table);
+        if (structures != null) {
+            structures.record(db, table);
+        }
+        //其他格式使用同一份表结构，在各自的线程池中渲染
+        FormatOutput currentFormats = formatOutput;
+        if (currentFormats != null) {
+            currentFormats.submit(db, table);
+        }
+        if (!groovyEnabled) {
+            return;
+        }
+        ScriptBundle currentBundle = bundle;
+        if (currentBundle != null) {
+            currentBundle.add(db, table);
+            notifyListener(db, table, TableResult.Status.BUNDLED, capturedScript(table), null, extractNanos, start);
+            return;
+        }
+        String fingerprint = null;
+        if (fingerprints != null) {
+            fingerprint = table.fingerprint();
+            if (fingerprints.isSameModel(table.getTableName(), fingerprint)) {
+                fingerprints.update(table.getTableName(), fingerprint);
+                notifyListener(db, table, TableResult.Status.UNCHANGED, null, null, extractNanos, start);
+                return;
+            }
+        }
+        //渲染并写入groovy脚本
+        if (writeGroovyScript(db, table, extractNanos) && fingerprints != null) {
+            fingerprints.update(table.getTableName(), fingerprint);
+        }
+    }
+
+    /**
+     * 确定性输出时使用规范顺序的结构，否则保持抽取时的顺序
+     */
+    private TableSchema canonical(TableSchema table) {
+        return deterministic ? table.canonical() : table;
+    }
+
+    private TableSchema obtainTableSchema(DatabaseMetaData metaData, String tableName) throws SQLException {
+        //表的主键信息
+        long start = metrics.start();
+        ResultSet pk = metaData.getPrimaryKeys(null, null, tableName);
+        Set<String> pkColumn = new HashSet<>();
+        while (pk.next()) {
+            pkColumn.add(pk.getObject("COLUMN_NAME").toString());
+        }
+        pk.close();
+        metrics.record(GenerationMetrics.Phase.PK_QUERY, start);
+        //表的索引信息
+        start = metrics.start();
+        Map<String, List<IndexInfo>> indexMap = obtainIndexParam(metaData, tableName);
+        metrics.record(GenerationMetrics.Phase.INDEX_QUERY, start);
+        //表的列信息
+        start = metrics.start();
+        List<ColumnDef> columns = obtainColumnParam(metaData, tableName, pkColumn);
+        metrics.record(GenerationMetrics.Phase.COLUMN_QUERY, start);
+        return new TableSchema(tableName, columns, indexMap, pkColumn);
+    }
+
+    /**
+     * 清理库对应的脚本目录，在该库的表开始生成之前调用一次。增量生成时保留已有脚本
+     */
+    private void prepareTargetPath(String db) {
+        //合并输出时脚本直接写到根目录，不需要库的目录；不生成groovy脚本时也不需要
+        if (bundleMode != null || !groovyEnabled) {
+            return;
+        }
+        File file = new File(schemaTargetPath(db));
+        if (!file.exists()) {
+            file.mkdirs();
+        } else if (!incremental) {
+            File[] files = file.listFiles();
+            if (files != null) {
+                for (int i = 0; i < files.length; i++) {
+                    files[i].delete();
+                }
+            }
+        }
+    }
+
+    private String schemaTargetPath(String db) {
+        return targetPath + db + "/";
+    }
+
+    /**
+     * 渲染并以UTF-8写入脚本，已有脚本内容相同时不重写，保留文件的修改时间
+     *
+     * @return 是否写入成功（内容相同也视为成功）
+     */
+    private boolean writeGroovyScript(String db, TableSchema table, long extractNanos) {
+        long start = System.nanoTime();
+        String schemaTargetPath = schemaTargetPath(db);
+        String tableName = table.getTableName();
+        try {
+            File file = new File(schemaTargetPath);
+            if (!file.exists()) {
+                file.mkdirs();
+            }
+            File scriptFile = new File(file, tableName + ".groovy");
+            String script = null;
+            boolean written;
+            if (listener != null && captureScripts) {
+                //保留脚本时只渲染一次，写入渲染好的内容
+                long phaseStart = metrics.start();
+                script = renderer().render(table);
+                metrics.record(GenerationMetrics.Phase.RENDER, phaseStart);
+                phaseStart = metrics.start();
+                written = renderer().writeScript(script, scriptFile.toPath());
+                metrics.record(GenerationMetrics.Phase.WRITE, phaseStart);
+            } else {
+                written = renderer().renderTo(table, scriptFile.toPath(), metrics);
+            }
+            if (!written) {
+                metrics.count("scripts.unchanged");
+                System.out.println("Database[" + db + "] : Table[ " + tableName + " ] : The groovy script is unchanged");
+                notifyListener(db, table, TableResult.Status.UNCHANGED, script, scriptFile, extractNanos, start);
+                return true;
+            }
+            metrics.count("scripts.written");
+            System.out.println("Database[" + db + "] : Table[ " + tableName + " ] : The groovy script was " +
+                    "generated successfully! Please check the directory[" + schemaTargetPath + "]");
+            notifyListener(db, table, TableResult.Status.WRITTEN, script, scriptFile, extractNanos, start);
+            return true;
+        } catch (IOException e) {
+            failed(db, tableName, table, extractNanos, System.nanoTime() - start, e);
+            return false;
+        }
+    }
+
+    /**
+     * 脚本渲染器，changeSet id中的日期在一次运行中只计算一次
+     */
+    private GroovyScriptRenderer renderer() {
+        GroovyScriptRenderer current = renderer;
+        if (current == null) {
+            synchronized (this) {
+                current = renderer;
+                if (current == null) {
+                    current = new GroovyScriptRenderer(scriptOutPath, scriptAuthor, new SimpleDateFormat("yyyy-MM-dd").format(new Date()),
+                            deterministic);
+                    if (structures != null) {
+                        //模板中包含包名、作者，渲染器重建时模板失效
+                        structures.clearTemplates();
+                        current.setStructureCache(structures);
+                    }
+                    renderer = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * 单次遍历getColumns的结果构建列定义
+     */
+    private List<ColumnDef> obtainColumnParam(DatabaseMetaData metaData, String tableName, Set<String> pkColumn) throws SQLException {
+        List<ColumnDef> columnDefs = new ArrayList<>();
+        ResultSet columns = metaData.getColumns(null, null, tableName, null);
+        while (columns.next()) {
+            String columnName = columns.getString("COLUMN_NAME");
+            String typeName = columns.getString("TYPE_NAME").toLowerCase();
+            columnDefs.add(new ColumnDef(columnName,
+                    typeName.startsWith("bit") ? "tinyint" : typeName,
+                    columns.getInt("COLUMN_SIZE"),
+                    decimalDigits(typeName, columns.getInt("DECIMAL_DIGITS")),
+                    columns.getInt("NULLABLE") != 0,
+                    "YES".equalsIgnoreCase(columns.getString("IS_AUTOINCREMENT")),
+                    pkColumn.contains(columnName),
+                    columns.getString("REMARKS"),
+                    columns.getString("COLUMN_DEF")));
+        }
+        columns.close();
+        return columnDefs;
+    }
+
+    /**
+     * 只保留decimal、numeric的小数位数，驱动对整数、日期时间类型返回的DECIMAL_DIGITS不参与渲染
+     */
+    static int decimalDigits(String typeName, int decimalDigits) {
+        return typeName.startsWith("decimal") || typeName.startsWith("numeric") ? Math.max(decimalDigits, 0) : 0;
+    }
+
+    private Map<String, List<IndexInfo>> obtainIndexParam(DatabaseMetaData metaData, String tableName) throws SQLException {
+        ResultSet indexInfo = metaData.getIndexInfo(null, null, tableName, false, false);
+        Map<String, List<IndexInfo>> indexMap = new HashMap<>(8);
+        while (indexInfo.next()) {
+            boolean nonUnique = Boolean.parseBoolean(indexInfo.getString("NON_UNIQUE"));
+            String indexName = indexInfo.getString("INDEX_NAME");
+            String columnName = indexInfo.getString("COLUMN_NAME");
+            Integer ordinalPosition = Integer.valueOf(indexInfo.getString("ORDINAL_POSITION"));
+            IndexInfo info = new IndexInfo(nonUnique, indexName, columnName, ordinalPosition);
+            if (indexMap.containsKey(indexName)) {
+                indexMap.get(indexName).add(info);
+            } else {
+                List<IndexInfo> list = new ArrayList<>();
+                list.add(info);
+                indexMap.put(indexName, list);
+            }
+        }
+        indexInfo.close();
+        return indexMap;
+    }
+
+    public void setScriptOutPath(String scriptOutPath) {
+        this.scriptOutPath = scriptOutPath;
+        this.renderer = null;
+    }
+
+
+    public void setScriptAuthor(String scriptAuthor) {
+        this.scriptAuthor = scriptAuthor;
+        this.renderer = null;
+    }
+
+
+    public void setConnectionManager(ConnectionManager connectionManager) {
+        this.connectionManager = connectionManager;
+    }
+
+    public void setTargetPath(String targetPath) {
+        this.targetPath = targetPath;
+    }
+
+    public void setBulk(boolean bulk) {
+        this.bulk = bulk;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public void setMetrics(GenerationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void setBundleMode(ScriptBundle.Mode bundleMode) {
+        this.bundleMode = bundleMode;
+    }
+
+    public void setFilter(ObjectFilter filter) {
+        this.filter = filter;
+    }
+
+    public void setDependencies(boolean dependencies) {
+        this.dependencies = dependencies;
+    }
+
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+        this.renderer = null;
+    }
+
+    public void setStructureCache(StructureCache structures) {
+        this.structures = structures;
+        this.renderer = null;
+    }
+
+    public void setListener(GenerationListener listener) {
+        this.listener = listener;
+    }
+
+    public void setCaptureScripts(boolean captureScripts) {
+        this.captureScripts = captureScripts;
+    }
+
+    /**
+     * 设置输出格式，内置的groovy格式仍由生成器直接写入targetPath，其他格式写入rootPath下以格式名命名的子目录
+     */
+    public void setFormats(List<ScriptFormat> formats, String rootPath) {
+        List<ScriptFormat> others = new ArrayList<>();
+        for (ScriptFormat format : formats) {
+            if (!(format instanceof GroovyFormat)) {
+                others.add(format);
+            }
+        }
+        this.groovyEnabled = ScriptFormats.includesGroovy(formats);
+        this.formats = others.isEmpty() ? null : others;
+        this.formatsPath = rootPath;
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(args, null);
+    }
+
+    /**
+     * 按命令行参数生成，逐表结果交给listener，供规模测试等在同一JVM中按命令行参数运行并检查结果
+     *
+     * @param listener 逐表接收结果，可以为空
+     * @return 参数无效、只输出帮助或错误信息而没有生成时为false
+     */
+    static boolean run(String[] args, GenerationListener listener) throws Exception {
+        if (args.length < 1) {
+            System.out.println("\r\nconfigure the parameters for the jar package to run:\r\n" +
+                    "1.[-target](required) : groovy script store path;\r\n" +
+                    "2.[-url](required) : database connection path\r\n" +
+                    "3.[-username](required) : database connection name\r\n" +
+                    "4.[-password](required) : database connection password\r\n" +
+                    "5.[-driver](required) : database driver\r\n" +
+                    "6.[-author] : groovy script create person\r\n" +
+                    "7.[-package] : groovy script package\r\n" +
+                    "8.[-bulk] : extract metadata of a whole database from information_schema in one pass\r\n" +
+                    "9.[-threads=N] : generate databases and tables concurrently with N threads\r\n" +
+                    "10.[-virtual] : use virtual threads for concurrent generation (JDK 21+), with at most -threads (default " +
+                    ConnectionManager.DEFAULT_VIRTUAL_MAX_ACTIVE + ") connections\r\n" +
+                    "11.[-incremental] : skip unchanged tables and keep unchanged scripts untouched\r\n" +
+                    "12.[-export-snapshot=file] : save the schemas to a binary snapshot file instead of generating scripts\r\n" +
+                    "13.[-from-snapshot=file] : generate scripts from a snapshot file without connecting to the database\r\n" +
+                    "14.[-diff-base=file] : compare with the schemas in a snapshot file and generate changeSets only for the changes\r\n" +
+                    "15.[-metrics[=file]] : print per-phase timings and the slowest tables, and save a JSON report (default: generation-metrics.json under the target path)\r\n" +
+                    "16.[-bundle=changelog|zip] : write one changelog per database, or all scripts into one zip, instead of one file per table\r\n" +
+                    "17.[-include-schema=p1,p2] [-exclude-schema=...] [-include-table=...] [-exclude-table=...] : glob (act*) or regex (regex:^act_) " +
+                    "filters, table filters may be qualified with a schema (workflow_service.act*)\r\n" +
+                    "18.[-filter-config=file] : load the filters from a properties file (include.schema, exclude.schema, include.table, exclude.table)\r\n" +
+                    "19.[-data-tables=p1,p2] : export the rows of the matching tables (same patterns as -include-table) as seed data under <db>/data\r\n" +
+                    "20.[-data-format=csv|insert] [-data-chunk-rows=N] [-data-batch-rows=N] [-data-fetch-size=N] : loadData CSV files (default) or " +
+                    "insert changeSets, rows per data file, rows per insert changeSet, JDBC fetch size (default: row streaming)\r\n" +
+                    "21.[-watch[=millis]] : keep running after the generation, poll the schemas every millis (default 1000) and regenerate only the changed tables\r\n" +
+                    "22.[-watch-port=N] : in watch mode, serve POST /regenerate, GET /script?db=&table= and GET /status on 127.0.0.1:N\r\n" +
+                    "23.[-dedupe[=file]] : render each distinct table structure once and reuse it for same-structured tables, report the duplicate " +
+                    "structures (default: duplicate-structures.json under the target path)\r\n" +
+                    "24.[-dependencies] : extract foreign keys, write <db>-master.groovy including the tables by dependency level " +
+                    "(or order bundled changelogs by level) and dependency-levels.json with the levels and cycles\r\n" +
+                    "25.[-hosts=h1:3307,shard2=h2:3308,...] : generate for many servers concurrently, each into <target>/<name>/ with its own " +
+                    "connections and -threads limit; an endpoint is [name=]host[:port] (replacing the host and port of -url) or [name=]jdbc-url\r\n" +
+                    "26.[-hosts-file=file] : read the endpoints from a file, one per line, optionally followed by the thread count of that server\r\n" +
+                    "27.[-parallel-hosts=N] : process at most N servers at a time (default: all); a failed server does not stop the others\r\n" +
+                    "28.[-throttle] : adapt the number of concurrent metadata queries (up to -threads) to the query latency, backing off " +
+                    "when the server slows down\r\n" +
+                    "29.[-max-qps=N] : never issue more than N metadata queries per second per server\r\n" +
+                    "30.[-deterministic] : derive changeSet ids from a hash of the table structure instead of the date and emit indexes " +
+                    "in name order, so that unchanged tables always produce byte-identical scripts\r\n" +
+                    "31.[-formats=groovy,yaml,xml,ddl,flyway] : render each extracted table in several formats in parallel (Liquibase groovy, " +
+                    "YAML, XML, MySQL DDL, Flyway SQL, or a format registered as groovyutil.ScriptFormat), each into <target>/<format>/ " +
+                    "(default: groovy only, directly under the target path)\r\n");
+            return false;
+        }
+        Options options = new Options();
+        List<String> params = Arrays.asList(args);
+        for (String param : params) {
+            if (param.startsWith("-target")) {
+                options.targetPath = param.substring(7);
+            }
+            if (param.startsWith("-url")) {
+                options.url = param.substring(4);
+            }
+            if (param.startsWith("-driver")) {
+                options.driver = param.substring(7);
+            }
+            if (param.startsWith("-username")) {
+                options.username = param.substring(9);
+            }
+            if (param.startsWith("-password")) {
+                options.password = param.substring(9);
+            }
+            if (param.startsWith("-author")) {
+                options.author = param.substring(7);
+            }
+            if (param.startsWith("-package")) {
+                options.pack = param.substring(8);
+            }
+            if (param.equals("-bulk")) {
+                options.bulk = true;
+            }
+            if (param.startsWith("-threads")) {
+                options.threads = Integer.parseInt(optionValue(param, "-threads"));
+            }
+            if (param.equals("-virtual")) {
+                options.virtualThreads = true;
+            }
+            if (param.equals("-incremental")) {
+                options.incremental = true;
+            }
+            if (param.startsWith("-export-snapshot")) {
+                options.exportSnapshot = optionValue(param, "-export-snapshot");
+            }
+            if (param.startsWith("-from-snapshot")) {
+                options.fromSnapshot = optionValue(param, "-from-snapshot");
+            }
+            if (param.startsWith("-diff-base")) {
+                options.diffBase = optionValue(param, "-diff-base");
+            }
+            if (param.startsWith("-include-schema")) {
+                options.filter.addRules("include.schema", optionValue(param, "-include-schema"));
+            }
+            if (param.startsWith("-exclude-schema")) {
+                options.filter.addRules("exclude.schema", optionValue(param, "-exclude-schema"));
+            }
+            if (param.startsWith("-include-table")) {
+                options.filter.addRules("include.table", optionValue(param, "-include-table"));
+            }
+            if (param.startsWith("-exclude-table")) {
+                options.filter.addRules("exclude.table", optionValue(param, "-exclude-table"));
+            }
+            if (param.startsWith("-filter-config")) {
+                options.filter.load(new File(optionValue(param, "-filter-config")));
+            }
+            if (param.startsWith("-data-tables")) {
+                options.dataTables = optionValue(param, "-data-tables");
+            }
+            if (param.startsWith("-data-format")) {
+                String format = optionValue(param, "-data-format");
+                if ("csv".equalsIgnoreCase(format)) {
+                    options.dataFormat = DataExporter.Format.LOAD_DATA;
+                } else if ("insert".equalsIgnoreCase(format)) {
+                    options.dataFormat = DataExporter.Format.INSERT;
+                } else {
+                    System.out.println("\r\nUnsupported data format [" + format + "], use -data-format=csv or -data-format=insert");
+                    return false;
+                }
+            }
+            if (param.startsWith("-data-chunk-rows")) {
+                options.dataChunkRows = Integer.parseInt(optionValue(param, "-data-chunk-rows"));
+            }
+            if (param.startsWith("-data-batch-rows")) {
+                options.dataBatchRows = Integer.parseInt(optionValue(param, "-data-batch-rows"));
+            }
+            if (param.startsWith("-data-fetch-size")) {
+                options.dataFetchSize = Integer.parseInt(optionValue(param, "-data-fetch-size"));
+            }
+            if (param.startsWith("-watch-port")) {
+                options.watchPort = Integer.parseInt(optionValue(param, "-watch-port"));
+            } else if (param.startsWith("-watch")) {
+                String interval = optionValue(param, "-watch");
+                options.watchInterval = StringUtils.isEmpty(interval) ? SchemaWatcher.DEFAULT_INTERVAL_MILLIS : Long.parseLong(interval);
+            }
+            if (param.equals("-dependencies")) {
+                options.dependencies = true;
+            }
+            if (param.startsWith("-dedupe")) {
+                options.dedupe = true;
+                options.dedupeFile = optionValue(param, "-dedupe");
+            }
+            if (param.startsWith("-hosts-file")) {
+                options.hostsFile = optionValue(param, "-hosts-file");
+            } else if (param.startsWith("-hosts")) {
+                options.hosts = optionValue(param, "-hosts");
+            }
+            if (param.equals("-deterministic")) {
+                options.deterministic = true;
+            }
+            if (param.equals("-throttle")) {
+                options.throttle = true;
+            }
+            if (param.startsWith("-formats")) {
+                options.formats = optionValue(param, "-formats");
+            }
+            if (param.startsWith("-max-qps")) {
+                options.maxQps = Integer.parseInt(optionValue(param, "-max-qps"));
+            }
+            if (param.startsWith("-parallel-hosts")) {
+                options.parallelHosts = Integer.parseInt(optionValue(param, "-parallel-hosts"));
+            }
+            if (param.startsWith("-bundle")) {
+                String mode = optionValue(param, "-bundle");
+                if ("changelog".equalsIgnoreCase(mode)) {
+                    options.bundleMode = ScriptBundle.Mode.CHANGELOG;
+                } else if ("zip".equalsIgnoreCase(mode)) {
+                    options.bundleMode = ScriptBundle.Mode.ZIP;
+                } else {
+                    System.out.println("\r\nUnsupported bundle mode [" + mode + "], use -bundle=changelog or -bundle=zip");
+                    return false;
+                }
+            }
+            if (param.startsWith("-metrics")) {
+                options.metricsEnabled = true;
+                options.metricsFile = optionValue(param, "-metrics");
+            }
+        }
+        String error = options.validate();
+        if (error != null) {
+            System.out.println("\r\n" + error);
+            return false;
+        }
+        if (options.throttle && options.threads <= 1) {
+            System.out.println("\r\n[-throttle] adapts the concurrency up to [-threads], it has no effect with a single thread");
+        }
+        options.applyDefaults();
+        options.listener = listener;
+        if (!options.multipleHosts()) {
+            generate(options);
+            return true;
+        }
+        List<ServerEndpoint> endpoints = new ArrayList<>();
+        try {
+            if (!StringUtils.isEmpty(options.hosts)) {
+                endpoints.addAll(ServerEndpoint.parseList(options.hosts, options.url));
+            }
+            if (!StringUtils.isEmpty(options.hostsFile)) {
+                endpoints.addAll(ServerEndpoint.load(new File(options.hostsFile), options.url));
+            }
+            ServerEndpoint.checkNames(endpoints);
+        } catch (IllegalArgumentException e) {
+            System.out.println("\r\n" + e.getMessage());
+            return false;
+        }
+        if (endpoints.isEmpty()) {
+            System.out.println("\r\nNo server endpoint configured in [-hosts] or [-hosts-file]");
+            return false;
+        }
+        generateFromServers(options, endpoints);
+        return true;
+    }
+
+    /**
+     * 按已校验的参数生成一个服务器或一个快照的脚本，命令行和Builder共用
+     */
+    static void generate(Options options) throws ClassNotFoundException, SQLException, IOException, InterruptedException {
+        if (!StringUtils.isEmpty(options.fromSnapshot)) {
+            generateFromSnapshot(options);
+        } else {
+            generateFromServer(options);
+        }
+    }
+
+    /**
+     * 从快照生成脚本，不连接数据库，也不加载数据库驱动
+     */
+    private static void generateFromSnapshot(Options options) throws SQLException, IOException, InterruptedException {
+        if (options.dependencies) {
+            System.out.println("\r\n[-dependencies] is ignored, foreign keys are not saved in snapshots");
+        }
+        GenerationMetrics metrics = options.newMetrics();
+        StructureCache structures = options.newStructureCache();
+        try {
+            Map<String, List<TableSchema>> snapshot = SchemaSnapshot.read(new File(options.fromSnapshot));
+            GroovyScriptGenerator generator = new GroovyScriptGenerator();
+            generator.setScriptAuthor(options.author);
+            generator.setScriptOutPath(options.pack);
+            generator.setTargetPath(options.groovyTargetPath());
+            generator.setFormats(options.scriptFormats, options.targetPath);
+            generator.setThreads(options.threads);
+            generator.setVirtualThreads(options.virtualThreads);
+            generator.setIncremental(options.incremental);
+            generator.setMetrics(metrics);
+            generator.setBundleMode(options.bundleMode);
+            generator.setFilter(options.filter);
+            generator.setStructureCache(structures);
+            generator.setDeterministic(options.deterministic);
+            generator.setListener(options.listener);
+            generator.setCaptureScripts(options.captureScripts);
+            if (!StringUtils.isEmpty(options.diffBase)) {
+                generator.generateDiffScripts(SchemaSnapshot.read(new File(options.diffBase)), snapshot);
+                return;
+            }
+            generator.generateGroovyScripts(snapshot);
+        } finally {
+            reportMetrics(metrics, options.metricsFile, options.targetPath);
+            reportDuplicates(structures, options.dedupeFile, options.targetPath);
+        }
+    }
+
+    /**
+     * 连接一个服务器生成脚本，按参数保存快照、生成增量脚本、导出数据或常驻监听
+     */
+    private static void generateFromServer(Options options) throws ClassNotFoundException, SQLException, IOException, InterruptedException {
+        GenerationMetrics metrics = options.newMetrics();
+        StructureCache structures = options.newStructureCache();
+        //连接由main统一管理，所有库、表复用；并发时每个线程最多占用一个连接
+        ConnectionManager connectionManager = new ConnectionManager(options.driver, options.url, options.username, options.password,
+                options.maxConnections());
+        connectionManager.setMetrics(metrics);
+        QueryThrottle throttle = options.newThrottle();
+        if (throttle != null) {
+            throttle.setMetrics(metrics);
+            connectionManager.setThrottle(throttle);
+        }
+        try {
+            //获取微服务所有的数据库名称
+            long start = metrics.start();
+            //系统库由默认的过滤规则排除
+            List<String> serviceDbs = obtainAllDBName(connectionManager, options.filter);
+            metrics.record(GenerationMetrics.Phase.DB_LIST, start);
+            if (CollectionUtils.isEmpty(serviceDbs)) {
+                return;
+            }
+            //初始化groovy生成器，通过setCatalog切换到每个微服务库
+            GroovyScriptGenerator generator = initGroovyScriptGenerator(connectionManager);
+            //配置操作人
+            generator.setScriptAuthor(options.author);
+            //配置脚本包名
+            generator.setScriptOutPath(options.pack);
+            //配置groovy脚本存放的根路径，每个微服务库的脚本存放在以库名命名的子目录
+            generator.setTargetPath(options.groovyTargetPath());
+            generator.setFormats(options.scriptFormats, options.targetPath);
+            generator.setBulk(options.bulk);
+            generator.setThreads(options.threads);
+            generator.setVirtualThreads(options.virtualThreads);
+            generator.setIncremental(options.incremental);
+            generator.setMetrics(metrics);
+            generator.setBundleMode(options.bundleMode);
+            generator.setFilter(options.filter);
+            generator.setStructureCache(structures);
+            generator.setDependencies(options.dependencies);
+            generator.setDeterministic(options.deterministic);
+            generator.setListener(options.listener);
+            generator.setCaptureScripts(options.captureScripts);
+            if (!StringUtils.isEmpty(options.exportSnapshot)) {
+                Map<String, List<TableSchema>> snapshot = generator.extractTableSchemas(serviceDbs);
+                SchemaSnapshot.write(new File(options.exportSnapshot), snapshot);
+                int tableCount = 0;
+                for (List<TableSchema> tables : snapshot.values()) {
+                    tableCount += tables.size();
+                }
+                System.out.println("Snapshot saved to " + options.exportSnapshot + " : " + snapshot.size() + " databases, " + tableCount + " tables");
+                return;
+            }
+            if (!StringUtils.isEmpty(options.diffBase)) {
+                generator.generateDiffScripts(SchemaSnapshot.read(new File(options.diffBase)), generator.extractTableSchemas(serviceDbs));
+            } else {
+                generator.generateGroovyScripts(serviceDbs);
+            }
+            //表结构脚本生成之后导出数据
+            if (!StringUtils.isEmpty(options.dataTables)) {
+                generator.exportData(serviceDbs, options.newDataExporter());
+            }
+            //常驻监听，只重新生成有变化的表，直到进程被终止
+            if (options.watchInterval > 0) {
+                SchemaWatcher watcher = new SchemaWatcher(generator, connectionManager, options.watchInterval);
+                watcher.init();
+                if (options.watchPort > 0) {
+                    watcher.startServer(options.watchPort);
+                }
+                watcher.run();
+            }
+        } finally {
+            connectionManager.close();
+            System.out.println(connectionManager);
+            if (throttle != null) {
+                System.out.println(throttle);
+            }
+            reportMetrics(metrics, options.metricsFile, options.targetPath);
+            reportDuplicates(structures, options.dedupeFile, options.targetPath);
+        }
+    }
+
+    /**
+     * 并发连接多个服务器生成脚本，每个服务器有自己的连接管理、并发上限和输出子目录，总耗时取决于最慢的服务器。
+     * 单个服务器失败只输出异常，不影响其他服务器
+     */
+    private static void generateFromServers(Options options, List<ServerEndpoint> endpoints) throws InterruptedException {
+        int parallelHosts = options.parallelHosts > 0 ? Math.min(options.parallelHosts, endpoints.size()) : endpoints.size();
+        System.out.println("Generating scripts for " + endpoints.size() + " servers, " + parallelHosts + " at a time");
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelHosts);
+        Map<ServerEndpoint, Future<Long>> results = new LinkedHashMap<>();
+        try {
+            for (ServerEndpoint endpoint : endpoints) {
+                Options serverOptions = options.forServer(endpoint);
+                results.put(endpoint, executor.submit(() -> {
+                    long serverStart = System.currentTimeMillis();
+                    try {
+                        generateFromServer(serverOptions);
+                    } catch (Exception e) {
+                        System.out.println("Server[" + endpoint.getName() + "] : Generation failed");
+                        e.printStackTrace();
+                        throw e;
+                    }
+                    return System.currentTimeMillis() - serverStart;
+                }));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        int failed = 0;
+        List<String> summary = new ArrayList<>();
+        for (Map.Entry<ServerEndpoint, Future<Long>> entry : results.entrySet()) {
+            String name = entry.getKey().getName();
+            try {
+                summary.add("Server[" + name + "] : done in " + entry.getValue().get() + " ms");
+            } catch (ExecutionException e) {
+                failed++;
+                summary.add("Server[" + name + "] : failed, " + e.getCause());
+            }
+        }
+        System.out.println();
+        System.out.println("==== Servers ====");
+        for (String line : summary) {
+            System.out.println(line);
+        }
+        System.out.println("Servers: " + endpoints.size() + ", failed: " + failed + ", total: " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * 输出耗时汇总并保存JSON报告，未指定报告文件时保存到脚本根目录
+     */
+    private static void reportMetrics(GenerationMetrics metrics, String metricsFile, String targetPath) {
+        if (!metrics.isEnabled()) {
+            return;
+        }
+        metrics.printSummary();
+        File file = StringUtils.isEmpty(metricsFile) ? new File(targetPath + "generation-metrics.json") : new File(metricsFile);
+        try {
+            metrics.writeJson(file);
+            System.out.println("Metrics report saved to " + file.getPath());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 输出重复结构的汇总并保存报告，未指定报告文件时保存到脚本根目录
+     */
+    private static void reportDuplicates(StructureCache structures, String reportFile, String targetPath) {
+        if (structures == null) {
+            return;
+        }
+        structures.printSummary();
+        File file = StringUtils.isEmpty(reportFile) ? new File(targetPath + "duplicate-structures.json") : new File(reportFile);
+        try {
+            structures.writeReport(file);
+            System.out.println("Duplicate structure report saved to " + file.getPath());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 生成多个库的脚本。threads大于1时，库的准备（获取表名、批量抽取）和每张表的生成都分发到线程池执行，
+     * 每个任务只使用自己的不可变TableSchema，生成的文件与顺序执行完全相同
+     */
+    public void generateGroovyScripts(List<String> dbs) throws SQLException, IOException, InterruptedException {
+        ExecutorService executor = newExecutor();
+        try {
+            List<Future<SchemaTables>> schemaFutures = new ArrayList<>();
+            for (String db : dbs) {
+                schemaFutures.add(submit(executor, () -> obtainSchemaTables(db)));
+            }
+            generateGroovyScripts(executor, schemaFutures);
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * 从快照生成所有库的脚本，不连接数据库
+     *
+     * @param snapshot key为库名，value为库中的表
+     */
+    public void generateGroovyScripts(Map<String, List<TableSchema>> snapshot) throws SQLException, IOException, InterruptedException {
+        ExecutorService executor = newExecutor();
+        try {
+            List<Future<SchemaTables>> schemaFutures = new ArrayList<>();
+            for (Map.Entry<String, List<TableSchema>> entry : snapshot.entrySet()) {
+                if (!filter.acceptsSchema(entry.getKey())) {
+                    continue;
+                }
+                schemaFutures.add(submit(executor, () -> snapshotSchemaTables(entry.getKey(), entry.getValue())));
+            }
+            generateGroovyScripts(executor, schemaFutures);
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private void generateGroovyScripts(ExecutorService executor, List<Future<SchemaTables>> schemaFutures)
+            throws SQLException, IOException, InterruptedException {
+        bundle = bundleMode == null ? null : new ScriptBundle(bundleMode, targetPath, renderer(), metrics);
+        formatOutput = formats == null ? null : new FormatOutput(formats, formatsPath, renderer(), threads, metrics, listener, captureScripts);
+        List<Future<Void>> tableFutures = new ArrayList<>();
+        List<SchemaTables> schemas = new ArrayList<>();
+        for (Future<SchemaTables> schemaFuture : schemaFutures) {
+            SchemaTables schema;
+            try {
+                schema = schemaFuture.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof SQLException) {
+                    throw (SQLException) e.getCause();
+                }
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+            schemas.add(schema);
+            String db = schema.db;
+            SchemaFingerprintCache fingerprints = schema.fingerprints;
+            if (formatOutput != null) {
+                formatOutput.prepareSchema(db);
+            }
+            int unchanged = 0;
+            for (String table : schema.tables) {
+                if (!filter.acceptsTable(db, table)) {
+                    System.out.println("当前数据库为：" + db + "，当前表为：" + table + "跳过循环");
+                    continue;
+                }
+                //增量生成时，校验和未变化的表直接跳过，不再获取表结构
+                if (fingerprints != null && fingerprints.isUnchanged(table)) {
+                    fingerprints.keep(table);
+                    metrics.count("tables.unchanged");
+                    unchanged++;
+                    if (listener != null) {
+                        listener.onTable(new TableResult(db, table, TableResult.Status.UNCHANGED, null, null, null, 0, 0, null));
+                    }
+                    continue;
+                }
+                if (schema.metadata == null) {
+                    tableFutures.add(submit(executor, () -> {
+                        generateTable(db, table, null, fingerprints);
+                        return null;
+                    }));
+                } else if (schema.metadata.containsKey(table)) {
+                    TableSchema metadata = schema.metadata.get(table);
+                    tableFutures.add(submit(executor, () -> {
+                        generateTable(db, table, metadata, fingerprints);
+                        return null;
+                    }));
+                }
+            }
+            if (fingerprints != null) {
+                System.out.println("Database[" + db + "] : " + unchanged + " unchanged tables skipped");
+            }
+        }
+        for (Future<Void> tableFuture : tableFutures) {
+            try {
+                tableFuture.get();
+            } catch (ExecutionException e) {
+                e.getCause().printStackTrace();
+            }
+        }
+        if (formatOutput != null) {
+            try {
+                formatOutput.finish();
+            } finally {
+                formatOutput = null;
+            }
+        }
+        writeDependencyLevels(schemas);
+        if (bundle != null) {
+            try {
+                int tableCount = bundle.size();
+                for (File file : bundle.finish()) {
+                    metrics.count("scripts.written");
+                    System.out.println("The groovy script bundle was generated successfully! Please check the file[" + file.getPath() + "]");
+                }
+                System.out.println(tableCount + " tables bundled");
+            } finally {
+                bundle = null;
+            }
+        }
+        for (SchemaTables schema : schemas) {
+            if (schema.fingerprints != null) {
+                try {
+                    schema.fingerprints.save();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * 按外键依赖把每个库的表分为拓扑层级：合并为changelog时按层级排列changeSet，
+     * 否则在根目录生成"库名-master.groovy"按层级include每张表的脚本；所有库的层级和循环依赖保存到dependency-levels.json
+     */
+    private void writeDependencyLevels(List<SchemaTables> schemas) throws IOException {
+        Map<String, DependencyGraph> graphs = new LinkedHashMap<>();
+        for (SchemaTables schema : schemas) {
+            if (schema.foreignKeys == null) {
+                continue;
+            }
+            String db = schema.db;
+            List<String> tables = acceptedTables(db, schema.tables);
+            DependencyGraph graph = new DependencyGraph(tables, schema.foreignKeys);
+            graphs.put(db, graph);
+            System.out.println("Database[" + db + "] : " + tables.size() + " tables in " + graph.getLevels().size() + " dependency levels");
+            for (List<String> cycle : graph.getCycles()) {
+                System.out.println("Database[" + db + "] : Foreign key cycle between tables " + cycle + ", they are placed in the same level");
+            }
+            if (bundle != null) {
+                bundle.setDependencyGraph(db, graph);
+                continue;
+            }
+            File master = new File(targetPath, db + "-master.groovy");
+            renderer().renderMasterTo(db, graph.getLevels(), master.toPath());
+            System.out.println("Database[" + db + "] : The master changelog was generated successfully! Please check the file[" + master.getPath() + "]");
+        }
+        if (!graphs.isEmpty()) {
+            File manifest = new File(targetPath, DependencyGraph.MANIFEST_FILE_NAME);
+            DependencyGraph.writeManifest(manifest, graphs);
+            System.out.println("Dependency levels saved to " + manifest.getPath());
+        }
+    }
+
+    /**
+     * 库中需要生成脚本的表，保持原有顺序
+     */
+    private List<String> acceptedTables(String db, List<String> tables) {
+        List<String> accepted = new ArrayList<>();
+        for (String table : tables) {
+            if (filter.acceptsTable(db, table)) {
+                accepted.add(table);
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * 抽取所有库的表结构，用于保存快照
+     *
+     * @return key为库名，value为库中需要生成脚本的表
+     */
+    public Map<String, List<TableSchema>> extractTableSchemas(List<String> dbs) throws SQLException, InterruptedException {
+        ExecutorService executor = newExecutor();
+        try {
+            List<Future<SchemaTables>> schemaFutures = new ArrayList<>();
+            for (String db : dbs) {
+                schemaFutures.add(submit(executor, () -> new SchemaTables(db, obtainTableNames(db),
+                        bulk ? obtainAllTBMetadata(connectionManager, db, filter, metrics) : null, null)));
+            }
+            Map<String, List<Future<TableSchema>>> tableFutures = new LinkedHashMap<>();
+            for (Future<SchemaTables> schemaFuture : schemaFutures) {
+                SchemaTables schema = getResult(schemaFuture);
+                List<Future<TableSchema>> futures = new ArrayList<>();
+                for (String table : schema.tables) {
+                    if (!filter.acceptsTable(schema.db, table)) {
+                        continue;
+                    }
+                    if (schema.metadata == null) {
+                        futures.add(submit(executor, () -> {
+                            long start = metrics.start();
+                            TableSchema tableSchema = extractTableSchema(schema.db, table);
+                            metrics.recordTable(schema.db, table, start);
+                            return tableSchema;
+                        }));
+                    } else if (schema.metadata.containsKey(table)) {
+                        TableSchema metadata = schema.metadata.get(table);
+                        futures.add(submit(null, () -> metadata));
+                    }
+                }
+                tableFutures.put(schema.db, futures);
+            }
+            Map<String, List<TableSchema>> schemas = new LinkedHashMap<>();
+            for (Map.Entry<String, List<Future<TableSchema>>> entry : tableFutures.entrySet()) {
+                List<TableSchema> tables = new ArrayList<>(entry.getValue().size());
+                for (Future<TableSchema> future : entry.getValue()) {
+                    tables.add(getResult(future));
+                }
+                schemas.put(entry.getKey(), tables);
+            }
+            return schemas;
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * 重新获取指定表的结构并生成脚本，内容未变化的脚本不重写；表已不存在时删除其脚本。用于常驻监听时只处理有变化的表
+     *
+     * @param tables  有变化的表
+     * @param dropped 已删除的表
+     * @return 重新生成的表数
+     */
+    int regenerateTables(String db, Collection<String> tables, Collection<String> dropped) throws InterruptedException {
+        ExecutorService executor = newExecutor();
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (String table : tables) {
+                if (!filter.acceptsTable(db, table)) {
+                    continue;
+                }
+                futures.add(submit(executor, () -> {
+                    generateTable(db, table, null, null);
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    e.getCause().printStackTrace();
+                }
+            }
+            for (String table : dropped) {
+                File file = new File(schemaTargetPath(db), table + ".groovy");
+                if (file.delete()) {
+                    System.out.println("Database[" + db + "] : Table[ " + table + " ] : The table was dropped, the groovy script was deleted");
+                }
+            }
+            return futures.size();
+        } finally {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * 脚本文件，不存在时为空
+     */
+    File scriptFile(String db, String tableName) {
+        File file = new File(schemaTargetPath(db), tableName + ".groovy");
+        return file.isFile() ? file : null;
+    }
+
+    ObjectFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * 导出选定表的数据，数据脚本写在每个库目录下的data子目录，在生成表结构脚本之后调用
+     */
+    public void exportData(List<String> dbs, DataExporter exporter) throws SQLException, InterruptedException {
+        exporter.setThreads(threads);
+        exporter.setMetrics(metrics);
+        exporter.setListener(listener);
+        exporter.export(connectionManager, renderer(), targetPath, filter, dbs);
+    }
+
+    /**
+     * 比较两个表结构模型，只为有变化的表生成增量脚本（addColumn、modifyDataType、dropColumn、createIndex、dropIndex），
+     * 新增的表生成完整的建表脚本，删除的表只输出提示
+     *
+     * @param base   旧的表结构，通常为上次保存的快照
+     * @param target 新的表结构，来自数据库或快照
+     */
+    public void generateDiffScripts(Map<String, List<TableSchema>> base, Map<String, List<TableSchema>> target) {
+        for (Map.Entry<String, List<TableSchema>> schema : target.entrySet()) {
+            String db = schema.getKey();
+            Map<String, TableSchema> baseTables = new HashMap<>();
+            List<TableSchema> baseSchema = base.get(db);
+            if (baseSchema != null) {
+                for (TableSchema table : baseSchema) {
+                    baseTables.put(table.getTableName(), table);
+                }
+            }
+            prepareTargetPath(db);
+            int unchanged = 0;
+            for (TableSchema table : schema.getValue()) {
+                TableSchema baseTable = baseTables.remove(table.getTableName());
+                if (baseTable == null) {
+                    writeGroovyScript(db, canonical(table), 0);
+                    continue;
+                }
+                long start = System.nanoTime();
+                SchemaDiff diff = SchemaDiff.compare(canonical(baseTable), canonical(table));
+                if (diff.isEmpty()) {
+                    unchanged++;
+                    notifyListener(db, table, TableResult.Status.UNCHANGED, null, null, 0, start);
+                    continue;
+                }
+                writeDiffScript(db, table, diff, start);
+            }
+            for (String tableName : baseTables.keySet()) {
+                System.out.println("Database[" + db + "] : Table[ " + tableName + " ] : The table was dropped, no script generated");
+            }
+            System.out.println("Database[" + db + "] : " + unchanged + " unchanged tables skipped");
+        }
+        for (String db : base.keySet()) {
+            if (!target.containsKey(db)) {
+                System.out.println("Database[" + db + "] : The database was dropped, no script generated");
+            }
+        }
+    }
+
+    /**
+     * @param table 新的表结构，用于生成结果
+     * @param start 开始比较的时间
+     */
+    private void writeDiffScript(String db, TableSchema table, SchemaDiff diff, long start) {
+        String schemaTargetPath = schemaTargetPath(db);
+        String tableName = diff.getTableName();
+        File scriptFile = new File(schemaTargetPath, tableName + ".groovy");
+        try {
+            String script = null;
+            boolean written;
+            if (listener != null && captureScripts) {
+                script = renderer().renderDiff(diff);
+                written = renderer().writeScript(script, scriptFile.toPath());
+            } else {
+                written = renderer().renderDiffTo(diff, scriptFile.toPath());
+            }
+            if (!written) {
+                System.out.println("Database[" + db + "] : Table[ " + tableName + " ] : The groovy script is unchanged");
+                notifyListener(db, table, TableResult.Status.UNCHANGED, script, scriptFile, 0, start);
+                return;
+            }
+            System.out.println("Database[" + db + "] : Table[ " + tableName + " ] : " + diff.size() + " changeSets " +
+                    "generated successfully! Please check the directory[" + schemaTargetPath + "]");
+            notifyListener(db, table, TableResult.Status.WRITTEN, script, scriptFile, 0, start);
+        } catch (IOException e) {
+            failed(db, tableName, table, 0, System.nanoTime() - start, e);
+        }
+    }
+
+    private static <T> T getResult(Future<T> future) throws SQLException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 获取库的所有表名称，批量模式下同时抽取整个库的元数据，并清理库对应的脚本目录。
+     * 增量生成时同时读取表的校验和和指纹文件，所有表都未变化时不再批量抽取
+     */
+    private SchemaTables obtainSchemaTables(String db) throws SQLException, IOException {
+        metrics.schemaStarted(db);
+        List<String> tables;
+        SchemaFingerprintCache fingerprints = null;
+        boolean changed = true;
+        if (incremental) {
+            long start = metrics.start();
+            Map<String, String> status = obtainAllTBStatus(connectionManager, db, filter);
+            metrics.record(GenerationMetrics.Phase.TABLE_LIST, start);
+            tables = new ArrayList<>(status.keySet());
+            fingerprints = SchemaFingerprintCache.load(new File(schemaTargetPath(db)), status, renderSettingsHash());
+            changed = false;
+            for (String table : tables) {
+                if (filter.acceptsTable(db, table) && !fingerprints.isUnchanged(table)) {
+                    changed = true;
+                    break;
+                }
+            }
+        } else {
+            //分别获取每个微服务库的所有表名称
+            tables = obtainTableNames(db);
+        }
+        //批量模式下一次性抽取整个库的元数据
+        Map<String, TableSchema> metadata = bulk && changed ? obtainAllTBMetadata(connectionManager, db, filter, metrics) : null;
+        //外键与主键、索引一样按库一次查询
+        Map<String, Set<String>> foreignKeys = dependencies ? obtainAllFKs(connectionManager, db, filter) : null;
+        prepareTargetPath(db);
+        return new SchemaTables(db, tables, metadata, fingerprints, foreignKeys);
+    }
+
+    /**
+     * 快照中的库，所有表的结构都已在快照中
+     */
+    private SchemaTables snapshotSchemaTables(String db, List<TableSchema> tableSchemas) throws IOException {
+        metrics.schemaStarted(db);
+        List<String> tables = new ArrayList<>(tableSchemas.size());
+        Map<String, TableSchema> metadata = new LinkedHashMap<>(tableSchemas.size() * 2);
+        //快照中没有表的创建/更新时间，增量生成时只比较表结构指纹
+        Map<String, String> status = new HashMap<>(tableSchemas.size() * 2);
+        for (TableSchema table : tableSchemas) {
+            tables.add(table.getTableName());
+            metadata.put(table.getTableName(), table);
+            status.put(table.getTableName(), null);
+        }
+        SchemaFingerprintCache fingerprints = incremental ? SchemaFingerprintCache.load(new File(schemaTargetPath(db)), status,
+                renderSettingsHash()) : null;
+        prepareTargetPath(db);
+        return new SchemaTables(db, tables, metadata, fingerprints);
+    }
+
+    /**
+     * 影响脚本内容的生成参数的摘要：包名、作者、确定性输出（changeSet id、索引顺序）以及文件末尾的换行。
+     * 与上次增量生成保存的不同时，所有表都重新生成
+     */
+    private String renderSettingsHash() {
+        return TableSchema.sha256(scriptOutPath + "\n" + scriptAuthor + "\n" + deterministic + "\n" + renderer().lineSeparator());
+    }
+
+    private List<String> obtainTableNames(String db) throws SQLException {
+        long start = metrics.start();
+        List<String> tables = obtainAllTBName(connectionManager, db, filter);
+        metrics.record(GenerationMetrics.Phase.TABLE_LIST, start);
+        return tables;
+    }
+
+    /**
+     * 并发生成时的线程池，顺序生成时为空
+     */
+    private ExecutorService newExecutor() {
+        if (threads <= 1 && !virtualThreads) {
+            return null;
+        }
+        if (virtualThreads) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.out.println("Virtual threads are not supported by the current JDK, use " + threads + " platform threads instead");
+            }
+        }
+        return Executors.newFixedThreadPool(Math.max(threads, 1));
+    }
+
+    /**
+     * 顺序模式下（executor为空）直接在当前线程执行
+     */
+    private static <T> Future<T> submit(ExecutorService executor, Callable<T> task) {
+        if (executor != null) {
+            return executor.submit(task);
+        }
+        FutureTask<T> future = new FutureTask<>(task);
+        future.run();
+        return future;
+    }
+
+    /**
+     * 单个库待生成的表
+     */
+    private static class SchemaTables {
+        private final String db;
+        private final List<String> tables;
+        /**
+         * 批量模式下抽取的元数据，逐表模式下为空
+         */
+        private final Map<String, TableSchema> metadata;
+        /**
+         * 增量生成时的指纹缓存，非增量模式下为空
+         */
+        private final SchemaFingerprintCache fingerprints;
+        /**
+         * 表的外键引用，不按依赖生成主changelog时为空
+         */
+        private final Map<String, Set<String>> foreignKeys;
+
+        private SchemaTables(String db, List<String> tables, Map<String, TableSchema> metadata,
+                             SchemaFingerprintCache fingerprints) {
+            this(db, tables, metadata, fingerprints, null);
+        }
+
+        private SchemaTables(String db, List<String> tables, Map<String, TableSchema> metadata,
+                             SchemaFingerprintCache fingerprints, Map<String, Set<String>> foreignKeys) {
+            this.db = db;
+            this.tables = tables;
+            this.metadata = metadata;
+            this.fingerprints = fingerprints;
+            this.foreignKeys = foreignKeys;
+        }
+    }
+
+    /**
+     * 在当前JVM中以编程方式生成脚本，参数与命令行相同，如：
+     * GroovyScriptGenerator.builder().url(url).username(user).password(pwd).driver(driver).targetDirectory(dir).build().run()
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 生成参数的构建器，build时按命令行的规则校验，参数无效时抛出IllegalArgumentException
+     */
+    public static final class Builder {
+        private final Options options = new Options();
+
+        private Builder() {
+        }
+
+        /**
+         * 脚本存放的根目录，每个库的脚本存放在以库名命名的子目录
+         */
+        public Builder targetDirectory(File directory) {
+            options.targetPath = directory.getPath() + File.separator;
+            return this;
+        }
+
+        public Builder url(String url) {
+            options.url = url;
+            return this;
+        }
+
+        public Builder username(String username) {
+            options.username = username;
+            return this;
+        }
+
+        public Builder password(String password) {
+            options.password = password;
+            return this;
+        }
+
+        public Builder driver(String driver) {
+            options.driver = driver;
+            return this;
+        }
+
+        public Builder author(String author) {
+            options.author = author;
+            return this;
+        }
+
+        public Builder packageName(String packageName) {
+            options.pack = packageName;
+            return this;
+        }
+
+        public Builder bulk(boolean bulk) {
+            options.bulk = bulk;
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            options.threads = threads;
+            return this;
+        }
+
+        public Builder virtualThreads(boolean virtualThreads) {
+            options.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        public Builder incremental(boolean incremental) {
+            options.incremental = incremental;
+            return this;
+        }
+
+        public Builder deterministic(boolean deterministic) {
+            options.deterministic = deterministic;
+            return this;
+        }
+
+        public Builder dependencies(boolean dependencies) {
+            options.dependencies = dependencies;
+            return this;
+        }
+
+        /**
+         * 结构相同的表复用渲染结果，重复结构的报告保存到reportFile，为空时保存到脚本根目录
+         */
+        public Builder dedupe(File reportFile) {
+            options.dedupe = true;
+            options.dedupeFile = reportFile == null ? "" : reportFile.getPath();
+            return this;
+        }
+
+        /**
+         * 统计各阶段耗时，报告保存到reportFile，为空时保存到脚本根目录
+         */
+        public Builder metrics(File reportFile) {
+            options.metricsEnabled = true;
+            options.metricsFile = reportFile == null ? "" : reportFile.getPath();
+            return this;
+        }
+
+        public Builder throttle(boolean throttle) {
+            options.throttle = throttle;
+            return this;
+        }
+
+        public Builder maxQps(int maxQps) {
+            options.maxQps = maxQps;
+            return this;
+        }
+
+        /**
+         * 从快照生成，不连接数据库
+         */
+        public Builder fromSnapshot(File snapshot) {
+            options.fromSnapshot = snapshot.getPath();
+            return this;
+        }
+
+        /**
+         * 与快照比较，只为有变化的表生成增量脚本
+         */
+        public Builder diffBase(File snapshot) {
+            options.diffBase = snapshot.getPath();
+            return this;
+        }
+
+        /**
+         * 逗号分隔的库名规则，与-include-schema相同
+         */
+        public Builder includeSchemas(String patterns) {
+            options.filter.addRules("include.schema", patterns);
+            return this;
+        }
+
+        public Builder excludeSchemas(String patterns) {
+            options.filter.addRules("exclude.schema", patterns);
+            return this;
+        }
+
+        /**
+         * 逗号分隔的表名规则，可用库名限定，与-include-table相同
+         */
+        public Builder includeTables(String patterns) {
+            options.filter.addRules("include.table", patterns);
+            return this;
+        }
+
+        public Builder excludeTables(String patterns) {
+            options.filter.addRules("exclude.table", patterns);
+            return this;
+        }
+
+        public Builder filterConfig(File file) throws IOException {
+            options.filter.load(file);
+            return this;
+        }
+
+        /**
+         * 需要导出数据的表，规则与-data-tables相同，导出失败的表以FAILED结果（格式为data）交给listener
+         */
+        public Builder dataTables(String patterns) {
+            options.dataTables = patterns == null ? "" : patterns;
+            return this;
+        }
+
+        /**
+         * 输出格式，与-formats相同，默认只生成groovy脚本。多种格式时每种格式写入脚本根目录下以格式名命名的子目录
+         */
+        public Builder formats(String... formats) {
+            options.formats = String.join(",", formats);
+            return this;
+        }
+
+        /**
+         * 是否在结果中保留渲染的脚本，表很多时关闭以减少内存占用，默认保留
+         */
+        public Builder captureScripts(boolean captureScripts) {
+            options.captureScripts = captureScripts;
+            return this;
+        }
+
+        public ScriptGeneration build() {
+            String error = options.validate();
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+            Options built = options.copy();
+            built.applyDefaults();
+            return new ScriptGeneration(built);
+        }
+    }
+
+    /**
+     * 命令行参数，多服务器时每个服务器使用一份副本，连接地址、并发线程数和输出路径按服务器调整
+     */
+    static class Options implements Cloneable {
+        private String targetPath = "";
+        private String url = "";
+        private String username = "";
+        private String password = "";
+        private String driver = "";
+        private String author = "";
+        private String pack = "";
+        private boolean bulk;
+        private int threads = 1;
+        private boolean virtualThreads;
+        private boolean incremental;
+        private String exportSnapshot = "";
+        private String fromSnapshot = "";
+        private String diffBase = "";
+        private boolean metricsEnabled;
+        private String metricsFile = "";
+        private ScriptBundle.Mode bundleMode;
+        /**
+         * 默认排除系统库、liquibase的表以及工作流引擎的表，解析参数后只读；copy时复制，Builder构建后继续添加规则不影响已构建的参数
+         */
+        private ObjectFilter filter = ObjectFilter.defaults();
+        /**
+         * 需要导出数据的表，为空时不导出数据
+         */
+        private String dataTables = "";
+        private DataExporter.Format dataFormat = DataExporter.Format.LOAD_DATA;
+        private int dataChunkRows = DataExporter.DEFAULT_CHUNK_ROWS;
+        private int dataBatchRows = DataExporter.DEFAULT_BATCH_ROWS;
+        private int dataFetchSize = DataExporter.STREAMING_FETCH_SIZE;
+        /**
+         * 常驻监听的轮询间隔，小于等于0时不监听
+         */
+        private long watchInterval;
+        private int watchPort;
+        private boolean dedupe;
+        private String dedupeFile = "";
+        private boolean dependencies;
+        /**
+         * 逗号分隔的服务器地址
+         */
+        private String hosts = "";
+        /**
+         * 服务器地址文件，每行一个
+         */
+        private String hostsFile = "";
+        /**
+         * 同时处理的服务器数，小于等于0时所有服务器同时处理
+         */
+        private int parallelHosts;
+        /**
+         * 是否按查询耗时自适应调整元数据查询的并发
+         */
+        private boolean throttle;
+        /**
+         * 是否确定性输出
+         */
+        private boolean deterministic;
+        /**
+         * 每个服务器每秒元数据查询数的上限，小于等于0时不限制
+         */
+        private int maxQps;
+        /**
+         * 逐表接收生成结果，通过Builder或run设置
+         */
+        private GenerationListener listener;
+        private boolean captureScripts = true;
+        /**
+         * 逗号分隔的输出格式
+         */
+        private String formats = GroovyFormat.NAME;
+        /**
+         * 按名称找到的输出格式，applyDefaults时设置
+         */
+        private List<ScriptFormat> scriptFormats;
+
+        /**
+         * 校验参数之间的约束
+         *
+         * @return 错误信息，参数有效时为空
+         */
+        private String validate() {
+            //保存快照时不生成脚本，不需要脚本存放路径
+            if (StringUtils.isEmpty(targetPath) && StringUtils.isEmpty(exportSnapshot)) {
+                return "Please configure the parameter groovy script store path [-target]";
+            }
+            if (bundleMode != null && (incremental || !StringUtils.isEmpty(diffBase))) {
+                return "[-bundle] can not be used together with [-incremental] or [-diff-base]";
+            }
+            if (watchInterval > 0 && (bundleMode != null || !StringUtils.isEmpty(diffBase)
+                    || !StringUtils.isEmpty(exportSnapshot) || !StringUtils.isEmpty(fromSnapshot))) {
+                return "[-watch] can not be used together with [-bundle], [-diff-base], [-export-snapshot] or [-from-snapshot]";
+            }
+            if (multipleHosts() && (watchInterval > 0 || !StringUtils.isEmpty(fromSnapshot))) {
+                return "[-hosts] and [-hosts-file] can not be used together with [-watch] or [-from-snapshot]";
+            }
+            List<ScriptFormat> resolved;
+            try {
+                resolved = ScriptFormats.resolve(formats);
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+            //增量、合并、比较和监听只针对groovy脚本
+            if (!ScriptFormats.isGroovyOnly(resolved) && (incremental || bundleMode != null || !StringUtils.isEmpty(diffBase) || watchInterval > 0)) {
+                return "[-formats] other than groovy can not be used together with [-incremental], [-bundle], [-diff-base] or [-watch]";
+            }
+            if (!ScriptFormats.includesGroovy(resolved) && (dependencies || !StringUtils.isEmpty(dataTables))) {
+                return "[-dependencies] and [-data-tables] write groovy changelogs, add groovy to [-formats]";
+            }
+            if (!StringUtils.isEmpty(dataTables) && (dataChunkRows <= 0 || dataBatchRows <= 0)) {
+                return "[-data-chunk-rows] and [-data-batch-rows] must be positive";
+            }
+            //从快照生成时不连接数据库
+            if (!StringUtils.isEmpty(fromSnapshot)) {
+                return null;
+            }
+            if (StringUtils.isEmpty(url) && !multipleHosts()) {
+                return "Please configure the database connection path [-url]";
+            }
+            if (StringUtils.isEmpty(username)) {
+                return "Please configure the database connection name [-username]";
+            }
+            if (StringUtils.isEmpty(password)) {
+                return "Please configure the database connection password [-password]";
+            }
+            if (StringUtils.isEmpty(driver)) {
+                return "Please configure the database driver [-driver]";
+            }
+            return null;
+        }
+
+        private void applyDefaults() {
+            if (StringUtils.isEmpty(author)) {
+                author = "default_author";
+            }
+            if (StringUtils.isEmpty(pack)) {
+                pack = "default_package";
+            }
+            scriptFormats = ScriptFormats.resolve(formats);
+        }
+
+        /**
+         * groovy脚本的根目录：只生成groovy时为脚本根目录，多种格式时为其中的groovy子目录
+         */
+        private String groovyTargetPath() {
+            return ScriptFormats.isGroovyOnly(scriptFormats) ? targetPath : targetPath + GroovyFormat.NAME + File.separator;
+        }
+
+        private boolean multipleHosts() {
+            return !StringUtils.isEmpty(hosts) || !StringUtils.isEmpty(hostsFile);
+        }
+
+        private GenerationMetrics newMetrics() {
+            return metricsEnabled ? new GenerationMetrics() : GenerationMetrics.DISABLED;
+        }
+
+        /**
+         * 查询限流，每个服务器单独创建，不限流时为空
+         */
+        private QueryThrottle newThrottle() {
+            return throttle || maxQps > 0 ? new QueryThrottle(Math.max(maxConnections(), 1), maxQps, throttle) : null;
+        }
+
+        /**
+         * 同时借出的连接上限：多线程时为线程数；虚拟线程每张表一个任务，数量不受限制，未指定线程数时使用默认上限；
+         * 顺序生成时只有一个线程，不需要限制
+         */
+        private int maxConnections() {
+            if (threads > 1) {
+                return threads;
+            }
+            return virtualThreads ? ConnectionManager.DEFAULT_VIRTUAL_MAX_ACTIVE : 0;
+        }
+
+        private StructureCache newStructureCache() {
+            return dedupe ? new StructureCache() : null;
+        }
+
+        /**
+         * 数据导出的进度与并发设置随生成器变化，每个服务器单独创建
+         */
+        private DataExporter newDataExporter() {
+            DataExporter exporter = new DataExporter(ObjectFilter.acceptAll().addRules("include.table", dataTables));
+            exporter.setFormat(dataFormat);
+            exporter.setChunkRows(dataChunkRows);
+            exporter.setBatchRows(dataBatchRows);
+            exporter.setFetchSize(dataFetchSize);
+            return exporter;
+        }
+
+        private Options copy() {
+            try {
+                Options options = (Options) clone();
+                options.filter = filter.copy();
+                return options;
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * 逐表结果交给listener，一次生成使用一份副本
+         */
+        Options withListener(GenerationListener listener) {
+            Options options = copy();
+            options.listener = listener;
+            return options;
+        }
+
+        /**
+         * 服务器的参数：脚本、快照和报告都写入以服务器名称命名的子目录
+         */
+        private Options forServer(ServerEndpoint endpoint) {
+            Options options = copy();
+            options.url = endpoint.getUrl();
+            if (endpoint.getThreads() > 0) {
+                options.threads = endpoint.getThreads();
+            }
+            if (!StringUtils.isEmpty(targetPath)) {
+                options.targetPath = targetPath + endpoint.getName() + File.separator;
+            }
+            options.exportSnapshot = serverFile(exportSnapshot, endpoint);
+            options.metricsFile = serverFile(metricsFile, endpoint);
+            options.dedupeFile = serverFile(dedupeFile, endpoint);
+            return options;
+        }
+
+        /**
+         * 文件放到同目录下以服务器名称命名的子目录，未指定文件时仍为空
+         */
+        private static String serverFile(String file, ServerEndpoint endpoint) {
+            if (StringUtils.isEmpty(file)) {
+                return file;
+            }
+            File original = new File(file);
+            return new File(new File(original.getAbsoluteFile().getParentFile(), endpoint.getName()), original.getName()).getPath();
+        }
+    }
+
+    /**
+     * 获取参数值，参数名与值之间的"="可省略，如-threads=8、-threads8
+     */
+    private static String optionValue(String param, String name) {
+        String value = param.substring(name.length());
+        return value.startsWith("=") ? value.substring(1) : value;
+    }
+
+    /**
+     * 获取库中符合过滤规则的表名称，过滤规则作为查询条件
+     */
+    private static List<String> obtainAllTBName(ConnectionManager connectionManager, String db, ObjectFilter filter) throws SQLException {
+        String select_tb_sql = "select table_name from information_schema.tables where table_schema=?";
+        Connection tbConnection = connectionManager.acquire(null);
+        try {
+            PreparedStatement tbStatement = BulkMetadataExtractor.prepare(tbConnection, select_tb_sql,
+                    filter.tableCondition(db, "table_name"), "", db);
+            ResultSet tbrs = tbStatement.executeQuery();
+            List<String> tables = new ArrayList<>();
+            while (tbrs.next()) {
+                String tableName = tbrs.getString("table_name");
+                if (filter.acceptsTable(db, tableName)) {
+                    tables.add(tableName);
+                }
+            }
+            tbrs.close();
+            tbStatement.close();
+            return tables;
+        } finally {
+            connectionManager.release(tbConnection);
+        }
+    }
+
+    /**
+     * 库中所有表及其校验和，增量生成时与上次记录的校验和比较：除了TABLES的创建/更新时间，
+     * 还包括COLUMNS、STATISTICS的校验和，只修改列或索引而未更新create_time的表（如MySQL 8的instant DDL）不会被跳过
+     */
+    private static Map<String, String> obtainAllTBStatus(ConnectionManager connectionManager, String db, ObjectFilter filter) throws SQLException {
+        return SchemaWatcher.obtainTableChecksums(connectionManager, filter, db);
+    }
+
+    private static Map<String, TableSchema> obtainAllTBMetadata(ConnectionManager connectionManager, String db,
+                                                               ObjectFilter filter, GenerationMetrics metrics) throws SQLException {
+        Connection connection = connectionManager.acquire(null);
+        try {
+            return BulkMetadataExtractor.extract(connection, db, filter, metrics);
+        } finally {
+            connectionManager.release(connection);
+        }
+    }
+
+    private static Map<String, Set<String>> obtainAllFKs(ConnectionManager connectionManager, String db, ObjectFilter filter) throws SQLException {
+        Connection connection = connectionManager.acquire(null);
+        try {
+            return BulkMetadataExtractor.extractForeignKeys(connection, db, filter);
+        } finally {
+            connectionManager.release(connection);
+        }
+    }
+
+    private static GroovyScriptGenerator initGroovyScriptGenerator(ConnectionManager connectionManager) {
+        GroovyScriptGenerator generator = new GroovyScriptGenerator();
+        //配置数据库连接
+        generator.setConnectionManager(connectionManager);
+        return generator;
+    }
+
+    /**
+     * 获取符合过滤规则的库名称，过滤规则作为查询条件
+     */
+    private static List<String> obtainAllDBName(ConnectionManager connectionManager, ObjectFilter filter) throws SQLException {
+        ObjectFilter.Condition condition = filter.schemaCondition("schema_name");
+        String select_db_sql = "select schema_name from information_schema.schemata where 1=1" + condition.getSql();
+        Connection dbConnection = connectionManager.acquire(null);
+        try {
+            PreparedStatement dbStatement = dbConnection.prepareStatement(select_db_sql);
+            List<String> params = condition.getParams();
+            for (int i = 0; i < params.size(); i++) {
+                dbStatement.setString(i + 1, params.get(i));
+            }
+            ResultSet dbrs = dbStatement.executeQuery();
+            List<String> dbs = new ArrayList<>();
+            while (dbrs.next()) {
+                String dbName = dbrs.getString("schema_name");
+                if (filter.acceptsSchema(dbName)) {
+                    dbs.add(dbName);
+                }
+            }
+            dbrs.close();
+            dbStatement.close();
+            return dbs;
+        } finally {
+            connectionManager.release(dbConnection);
+        }
+    }
+}
@@ -0,0 +1,490 @@
+package groovyutil;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Description: groovy脚本渲染，按片段直接追加到Appendable，不做字符串拼接，
+ * 分支只依赖ColumnDef的标志位，渲染每一列时不产生新对象
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+class GroovyScriptRenderer {
+
+    private static final int BUFFER_SIZE = 8192;
+    /**
+     * 确定性changeSet id中哈希的长度
+     */
+    private static final int ID_HASH_LENGTH = 12;
+
+    /**
+     * 每个线程复用的渲染缓冲，用于与已有脚本比较内容
+     */
+    private static final ThreadLocal<StringBuilder> RENDER_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(BUFFER_SIZE));
+
+    private final String scriptOutPath;
+    private final String scriptAuthor;
+    /**
+     * changeSet id中的日期
+     */
+    private final String date;
+    /**
+     * 确定性输出：changeSet id由表名和结构哈希组成，不含日期，文件末尾固定为\r\n，相同的表结构总是得到相同的脚本
+     */
+    private final boolean deterministic;
+    /**
+     * 结构相同的表复用渲染结果，为空时每张表单独渲染
+     */
+    private volatile StructureCache structures;
+
+    GroovyScriptRenderer(String scriptOutPath, String scriptAuthor, String date) {
+        this(scriptOutPath, scriptAuthor, date, false);
+    }
+
+    GroovyScriptRenderer(String scriptOutPath, String scriptAuthor, String date, boolean deterministic) {
+        this.scriptOutPath = scriptOutPath;
+        this.scriptAuthor = scriptAuthor;
+        this.date = date;
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * 其他输出格式使用的渲染参数，与groovy脚本的作者、包名、日期相同
+     */
+    RenderSettings settings() {
+        return new RenderSettings(scriptAuthor, scriptOutPath, date, deterministic);
+    }
+
+    /**
+     * 文件末尾的换行，确定性输出时与脚本内的换行相同，不随操作系统变化
+     */
+    String lineSeparator() {
+        return deterministic ? "\r\n" : System.lineSeparator();
+    }
+
+    /**
+     * 渲染脚本并以UTF-8写入文件，文件已存在且内容相同时不重写
+     *
+     * @return 是否写入了文件
+     */
+    boolean renderTo(TableSchema table, Path file) throws IOException {
+        return renderTo(table, file, GenerationMetrics.DISABLED);
+    }
+
+    /**
+     * 渲染脚本并以UTF-8写入文件，启用耗时统计时先渲染到缓冲再写入，以分别统计渲染和写文件的耗时
+     *
+     * @return 是否写入了文件
+     */
+    boolean renderTo(TableSchema table, Path file, GenerationMetrics metrics) throws IOException {
+        return writeTo(file, out -> render(table, out), metrics);
+    }
+
+    /**
+     * 渲染增量脚本并以UTF-8写入文件，文件已存在且内容相同时不重写
+     *
+     * @return 是否写入了文件
+     */
+    boolean renderDiffTo(SchemaDiff diff, Path file) throws IOException {
+        return writeTo(file, out -> renderDiff(diff, out), GenerationMetrics.DISABLED);
+    }
+
+    /**
+     * 渲染库的主changelog并以UTF-8写入文件，文件已存在且内容相同时不重写
+     *
+     * @return 是否写入了文件
+     */
+    boolean renderMasterTo(String db, List<List<String>> levels, Path file) throws IOException {
+        return writeTo(file, out -> renderMaster(db, levels, out), GenerationMetrics.DISABLED);
+    }
+
+    /**
+     * 以UTF-8写入已渲染的脚本，文件已存在且内容相同时不重写
+     *
+     * @return 是否写入了文件
+     */
+    boolean writeScript(String script, Path file) throws IOException {
+        return writeTo(file, out -> out.append(script), GenerationMetrics.DISABLED);
+    }
+
+    private boolean writeTo(Path file, Content content, GenerationMetrics metrics) throws IOException {
+        boolean exists = Files.isRegularFile(file);
+        if (exists || metrics.isEnabled()) {
+            long start = metrics.start();
+            StringBuilder sb = RENDER_BUFFER.get();
+            sb.setLength(0);
+            content.render(sb);
+            sb.append(lineSeparator());
+            byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+            metrics.record(GenerationMetrics.Phase.RENDER, start);
+            start = metrics.start();
+            try {
+                if (exists && Arrays.equals(Files.readAllBytes(file), bytes)) {
+                    return false;
+                }
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                return true;
+            } finally {
+                metrics.record(GenerationMetrics.Phase.WRITE, start);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             Writer writer = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), BUFFER_SIZE), BUFFER_SIZE)) {
+            content.render(writer);
+            writer.write(lineSeparator());
+        }
+        return true;
+    }
+
+    /**
+     * 渲染为字符串
+     */
+    String render(TableSchema table) {
+        StringBuilder sb = new StringBuilder(BUFFER_SIZE);
+        try {
+            render(table, sb);
+        } catch (IOException e) {
+            //StringBuilder不会抛出IOException
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    void render(TableSchema table, Appendable out) throws IOException {
+        StructureCache cache = structures;
+        if (cache != null && !StructureCache.PLACEHOLDER.equals(table.getTableName())) {
+            cache.render("script:", table, this::renderScript, out);
+            return;
+        }
+        renderScript(table, out);
+    }
+
+    private void renderScript(TableSchema table, Appendable out) throws IOException {
+        renderHeader(table.getTableName(), out);
+        renderChangeSet(table, out);
+        out.append('}');
+    }
+
+    /**
+     * 渲染单张表的建表changeSet，不含包名和databaseChangeLog，用于合并到一个changelog
+     */
+    void renderChangeSet(TableSchema table, Appendable out) throws IOException {
+        StructureCache cache = structures;
+        if (cache != null && !StructureCache.PLACEHOLDER.equals(table.getTableName())) {
+            cache.render("changeSet:", table, this::renderCreateTable, out);
+            return;
+        }
+        renderCreateTable(table, out);
+    }
+
+    private void renderCreateTable(TableSchema table, Appendable out) throws IOException {
+        String tableName = table.getTableName();
+        out.append("\tchangeSet(author: '").append(scriptAuthor).append("', id: '");
+        if (deterministic) {
+            out.append(tableName).append('-').append(table.structureHash(), 0, ID_HASH_LENGTH);
+        } else {
+            out.append(date).append('-').append(tableName);
+        }
+        out.append("') {\r\n");
+        out.append("\t\tcreateTable(tableName: \"").append(tableName).append("\") {\r\n");
+        List<ColumnDef> columns = table.getColumns();
+        for (int i = 0, size = columns.size(); i < size; i++) {
+            renderColumn(columns.get(i), false, out);
+        }
+        out.append("\t\t}\r\n");
+        for (Map.Entry<String, List<IndexInfo>> entry : table.getIndexMap().entrySet()) {
+            renderIndex(tableName, entry.getKey(), entry.getValue(), out);
+        }
+        out.append("\t}\r\n");
+    }
+
+    void setStructureCache(StructureCache structures) {
+        this.structures = structures;
+    }
+
+    /**
+     * 渲染增量脚本为字符串
+     */
+    String renderDiff(SchemaDiff diff) {
+        StringBuilder sb = new StringBuilder(BUFFER_SIZE);
+        try {
+            renderDiff(diff, sb);
+        } catch (IOException e) {
+            //StringBuilder不会抛出IOException
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 渲染增量脚本，每个变更一个changeSet，id为日期-表名-变更类型-列名/索引名，确定性输出时为表名-变更类型-列名/索引名-变更哈希。
+     * 先删除索引和列，再新增、修改列，最后创建索引，保证索引引用的列已存在
+     */
+    void renderDiff(SchemaDiff diff, Appendable out) throws IOException {
+        String tableName = diff.getTableName();
+        renderHeader(tableName, out);
+        for (String indexName : diff.getDroppedIndexes()) {
+            renderChangeSetStart(diff, "dropIndex", indexName, out);
+            out.append("\t\tdropIndex(tableName: \"").append(tableName).append("\", indexName: \"").append(indexName).append("\")\r\n");
+            out.append("\t}\r\n");
+        }
+        for (ColumnDef column : diff.getDroppedColumns()) {
+            renderChangeSetStart(diff, "dropColumn", column.getName(), out);
+            out.append("\t\tdropColumn(tableName: \"").append(tableName).append("\", columnName: \"").append(column.getName()).append("\")\r\n");
+            out.append("\t}\r\n");
+        }
+        for (ColumnDef column : diff.getAddedColumns()) {
+            renderChangeSetStart(diff, "addColumn", column.getName(), out);
+            out.append("\t\taddColumn(tableName: \"").append(tableName).append("\") {\r\n");
+            renderColumn(column, true, out);
+            out.append("\t\t}\r\n");
+            out.append("\t}\r\n");
+        }
+        for (ColumnDef column : diff.getModifiedColumns()) {
+            renderChangeSetStart(diff, "modifyDataType", column.getName(), out);
+            out.append("\t\tmodifyDataType(tableName: \"").append(tableName).append("\", columnName: \"").append(column.getName())
+                    .append("\", newDataType: \"");
+            appendDataType(column, true, out);
+            out.append("\")\r\n");
+            renderColumnChanges(tableName, diff.getPreviousColumn(column.getName()), column, out);
+            //MySQL的modifyDataType只有类型，会去掉NOT NULL、默认值、注释和自增，按新结构重新声明整列
+            renderColumnRestatement(tableName, column, out);
+            out.append("\t}\r\n");
+        }
+        for (ColumnDef column : diff.getAlteredColumns()) {
+            ColumnDef previous = diff.getPreviousColumn(column.getName());
+            renderChangeSetStart(diff, "modifyColumn", column.getName(), out);
+            renderColumnChanges(tableName, previous, column, out);
+            //MySQL上可空、注释、自增的变更都是MODIFY整列，只有类型时会互相覆盖，最后按新结构重新声明整列
+            if (previous.isNullable() != column.isNullable() || !SchemaDiff.sameRemarks(previous, column)
+                    || previous.isAutoIncrement() != column.isAutoIncrement()) {
+                renderColumnRestatement(tableName, column, out);
+            }
+            out.append("\t}\r\n");
+        }
+        for (Map.Entry<String, List<IndexInfo>> entry : diff.getCreatedIndexes().entrySet()) {
+            renderChangeSetStart(diff, "createIndex", entry.getKey(), out);
+            renderIndex(tableName, entry.getKey(), entry.getValue(), out);
+            out.append("\t}\r\n");
+        }
+        out.append('}');
+    }
+
+    /**
+     * 库的主changelog，按外键依赖的层级依次include每张表的脚本，同一层的表互不依赖
+     */
+    void renderMaster(String db, List<List<String>> levels, Appendable out) throws IOException {
+        renderHeader(db + "-master", out);
+        for (int level = 0; level < levels.size(); level++) {
+            out.append("\t// level ");
+            appendInt(out, level);
+            out.append("\r\n");
+            for (String tableName : levels.get(level)) {
+                out.append("\tinclude(file: \"").append(db).append('/').append(tableName)
+                        .append(".groovy\", relativeToChangelogFile: true)\r\n");
+            }
+        }
+        out.append('}');
+    }
+
+    /**
+     * 包名及databaseChangeLog的开始
+     *
+     * @param name logicalFilePath中的文件名（不含扩展名）
+     */
+    void renderHeader(String name, Appendable out) throws IOException {
+        out.append("package ").append(scriptOutPath).append("\r\n");
+        out.append("\r\n");
+        out.append("databaseChangeLog(logicalFilePath: '").append(name).append(".groovy') {\r\n");
+    }
+
+    private void renderChangeSetStart(SchemaDiff diff, String change, String name, Appendable out) throws IOException {
+        out.append("\tchangeSet(author: '").append(scriptAuthor).append("', id: '");
+        if (!deterministic) {
+            out.append(date).append('-');
+        }
+        out.append(diff.getTableName()).append('-').append(change).append('-').append(name);
+        if (deterministic) {
+            out.append('-').append(diff.getHash(), 0, ID_HASH_LENGTH);
+        }
+        out.append("') {\r\n");
+    }
+
+    /**
+     * 列的可空、默认值、注释、自增变化对应的Liquibase变更，自增只能增加，去掉自增由重新声明整列完成
+     */
+    private static void renderColumnChanges(String tableName, ColumnDef previous, ColumnDef column, Appendable out) throws IOException {
+        if (previous.isNullable() != column.isNullable()) {
+            out.append(column.isNullable() ? "\t\tdropNotNullConstraint(" : "\t\taddNotNullConstraint(");
+            appendColumnReference(tableName, column, out);
+            out.append(")\r\n");
+        }
+        if (!SchemaDiff.sameDefaultValue(previous, column)) {
+            if (column.isDefaultValueComputed()) {
+                out.append("\t\taddDefaultValue(");
+                appendColumnReference(tableName, column, out);
+                out.append(", defaultValueComputed: \"").append(column.getDefaultValue()).append("\")\r\n");
+            } else if (column.hasDefaultValue()) {
+                out.append("\t\taddDefaultValue(");
+                appendColumnReference(tableName, column, out);
+                out.append(", defaultValue: \"").append(column.getDefaultValue()).append("\")\r\n");
+            } else {
+                out.append("\t\tdropDefaultValue(");
+                appendColumnReference(tableName, column, out);
+                out.append(")\r\n");
+            }
+        }
+        if (!SchemaDiff.sameRemarks(previous, column)) {
+            out.append("\t\tsetColumnRemarks(tableName: \"").append(tableName).append("\", columnName: \"").append(column.getName())
+                    .append("\", remarks: \"").append(column.getRemarks() == null ? "" : column.getRemarks()).append("\")\r\n");
+        }
+        if (!previous.isAutoIncrement() && column.isAutoIncrement()) {
+            out.append("\t\taddAutoIncrement(");
+            appendColumnReference(tableName, column, out);
+            out.append(")\r\n");
+        }
+    }
+
+    private static void appendColumnReference(String tableName, ColumnDef column, Appendable out) throws IOException {
+        out.append("tableName: \"").append(tableName).append("\", columnName: \"").append(column.getName()).append("\", columnDataType: \"");
+        appendDataType(column, true, out);
+        out.append('"');
+    }
+
+    /**
+     * 在MySQL上按新结构重新声明整列：类型、NOT NULL、自增、默认值和注释
+     */
+    private static void renderColumnRestatement(String tableName, ColumnDef column, Appendable out) throws IOException {
+        StringBuilder sql = new StringBuilder("ALTER TABLE ").append(MysqlDdlFormat.identifier(tableName)).append(" MODIFY ");
+        MysqlDdlFormat.renderColumn(column, sql);
+        out.append("\t\tsql(dbms: 'mysql') {\r\n");
+        out.append("\t\t\t'").append(sql.toString().replace("\\", "\\\\").replace("'", "\\'")).append("'\r\n");
+        out.append("\t\t}\r\n");
+    }
+
+    /**
+     * 数据changeSet的开始，id为日期-表名-data-数据文件序号，确定性输出时不含日期
+     */
+    void renderDataChangeSetStart(String tableName, String chunk, Appendable out) throws IOException {
+        out.append("\tchangeSet(author: '").append(scriptAuthor).append("', id: '");
+        if (!deterministic) {
+            out.append(date).append('-');
+        }
+        out.append(tableName).append("-data-").append(chunk).append("') {\r\n");
+    }
+
+    /**
+     * @param scale 类型是否带小数位数，完整脚本与原有脚本相同不带，增量脚本带
+     */
+    private static void renderColumn(ColumnDef column, boolean scale, Appendable out) throws IOException {
+        String columnName = column.getName();
+        if (columnName == null || columnName.isEmpty()) {
+            return;
+        }
+        boolean computed = column.isDefaultValueComputed();
+        out.append("\t\t\tcolumn(name: '").append(columnName).append("', type: '");
+        appendDataType(column, scale, out);
+        out.append('\'');
+        if (column.isAutoIncrement()) {
+            out.append(", autoIncrement: true, remarks: \"");
+        } else if (computed) {
+            out.append(",remarks:\"");
+        } else {
+            out.append(", remarks: \"");
+        }
+        out.append(column.getRemarks()).append('"');
+        if (computed) {
+            out.append(", defaultValueComputed: \"").append(column.getDefaultValue()).append('"');
+        } else if (column.hasDefaultValue()) {
+            out.append(", defaultValue: \"").append(column.getDefaultValue()).append('"');
+        }
+        out.append(") {\r\n");
+        out.append("\t\t\t\tconstraints(nullable: ").append(column.isNullable() ? "true" : "false");
+        if (column.isAutoIncrement() || column.isPrimaryKey()) {
+            out.append(",\r\n");
+            out.append("\t\t\t\t\tprimaryKey: true\r\n");
+            out.append("\t\t\t\t)\r\n");
+        } else {
+            out.append(")\r\n");
+        }
+        out.append("\t\t\t}\r\n");
+    }
+
+    static void renderIndex(String tableName, String indexName, List<IndexInfo> indexInfoList, Appendable out) throws IOException {
+        if ("PRIMARY".equalsIgnoreCase(indexName)) {
+            return;
+        }
+        out.append("\t\tcreateIndex(tableName: \"").append(tableName).append("\", indexName: \"").append(indexName)
+                .append("\", unique: ").append(indexInfoList.get(0).isNonUnique() ? "false" : "true").append(") {\r\n");
+        //按组合索引中列的序列输出
+        int j = 0;
+        while (j < indexInfoList.size()) {
+            for (int i = 0; i < indexInfoList.size(); i++) {
+                IndexInfo indexInfo = indexInfoList.get(i);
+                if (indexInfo.getOrdinalPosition() == j + 1) {
+                    out.append("\t\t\tcolumn(name: \"").append(indexInfo.getColumnName()).append("\")\r\n");
+                    j++;
+                }
+            }
+        }
+        out.append("\t\t}\r\n");
+    }
+
+    /**
+     * 类型及长度，默认值为CURRENT_TIMESTAMP时类型不带长度
+     *
+     * @param scale decimal、numeric是否带小数位数，如decimal(10,2)
+     */
+    static void appendDataType(ColumnDef column, boolean scale, Appendable out) throws IOException {
+        out.append(column.getType());
+        if (!column.isDefaultValueComputed()) {
+            out.append('(');
+            appendInt(out, column.isTimestamp() ? 6 : column.getSize());
+            if (scale && column.getDecimalDigits() > 0) {
+                out.append(',');
+                appendInt(out, column.getDecimalDigits());
+            }
+            out.append(')');
+        }
+    }
+
+    /**
+     * 逐位追加整数，避免String.valueOf产生临时字符串
+     */
+    static void appendInt(Appendable out, int value) throws IOException {
+        long v = value;
+        if (v < 0) {
+            out.append('-');
+            v = -v;
+        }
+        if (v >= 10) {
+            appendInt(out, (int) (v / 10));
+        }
+        out.append((char) ('0' + v % 10));
+    }
+
+    /**
+     * 渲染的内容，写入StringBuilder或文件
+     */
+    private interface Content {
+        void render(Appendable out) throws IOException;
+    }
+}
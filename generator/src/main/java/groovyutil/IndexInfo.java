@@ -0,0 +1,48 @@
+package groovyutil;
+
+/**
+ * @Description: 索引中的一列，同一索引的多列按ordinalPosition排列，创建后不可变
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class IndexInfo {
+    /**
+     * 是否唯一索引
+     */
+    private final boolean nonUnique;
+    /**
+     * 索引名称
+     */
+    private final String indexName;
+    /**
+     * 列名
+     */
+    private final String columnName;
+    /**
+     * 组合索引中列的序列
+     */
+    private final Integer ordinalPosition;
+
+    public IndexInfo(boolean nonUnique, String indexName, String columnName, Integer ordinalPosition) {
+        this.nonUnique = nonUnique;
+        this.indexName = indexName;
+        this.columnName = columnName;
+        this.ordinalPosition = ordinalPosition;
+    }
+
+    public boolean isNonUnique() {
+        return nonUnique;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public Integer getOrdinalPosition() {
+        return ordinalPosition;
+    }
+}
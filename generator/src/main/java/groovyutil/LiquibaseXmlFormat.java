@@ -0,0 +1,151 @@
+package groovyutil;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Description: Liquibase XML格式的changelog，changeSet的id、作者、列和索引与groovy脚本相同
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+class LiquibaseXmlFormat implements ScriptFormat {
+
+    static final String NAME = "xml";
+
+    private static final String SCHEMA = "http://www.liquibase.org/xml/ns/dbchangelog";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public ScriptRenderer newRenderer(RenderSettings settings) {
+        return new Renderer(settings);
+    }
+
+    private static final class Renderer implements ScriptRenderer {
+
+        private final RenderSettings settings;
+        private final ScriptTemplate header;
+        private final ScriptTemplate column;
+        private final ScriptTemplate index;
+        private final ScriptTemplate indexColumn;
+        private final ScriptTemplate footer;
+
+        Renderer(RenderSettings settings) {
+            this.settings = settings;
+            this.header = ScriptTemplate.compile("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+                    + "<databaseChangeLog xmlns=\"" + SCHEMA + "\"\r\n"
+                    + "        xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\r\n"
+                    + "        xsi:schemaLocation=\"" + SCHEMA + " " + SCHEMA + "/dbchangelog-3.8.xsd\"\r\n"
+                    + "        logicalFilePath=\"${file}\">\r\n"
+                    + "\t<changeSet author=\"${author}\" id=\"${id}\">\r\n"
+                    + "\t\t<createTable tableName=\"${table}\">\r\n", "file", "author", "id", "table")
+                    .with("author", escape(settings.getAuthor()));
+            this.column = ScriptTemplate.compile("\t\t\t<column name=\"${name}\" type=\"${type}\"", "name", "type");
+            this.index = ScriptTemplate.compile("\t\t<createIndex tableName=\"${table}\" indexName=\"${index}\" unique=\"${unique}\">\r\n",
+                    "table", "index", "unique");
+            this.indexColumn = ScriptTemplate.compile("\t\t\t<column name=\"${name}\"/>\r\n", "name");
+            this.footer = ScriptTemplate.compile("\t</changeSet>\r\n"
+                    + "</databaseChangeLog>");
+        }
+
+        @Override
+        public String getFileName(String tableName) {
+            return tableName + ".xml";
+        }
+
+        @Override
+        public void render(TableSchema table, Appendable out) throws IOException {
+            String tableName = escape(table.getTableName());
+            header.render(out, tableName + ".xml", escape(settings.changeSetId(table)), tableName);
+            StringBuilder type = new StringBuilder();
+            for (ColumnDef def : table.getColumns()) {
+                if (def.getName() == null || def.getName().isEmpty()) {
+                    continue;
+                }
+                type.setLength(0);
+                GroovyScriptRenderer.appendDataType(def, true, type);
+                column.render(out, escape(def.getName()), escape(type.toString()));
+                if (def.isAutoIncrement()) {
+                    out.append(" autoIncrement=\"true\"");
+                }
+                if (def.getRemarks() != null && !def.getRemarks().isEmpty()) {
+                    out.append(" remarks=\"").append(escape(def.getRemarks())).append('"');
+                }
+                if (def.isDefaultValueComputed()) {
+                    out.append(" defaultValueComputed=\"").append(escape(def.getDefaultValue())).append('"');
+                } else if (def.hasDefaultValue()) {
+                    out.append(" defaultValue=\"").append(escape(def.getDefaultValue())).append('"');
+                }
+                out.append(">\r\n\t\t\t\t<constraints nullable=\"").append(def.isNullable() ? "true" : "false").append('"');
+                if (def.isAutoIncrement() || def.isPrimaryKey()) {
+                    out.append(" primaryKey=\"true\"");
+                }
+                out.append("/>\r\n\t\t\t</column>\r\n");
+            }
+            out.append("\t\t</createTable>\r\n");
+            for (Map.Entry<String, List<IndexInfo>> entry : table.getIndexMap().entrySet()) {
+                if ("PRIMARY".equalsIgnoreCase(entry.getKey())) {
+                    continue;
+                }
+                List<IndexInfo> columns = SchemaDiff.sortedByOrdinal(entry.getValue());
+                index.render(out, tableName, escape(entry.getKey()), columns.get(0).isNonUnique() ? "false" : "true");
+                for (IndexInfo indexInfo : columns) {
+                    indexColumn.render(out, escape(indexInfo.getColumnName()));
+                }
+                out.append("\t\t</createIndex>\r\n");
+            }
+            footer.render(out);
+        }
+    }
+
+    /**
+     * 属性值转义
+     */
+    static String escape(String value) {
+        StringBuilder sb = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement;
+            switch (c) {
+                case '&':
+                    replacement = "&amp;";
+                    break;
+                case '<':
+                    replacement = "&lt;";
+                    break;
+                case '>':
+                    replacement = "&gt;";
+                    break;
+                case '"':
+                    replacement = "&quot;";
+                    break;
+                case '\'':
+                    replacement = "&apos;";
+                    break;
+                case '\r':
+                    replacement = "&#13;";
+                    break;
+                case '\n':
+                    replacement = "&#10;";
+                    break;
+                default:
+                    replacement = null;
+            }
+            if (replacement == null) {
+                if (sb != null) {
+                    sb.append(c);
+                }
+                continue;
+            }
+            if (sb == null) {
+                sb = new StringBuilder(value.length() + 16).append(value, 0, i);
+            }
+            sb.append(replacement);
+        }
+        return sb == null ? value : sb.toString();
+    }
+}
@@ -0,0 +1,173 @@
+package groovyutil;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * @Description: Liquibase YAML格式的changelog，changeSet的id、作者、列和索引与groovy脚本相同
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+class LiquibaseYamlFormat implements ScriptFormat {
+
+    static final String NAME = "yaml";
+
+    /**
+     * 不需要加引号的名称和类型
+     */
+    private static final Pattern PLAIN = Pattern.compile("[A-Za-z_][A-Za-z0-9_ (),]*");
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public ScriptRenderer newRenderer(RenderSettings settings) {
+        return new Renderer(settings);
+    }
+
+    private static final class Renderer implements ScriptRenderer {
+
+        private final RenderSettings settings;
+        private final ScriptTemplate header;
+        private final ScriptTemplate column;
+        private final ScriptTemplate index;
+        private final ScriptTemplate indexColumn;
+
+        Renderer(RenderSettings settings) {
+            this.settings = settings;
+            //每段以换行开始，最后一段之后不带换行
+            this.header = ScriptTemplate.compile("databaseChangeLog:\r\n"
+                    + "- changeSet:\r\n"
+                    + "    id: ${id}\r\n"
+                    + "    author: ${author}\r\n"
+                    + "    changes:\r\n"
+                    + "    - createTable:\r\n"
+                    + "        tableName: ${table}\r\n"
+                    + "        columns:", "id", "author", "table")
+                    .with("author", quote(settings.getAuthor()));
+            this.column = ScriptTemplate.compile("\r\n"
+                    + "        - column:\r\n"
+                    + "            name: ${name}\r\n"
+                    + "            type: ${type}", "name", "type");
+            this.index = ScriptTemplate.compile("\r\n"
+                    + "    - createIndex:\r\n"
+                    + "        tableName: ${table}\r\n"
+                    + "        indexName: ${index}\r\n"
+                    + "        unique: ${unique}\r\n"
+                    + "        columns:", "table", "index", "unique");
+            this.indexColumn = ScriptTemplate.compile("\r\n"
+                    + "        - column:\r\n"
+                    + "            name: ${name}", "name");
+        }
+
+        @Override
+        public String getFileName(String tableName) {
+            return tableName + ".yaml";
+        }
+
+        @Override
+        public void render(TableSchema table, Appendable out) throws IOException {
+            String tableName = scalar(table.getTableName());
+            header.render(out, quote(settings.changeSetId(table)), tableName);
+            StringBuilder type = new StringBuilder();
+            for (ColumnDef def : table.getColumns()) {
+                if (def.getName() == null || def.getName().isEmpty()) {
+                    continue;
+                }
+                type.setLength(0);
+                GroovyScriptRenderer.appendDataType(def, true, type);
+                column.render(out, scalar(def.getName()), scalar(type.toString()));
+                if (def.isAutoIncrement()) {
+                    out.append("\r\n            autoIncrement: true");
+                }
+                if (def.getRemarks() != null && !def.getRemarks().isEmpty()) {
+                    out.append("\r\n            remarks: ").append(quote(def.getRemarks()));
+                }
+                if (def.isDefaultValueComputed()) {
+                    out.append("\r\n            defaultValueComputed: ").append(quote(def.getDefaultValue()));
+                } else if (def.hasDefaultValue()) {
+                    out.append("\r\n            defaultValue: ").append(quote(def.getDefaultValue()));
+                }
+                out.append("\r\n            constraints:\r\n              nullable: ").append(def.isNullable() ? "true" : "false");
+                if (def.isAutoIncrement() || def.isPrimaryKey()) {
+                    out.append("\r\n              primaryKey: true");
+                }
+            }
+            for (Map.Entry<String, List<IndexInfo>> entry : table.getIndexMap().entrySet()) {
+                if ("PRIMARY".equalsIgnoreCase(entry.getKey())) {
+                    continue;
+                }
+                List<IndexInfo> columns = SchemaDiff.sortedByOrdinal(entry.getValue());
+                index.render(out, tableName, scalar(entry.getKey()), columns.get(0).isNonUnique() ? "false" : "true");
+                for (IndexInfo indexInfo : columns) {
+                    indexColumn.render(out, scalar(indexInfo.getColumnName()));
+                }
+            }
+        }
+    }
+
+    /**
+     * 名称和类型一般不需要引号，包含其他字符或与YAML关键字相同时加双引号
+     */
+    private static String scalar(String value) {
+        if (PLAIN.matcher(value).matches() && !value.endsWith(" ") && !isKeyword(value)) {
+            return value;
+        }
+        return quote(value);
+    }
+
+    private static boolean isKeyword(String value) {
+        switch (value.toLowerCase()) {
+            case "true":
+            case "false":
+            case "yes":
+            case "no":
+            case "on":
+            case "off":
+            case "null":
+            case "y":
+            case "n":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * YAML双引号字符串，转义反斜杠、双引号和控制字符
+     */
+    static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\x%02x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,201 @@
+package groovyutil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @Description: MySQL建表语句，主键和索引写在CREATE TABLE中，可直接在MySQL中执行
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+class MysqlDdlFormat implements ScriptFormat {
+
+    static final String NAME = "ddl";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public ScriptRenderer newRenderer(RenderSettings settings) {
+        return new ScriptRenderer() {
+            @Override
+            public String getFileName(String tableName) {
+                return tableName + ".sql";
+            }
+
+            @Override
+            public void render(TableSchema table, Appendable out) throws IOException {
+                renderCreateTable(table, true, out);
+                out.append(';');
+            }
+        };
+    }
+
+    /**
+     * CREATE TABLE语句，不含结尾的分号
+     *
+     * @param inlineIndexes 是否在建表语句中定义索引，为false时只定义主键
+     */
+    static void renderCreateTable(TableSchema table, boolean inlineIndexes, Appendable out) throws IOException {
+        out.append("CREATE TABLE ").append(identifier(table.getTableName())).append(" (");
+        String separator = "\r\n";
+        for (ColumnDef column : table.getColumns()) {
+            if (column.getName() == null || column.getName().isEmpty()) {
+                continue;
+            }
+            out.append(separator).append("  ");
+            renderColumn(column, out);
+            separator = ",\r\n";
+        }
+        List<IndexInfo> primaryKey = primaryKey(table);
+        if (!primaryKey.isEmpty()) {
+            out.append(separator).append("  PRIMARY KEY ");
+            appendIndexColumns(primaryKey, out);
+        }
+        if (inlineIndexes) {
+            for (Map.Entry<String, List<IndexInfo>> entry : table.getIndexMap().entrySet()) {
+                if ("PRIMARY".equalsIgnoreCase(entry.getKey())) {
+                    continue;
+                }
+                List<IndexInfo> columns = SchemaDiff.sortedByOrdinal(entry.getValue());
+                out.append(separator).append(columns.get(0).isNonUnique() ? "  KEY " : "  UNIQUE KEY ")
+                        .append(identifier(entry.getKey())).append(' ');
+                appendIndexColumns(columns, out);
+            }
+        }
+        out.append("\r\n)");
+    }
+
+    /**
+     * 主键列，按PRIMARY索引中列的序列；没有PRIMARY索引时与groovy脚本相同，取主键列和自增列
+     */
+    private static List<IndexInfo> primaryKey(TableSchema table) {
+        for (Map.Entry<String, List<IndexInfo>> entry : table.getIndexMap().entrySet()) {
+            if ("PRIMARY".equalsIgnoreCase(entry.getKey())) {
+                return SchemaDiff.sortedByOrdinal(entry.getValue());
+            }
+        }
+        List<IndexInfo> primaryKey = new ArrayList<>();
+        for (ColumnDef column : table.getColumns()) {
+            if (column.isPrimaryKey() || column.isAutoIncrement()) {
+                primaryKey.add(new IndexInfo(false, "PRIMARY", column.getName(), primaryKey.size() + 1));
+            }
+        }
+        return primaryKey;
+    }
+
+    /**
+     * 列定义：列名、类型、NOT NULL、自增、默认值和注释，也用于增量脚本中重新声明整列
+     */
+    static void renderColumn(ColumnDef column, Appendable out) throws IOException {
+        out.append(identifier(column.getName())).append(' ').append(dataType(column));
+        if (!column.isNullable()) {
+            out.append(" NOT NULL");
+        }
+        if (column.isAutoIncrement()) {
+            out.append(" AUTO_INCREMENT");
+        }
+        if (column.isDefaultValueComputed()) {
+            //带小数秒的列，默认值的精度需要与列相同
+            int precision = fractionalPrecision(column);
+            out.append(" DEFAULT ").append(column.getDefaultValue().toUpperCase());
+            if (precision > 0) {
+                out.append('(');
+                GroovyScriptRenderer.appendInt(out, precision);
+                out.append(')');
+            }
+        } else if (column.hasDefaultValue()) {
+            out.append(" DEFAULT ").append(literal(column.getDefaultValue()));
+        }
+        if (column.getRemarks() != null && !column.getRemarks().isEmpty()) {
+            out.append(" COMMENT ").append(literal(column.getRemarks()));
+        }
+    }
+
+    /**
+     * 组合索引的列，如 (`a`, `b`)
+     */
+    static void appendIndexColumns(List<IndexInfo> columns, Appendable out) throws IOException {
+        out.append('(');
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                out.append(", ");
+            }
+            out.append(identifier(columns.get(i).getColumnName()));
+        }
+        out.append(')');
+    }
+
+    /**
+     * MySQL的列类型。元数据中的列大小对不同类型含义不同：整数、字符串直接作为长度，小数是精度并带上小数位数，
+     * 日期时间类型是显示宽度，需要换算为小数秒精度，其他类型不带长度
+     */
+    static String dataType(ColumnDef column) {
+        String type = column.getType();
+        String base = type;
+        String suffix = "";
+        int space = type.indexOf(' ');
+        if (space > 0) {
+            base = type.substring(0, space);
+            suffix = type.substring(space);
+        }
+        switch (base) {
+            case "char":
+            case "varchar":
+            case "binary":
+            case "varbinary":
+            case "tinyint":
+            case "smallint":
+            case "mediumint":
+            case "int":
+            case "integer":
+            case "bigint":
+                return column.getSize() > 0 ? base + "(" + column.getSize() + ")" + suffix : type;
+            case "decimal":
+            case "numeric":
+                if (column.getSize() <= 0) {
+                    return type;
+                }
+                return column.getDecimalDigits() > 0 ? base + "(" + column.getSize() + "," + column.getDecimalDigits() + ")" + suffix
+                        : base + "(" + column.getSize() + ")" + suffix;
+            case "datetime":
+            case "timestamp":
+            case "time":
+                int precision = fractionalPrecision(column);
+                return precision > 0 ? base + "(" + precision + ")" + suffix : type;
+            default:
+                return type;
+        }
+    }
+
+    /**
+     * 日期时间类型的小数秒精度：datetime、timestamp的显示宽度为19，time为8，有小数秒时再加上小数点和精度
+     */
+    private static int fractionalPrecision(ColumnDef column) {
+        String type = column.getType();
+        int width;
+        if (type.startsWith("datetime") || type.startsWith("timestamp")) {
+            width = 19;
+        } else if (type.startsWith("time")) {
+            width = 8;
+        } else {
+            return 0;
+        }
+        return column.getSize() > width + 1 ? column.getSize() - width - 1 : 0;
+    }
+
+    static String identifier(String name) {
+        return '`' + name.replace("`", "``") + '`';
+    }
+
+    /**
+     * 字符串常量，转义反斜杠和单引号
+     */
+    static String literal(String value) {
+        return '\'' + value.replace("\\", "\\\\").replace("'", "''") + '\'';
+    }
+}
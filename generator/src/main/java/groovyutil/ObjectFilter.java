@@ -0,0 +1,360 @@
+package groovyutil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+/**
+ * @Description: 库、表的包含/排除规则。规则为glob（默认，如act*）或正则（regex:前缀，如regex:^act_.*），
+ * 表的规则可以用"库.表"限定所属的库（库部分同样支持glob，如workflow_service.act*）。
+ * glob规则同时转换为information_schema查询的where条件，被排除的库、表不会被查询出来，查询结果再按同样的规则校验一次。
+ * glob不区分大小写：information_schema的排序规则随版本和lower_case_table_names变化（MySQL 8可能按二进制比较），
+ * 因此条件写作lower(列) like lower(?)，与Java端的匹配结果相同。
+ * 正则按java.util.regex的语法只在Java端匹配，不转换为regexp条件（MySQL 8的ICU与5.7的regexp语法不同）；
+ * 包含规则中有正则时不下推包含条件，查询结果是规则结果的超集，由Java端的校验过滤
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+class ObjectFilter {
+
+    private static final String REGEX_PREFIX = "regex:";
+
+    private final List<Rule> includeSchemas = new ArrayList<>();
+    private final List<Rule> excludeSchemas = new ArrayList<>();
+    private final List<Rule> includeTables = new ArrayList<>();
+    private final List<Rule> excludeTables = new ArrayList<>();
+
+    /**
+     * 不过滤任何库、表
+     */
+    static ObjectFilter acceptAll() {
+        return new ObjectFilter();
+    }
+
+    /**
+     * 默认规则：排除mysql的系统库、liquibase自身的表，以及工作流服务中工作流引擎的表
+     */
+    static ObjectFilter defaults() {
+        ObjectFilter filter = new ObjectFilter();
+        filter.excludeSchema("information_schema");
+        filter.excludeSchema("mysql");
+        filter.excludeSchema("performance_schema");
+        filter.excludeSchema("sys");
+        filter.excludeTable("databasechangelog");
+        filter.excludeTable("databasechangeloglock");
+        filter.excludeTable("workflow_service.act*");
+        return filter;
+    }
+
+    /**
+     * 独立的副本，之后在任一方添加规则互不影响；规则本身不可变，可以共用
+     */
+    ObjectFilter copy() {
+        ObjectFilter copy = new ObjectFilter();
+        copy.includeSchemas.addAll(includeSchemas);
+        copy.excludeSchemas.addAll(excludeSchemas);
+        copy.includeTables.addAll(includeTables);
+        copy.excludeTables.addAll(excludeTables);
+        return copy;
+    }
+
+    ObjectFilter includeSchema(String pattern) {
+        includeSchemas.add(new Rule(null, pattern));
+        return this;
+    }
+
+    ObjectFilter excludeSchema(String pattern) {
+        excludeSchemas.add(new Rule(null, pattern));
+        return this;
+    }
+
+    /**
+     * @param pattern 表名规则，或"库规则.表规则"
+     */
+    ObjectFilter includeTable(String pattern) {
+        includeTables.add(tableRule(pattern));
+        return this;
+    }
+
+    ObjectFilter excludeTable(String pattern) {
+        excludeTables.add(tableRule(pattern));
+        return this;
+    }
+
+    /**
+     * 添加逗号分隔的多条规则
+     */
+    ObjectFilter addRules(String kind, String patterns) {
+        if (patterns == null) {
+            return this;
+        }
+        for (String pattern : patterns.split(",")) {
+            pattern = pattern.trim();
+            if (pattern.isEmpty()) {
+                continue;
+            }
+            switch (kind) {
+                case "include.schema":
+                    includeSchema(pattern);
+                    break;
+                case "exclude.schema":
+                    excludeSchema(pattern);
+                    break;
+                case "include.table":
+                    includeTable(pattern);
+                    break;
+                case "exclude.table":
+                    excludeTable(pattern);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown filter kind: " + kind);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 读取配置文件（properties格式，UTF-8），键为include.schema、exclude.schema、include.table、exclude.table，
+     * 值为逗号分隔的规则
+     */
+    ObjectFilter load(File file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        for (String kind : new String[]{"include.schema", "exclude.schema", "include.table", "exclude.table"}) {
+            addRules(kind, properties.getProperty(kind));
+        }
+        return this;
+    }
+
+    /**
+     * 是否有适用于该库的表包含规则，用于只处理被显式选中的表（如导出数据）
+     */
+    boolean includesTables(String db) {
+        for (Rule rule : includeTables) {
+            if (rule.appliesTo(db)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean acceptsSchema(String db) {
+        return accepts(includeSchemas, excludeSchemas, null, db);
+    }
+
+    boolean acceptsTable(String db, String table) {
+        return accepts(includeTables, excludeTables, db, table);
+    }
+
+    private static boolean accepts(List<Rule> includes, List<Rule> excludes, String db, String name) {
+        boolean hasInclude = false;
+        boolean included = false;
+        for (Rule rule : includes) {
+            if (rule.appliesTo(db)) {
+                hasInclude = true;
+                if (rule.matches(name)) {
+                    included = true;
+                    break;
+                }
+            }
+        }
+        if (hasInclude && !included) {
+            return false;
+        }
+        for (Rule rule : excludes) {
+            if (rule.appliesTo(db) && rule.matches(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 库名的查询条件
+     *
+     * @param column 库名列，如schema_name
+     */
+    Condition schemaCondition(String column) {
+        return condition(includeSchemas, excludeSchemas, null, column);
+    }
+
+    /**
+     * 指定库中表名的查询条件，只包含适用于该库的规则
+     *
+     * @param column 表名列，如table_name
+     */
+    Condition tableCondition(String db, String column) {
+        return condition(includeTables, excludeTables, db, column);
+    }
+
+    private static Condition condition(List<Rule> includes, List<Rule> excludes, String db, String column) {
+        StringBuilder sql = new StringBuilder();
+        List<String> params = new ArrayList<>();
+        List<Rule> applicable = new ArrayList<>();
+        for (Rule rule : includes) {
+            if (rule.appliesTo(db)) {
+                applicable.add(rule);
+            }
+        }
+        //包含条件之间为or，其中一条不能下推时整体都不下推
+        boolean pushInclude = !applicable.isEmpty();
+        for (Rule rule : applicable) {
+            pushInclude &= !rule.regex;
+        }
+        if (pushInclude) {
+            sql.append(" and (");
+            for (int i = 0; i < applicable.size(); i++) {
+                if (i > 0) {
+                    sql.append(" or ");
+                }
+                applicable.get(i).appendCondition(sql, column, false);
+                params.add(applicable.get(i).sqlPattern);
+            }
+            sql.append(')');
+        }
+        for (Rule rule : excludes) {
+            if (rule.appliesTo(db) && !rule.regex) {
+                sql.append(" and ");
+                rule.appendCondition(sql, column, true);
+                params.add(rule.sqlPattern);
+            }
+        }
+        return new Condition(sql.toString(), params);
+    }
+
+    private static Rule tableRule(String pattern) {
+        //正则中的"."不作为库、表的分隔符
+        if (!pattern.startsWith(REGEX_PREFIX)) {
+            int dot = pattern.indexOf('.');
+            if (dot > 0) {
+                return new Rule(pattern.substring(0, dot), pattern.substring(dot + 1));
+            }
+        }
+        return new Rule(null, pattern);
+    }
+
+    /**
+     * glob转为正则，按Unicode不区分大小写，与mysql的lower()相同
+     */
+    private static Pattern globPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    /**
+     * glob转为like模式，转义%、_和\
+     */
+    private static String likePattern(String glob) {
+        StringBuilder like = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                like.append('%');
+            } else if (c == '?') {
+                like.append('_');
+            } else if (c == '%' || c == '_' || c == '\\') {
+                like.append('\\').append(c);
+            } else {
+                like.append(c);
+            }
+        }
+        return like.toString();
+    }
+
+    /**
+     * 单条规则
+     */
+    private static class Rule {
+        /**
+         * 限定的库，为空时适用于所有库
+         */
+        private final Pattern schema;
+        private final Pattern name;
+        private final boolean regex;
+        /**
+         * 查询条件中的like模式，正则不下推，为空
+         */
+        private final String sqlPattern;
+
+        private Rule(String schema, String pattern) {
+            this.schema = schema == null ? null : globPattern(schema);
+            this.regex = pattern.startsWith(REGEX_PREFIX);
+            this.name = compile(pattern);
+            this.sqlPattern = regex ? null : likePattern(pattern);
+        }
+
+        private static Pattern compile(String pattern) {
+            if (pattern.startsWith(REGEX_PREFIX)) {
+                return Pattern.compile(pattern.substring(REGEX_PREFIX.length()), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+            }
+            return globPattern(pattern);
+        }
+
+        private boolean appliesTo(String db) {
+            //限定的库只能是glob，匹配整个库名
+            return schema == null || db == null || schema.matcher(db).matches();
+        }
+
+        /**
+         * glob匹配整个名称；正则匹配名称中的一部分即可（与regexp的习惯相同），需要匹配整个名称时使用^、$
+         */
+        private boolean matches(String value) {
+            return regex ? name.matcher(value).find() : name.matcher(value).matches();
+        }
+
+        /**
+         * glob规则的like条件，两边都转为小写，不依赖列的排序规则
+         */
+        private void appendCondition(StringBuilder sql, String column, boolean negate) {
+            sql.append("lower(").append(column).append(negate ? ") not like lower(?)" : ") like lower(?)");
+        }
+    }
+
+    /**
+     * 查询条件，以" and "开头，可直接追加到where条件之后
+     */
+    static class Condition {
+        private final String sql;
+        private final List<String> params;
+
+        private Condition(String sql, List<String> params) {
+            this.sql = sql;
+            this.params = params;
+        }
+
+        String getSql() {
+            return sql;
+        }
+
+        List<String> getParams() {
+            return params;
+        }
+
+        /**
+         * 同时满足两个条件
+         */
+        Condition and(Condition other) {
+            List<String> all = new ArrayList<>(params);
+            all.addAll(other.params);
+            return new Condition(sql + other.sql, all);
+        }
+    }
+}
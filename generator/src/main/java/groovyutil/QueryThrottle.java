@@ -0,0 +1,291 @@
+package groovyutil;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @Description: 元数据查询的自适应限流，用于在线上主库运行时减少对业务查询的影响。
+ * 并发上限按AIMD调整：查询耗时明显高于同类查询的长期基线（服务器有压力）时乘性减小，查询耗时正常且并发已用满时加性增加，
+ * 最高为连接上限；另可指定每秒查询数的硬上限，超出时按固定间隔放行。
+ * 基线按查询种类（DatabaseMetaData的方法名或SQL文本）分别记录，整库的批量查询、宽表的getColumns不会与getPrimaryKeys这类小查询比较。
+ * 由ConnectionManager包装交出的连接，Statement的execute*和DatabaseMetaData中返回ResultSet的方法都经过限流，调用方不需要修改
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+class QueryThrottle {
+
+    /**
+     * 初始并发上限，之后按查询耗时增减
+     */
+    static final int INITIAL_LIMIT = 2;
+    /**
+     * 查询耗时超过基线的倍数时认为服务器有压力
+     */
+    private static final double TOLERANCE = 2.0;
+    /**
+     * 超过基线不足该值（纳秒）时不减小，避免极短查询的抖动触发退避
+     */
+    private static final long MIN_SLOWDOWN_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    /**
+     * 乘性减小的系数
+     */
+    private static final double BACKOFF = 0.75;
+    /**
+     * 基线向较慢的查询耗时上浮的比例，使基线能适应查询本身变慢（如表变大），越小基线越稳定
+     */
+    private static final double BASELINE_DRIFT = 0.01;
+    /**
+     * 分别记录基线的查询种类上限，超出后的查询共用一个基线
+     */
+    private static final int MAX_KINDS = 1024;
+    private static final String OTHER_KIND = "";
+
+    /**
+     * 并发上限的最大值，通常为连接上限
+     */
+    private final int maxLimit;
+    /**
+     * 每秒查询数的硬上限，0表示不限制
+     */
+    private final int maxQps;
+    private final long intervalNanos;
+    /**
+     * 是否按查询耗时调整并发上限，否则固定为maxLimit
+     */
+    private final boolean adaptive;
+    private double limit;
+    private int inFlight;
+    /**
+     * 每种查询耗时的基线（纳秒）：出现更快的查询时立即下调，否则缓慢上浮
+     */
+    private final Map<String, double[]> baselines = new HashMap<>();
+    /**
+     * 等待使用ReentrantLock，虚拟线程等待时不会占住载体线程
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    /**
+     * 上次减小的时间，一次慢查询的耗时内只减小一次，同一批慢查询不会连续减小
+     */
+    private long lastBackoff;
+    /**
+     * 下一次允许开始查询的时间，用于每秒查询数的硬上限
+     */
+    private long nextStart;
+    private long queries;
+    private long backoffs;
+    private int minLimitSeen;
+    private volatile GenerationMetrics metrics = GenerationMetrics.DISABLED;
+
+    /**
+     * @param maxLimit 并发上限的最大值
+     * @param maxQps   每秒查询数的硬上限，0表示不限制
+     * @param adaptive 是否按查询耗时调整并发上限
+     */
+    QueryThrottle(int maxLimit, int maxQps, boolean adaptive) {
+        this.maxLimit = Math.max(1, maxLimit);
+        this.maxQps = Math.max(0, maxQps);
+        this.intervalNanos = this.maxQps > 0 ? TimeUnit.SECONDS.toNanos(1) / this.maxQps : 0;
+        this.adaptive = adaptive;
+        this.limit = adaptive ? Math.min(INITIAL_LIMIT, this.maxLimit) : this.maxLimit;
+        this.minLimitSeen = (int) limit;
+    }
+
+    void setMetrics(GenerationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 包装连接，连接上的查询都经过限流
+     */
+    Connection wrap(Connection con) {
+        return proxy(Connection.class, con);
+    }
+
+    /**
+     * 等待并发许可和每秒查询数的配额
+     */
+    private void acquire() throws SQLException {
+        long start = metrics.start();
+        long wait;
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                try {
+                    permitReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrupted while waiting for a query permit", e);
+                }
+            }
+            inFlight++;
+            queries++;
+            long now = System.nanoTime();
+            if (intervalNanos > 0) {
+                long scheduled = Math.max(now, nextStart);
+                nextStart = scheduled + intervalNanos;
+                wait = scheduled - now;
+            } else {
+                wait = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                release(OTHER_KIND, -1);
+                throw new SQLException("Interrupted while waiting for a query permit", e);
+            }
+        }
+        metrics.record(GenerationMetrics.Phase.THROTTLE, start);
+    }
+
+    /**
+     * 归还并发许可，按本次查询耗时与同类查询基线的比较调整并发上限
+     *
+     * @param kind    查询种类
+     * @param latency 查询耗时（纳秒），小于0时不调整
+     */
+    private void release(String kind, long latency) {
+        lock.lock();
+        try {
+            release0(kind, latency);
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release0(String kind, long latency) {
+        boolean saturated = inFlight >= (int) limit;
+        inFlight--;
+        if (adaptive && latency >= 0) {
+            double[] kindBaseline = baselines.get(kind);
+            if (kindBaseline == null) {
+                if (baselines.size() >= MAX_KINDS) {
+                    kind = OTHER_KIND;
+                    kindBaseline = baselines.get(kind);
+                }
+                if (kindBaseline == null) {
+                    kindBaseline = new double[1];
+                    baselines.put(kind, kindBaseline);
+                }
+            }
+            double baseline = kindBaseline[0];
+            if (baseline == 0 || latency < baseline) {
+                baseline = latency;
+            }
+            long now = System.nanoTime();
+            if (latency > baseline * TOLERANCE && latency - baseline > MIN_SLOWDOWN_NANOS) {
+                if (now - lastBackoff > latency) {
+                    limit = Math.max(1, limit * BACKOFF);
+                    lastBackoff = now;
+                    backoffs++;
+                    minLimitSeen = Math.min(minLimitSeen, (int) limit);
+                }
+            } else if (saturated) {
+                //每个并发上限数量的正常查询增加1
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            kindBaseline[0] = baseline + (latency - baseline) * BASELINE_DRIFT;
+        }
+    }
+
+    private Object query(String kind, Object target, Method method, Object[] args) throws Throwable {
+        acquire();
+        long start = System.nanoTime();
+        long latency = -1;
+        try {
+            Object result = invoke(target, method, args);
+            latency = System.nanoTime() - start;
+            return result;
+        } finally {
+            release(kind, latency);
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private <T> T proxy(Class<T> type, Object target) {
+        return proxy(type, target, OTHER_KIND);
+    }
+
+    /**
+     * @param preparedSql PreparedStatement的SQL，作为其上查询的种类
+     */
+    private <T> T proxy(Class<T> type, Object target, String preparedSql) {
+        InvocationHandler handler = (p, method, args) -> {
+            Class<?> returnType = method.getReturnType();
+            if (target instanceof Statement && method.getName().startsWith("execute")) {
+                //Statement按执行的SQL区分，PreparedStatement按创建时的SQL区分
+                String kind = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+                return query(kind, target, method, args);
+            }
+            if (target instanceof DatabaseMetaData && returnType == ResultSet.class) {
+                return query(method.getName(), target, method, args);
+            }
+            Object result = invoke(target, method, args);
+            //Statement和DatabaseMetaData同样包装，其上的查询也经过限流
+            if (result != null && (returnType == DatabaseMetaData.class || Statement.class.isAssignableFrom(returnType))
+                    && returnType.isInterface()) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : OTHER_KIND;
+                return proxy(returnType, result, sql);
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(QueryThrottle.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * 当前的并发上限
+     */
+    int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getBackoffs() {
+        lock.lock();
+        try {
+            return backoffs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return "Queries: " + queries + ", concurrency limit: " + (int) limit + " (min " + minLimitSeen + ", max " + maxLimit
+                    + "), backoffs: " + backoffs + (maxQps > 0 ? ", max qps: " + maxQps : "");
+        } finally {
+            lock.unlock();
+        }
+    }
+}
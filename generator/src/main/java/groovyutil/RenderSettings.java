@@ -0,0 +1,55 @@
+package groovyutil;
+
+/**
+ * @Description: 一次生成中所有格式共用的渲染参数，创建渲染器时传入，渲染器据此预先填好模板中的固定值
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public final class RenderSettings {
+
+    /**
+     * 确定性changeSet id中哈希的长度，与groovy脚本相同
+     */
+    private static final int ID_HASH_LENGTH = 12;
+
+    private final String author;
+    private final String packageName;
+    private final String date;
+    private final boolean deterministic;
+
+    RenderSettings(String author, String packageName, String date, boolean deterministic) {
+        this.author = author;
+        this.packageName = packageName;
+        this.date = date;
+        this.deterministic = deterministic;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    /**
+     * changeSet id中的日期，yyyy-MM-dd
+     */
+    public String getDate() {
+        return date;
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    /**
+     * 建表changeSet的id，与groovy脚本相同：日期-表名，确定性输出时为表名-结构哈希
+     */
+    public String changeSetId(TableSchema table) {
+        if (deterministic) {
+            return table.getTableName() + "-" + table.structureHash().substring(0, ID_HASH_LENGTH);
+        }
+        return date + "-" + table.getTableName();
+    }
+}
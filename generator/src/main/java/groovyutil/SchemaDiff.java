@@ -0,0 +1,221 @@
+package groovyutil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * @Description: 单表的结构差异，比较旧结构（如上次保存的快照）与新结构（数据库或快照），
+ * 记录新增、删除的列，类型、可空、默认值、注释、自增变化的列，以及新增、删除的索引，用于生成增量changeSet
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+class SchemaDiff {
+
+    private final String tableName;
+    /**
+     * 新增的列，按新结构中列的顺序排列
+     */
+    private final List<ColumnDef> addedColumns = new ArrayList<>();
+    /**
+     * 删除的列，按旧结构中列的顺序排列
+     */
+    private final List<ColumnDef> droppedColumns = new ArrayList<>();
+    /**
+     * 类型或长度变化的列（新结构中的定义）
+     */
+    private final List<ColumnDef> modifiedColumns = new ArrayList<>();
+    /**
+     * 类型不变，可空、默认值、注释或自增变化的列（新结构中的定义）
+     */
+    private final List<ColumnDef> alteredColumns = new ArrayList<>();
+    /**
+     * 变化的列在旧结构中的定义，key为列名
+     */
+    private final Map<String, ColumnDef> previousColumns = new HashMap<>();
+    /**
+     * 删除的索引名称，索引定义变化时先删除再创建
+     */
+    private final List<String> droppedIndexes = new ArrayList<>();
+    /**
+     * 新增的索引，key为索引名称
+     */
+    private final Map<String, List<IndexInfo>> createdIndexes = new TreeMap<>();
+    /**
+     * 旧结构和新结构的结构哈希的摘要，标识这次变更，用于确定性的changeSet id
+     */
+    private String hash;
+
+    private SchemaDiff(String tableName) {
+        this.tableName = tableName;
+    }
+
+    /**
+     * 比较同一张表的两个结构，列和索引都按名称建立映射，比较的开销与列数、索引数成正比
+     *
+     * @param base   旧结构
+     * @param target 新结构
+     */
+    static SchemaDiff compare(TableSchema base, TableSchema target) {
+        SchemaDiff diff = new SchemaDiff(target.getTableName());
+        diff.hash = TableSchema.sha256(base.structureHash() + target.structureHash());
+        Map<String, ColumnDef> baseColumns = new HashMap<>(base.getColumns().size() * 2);
+        for (ColumnDef column : base.getColumns()) {
+            baseColumns.put(column.getName(), column);
+        }
+        Map<String, ColumnDef> targetColumns = new HashMap<>(target.getColumns().size() * 2);
+        for (ColumnDef column : target.getColumns()) {
+            targetColumns.put(column.getName(), column);
+            ColumnDef baseColumn = baseColumns.get(column.getName());
+            if (baseColumn == null) {
+                diff.addedColumns.add(column);
+            } else if (!sameDataType(baseColumn, column)) {
+                diff.modifiedColumns.add(column);
+                diff.previousColumns.put(column.getName(), baseColumn);
+            } else if (!sameAttributes(baseColumn, column)) {
+                diff.alteredColumns.add(column);
+                diff.previousColumns.put(column.getName(), baseColumn);
+            }
+        }
+        for (ColumnDef column : base.getColumns()) {
+            if (!targetColumns.containsKey(column.getName())) {
+                diff.droppedColumns.add(column);
+            }
+        }
+
+        Map<String, List<IndexInfo>> baseIndexes = base.getIndexMap();
+        Map<String, List<IndexInfo>> targetIndexes = target.getIndexMap();
+        for (String indexName : new TreeMap<>(baseIndexes).keySet()) {
+            if ("PRIMARY".equalsIgnoreCase(indexName)) {
+                continue;
+            }
+            List<IndexInfo> targetIndex = targetIndexes.get(indexName);
+            if (targetIndex == null || !sameIndex(baseIndexes.get(indexName), targetIndex)) {
+                diff.droppedIndexes.add(indexName);
+            }
+        }
+        for (Map.Entry<String, List<IndexInfo>> entry : targetIndexes.entrySet()) {
+            if ("PRIMARY".equalsIgnoreCase(entry.getKey())) {
+                continue;
+            }
+            List<IndexInfo> baseIndex = baseIndexes.get(entry.getKey());
+            if (baseIndex == null || !sameIndex(baseIndex, entry.getValue())) {
+                diff.createdIndexes.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return diff;
+    }
+
+    /**
+     * 渲染后的类型相同，即类型名称、长度与小数位数相同
+     */
+    private static boolean sameDataType(ColumnDef base, ColumnDef target) {
+        return base.getType().equals(target.getType()) && renderedSize(base) == renderedSize(target)
+                && base.getDecimalDigits() == target.getDecimalDigits()
+                && base.isDefaultValueComputed() == target.isDefaultValueComputed();
+    }
+
+    /**
+     * 可空、默认值、注释、自增都相同，注释为空与没有注释视为相同
+     */
+    private static boolean sameAttributes(ColumnDef base, ColumnDef target) {
+        return base.isNullable() == target.isNullable() && sameDefaultValue(base, target) && sameRemarks(base, target)
+                && base.isAutoIncrement() == target.isAutoIncrement();
+    }
+
+    static boolean sameDefaultValue(ColumnDef base, ColumnDef target) {
+        return Objects.equals(base.getDefaultValue(), target.getDefaultValue())
+                && base.isDefaultValueComputed() == target.isDefaultValueComputed();
+    }
+
+    static boolean sameRemarks(ColumnDef base, ColumnDef target) {
+        return Objects.equals(remarks(base), remarks(target));
+    }
+
+    private static String remarks(ColumnDef column) {
+        return column.getRemarks() == null ? "" : column.getRemarks();
+    }
+
+    private static int renderedSize(ColumnDef column) {
+        return column.isTimestamp() ? 6 : column.getSize();
+    }
+
+    private static boolean sameIndex(List<IndexInfo> base, List<IndexInfo> target) {
+        if (base.size() != target.size() || base.get(0).isNonUnique() != target.get(0).isNonUnique()) {
+            return false;
+        }
+        List<IndexInfo> baseColumns = sortedByOrdinal(base);
+        List<IndexInfo> targetColumns = sortedByOrdinal(target);
+        for (int i = 0; i < baseColumns.size(); i++) {
+            if (!baseColumns.get(i).getColumnName().equals(targetColumns.get(i).getColumnName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按组合索引中列的序列排序，其他输出格式也用于输出索引列
+     */
+    static List<IndexInfo> sortedByOrdinal(List<IndexInfo> index) {
+        List<IndexInfo> sorted = new ArrayList<>(index);
+        sorted.sort(Comparator.comparing(IndexInfo::getOrdinalPosition));
+        return sorted;
+    }
+
+    boolean isEmpty() {
+        return addedColumns.isEmpty() && droppedColumns.isEmpty() && modifiedColumns.isEmpty() && alteredColumns.isEmpty()
+                && droppedIndexes.isEmpty() && createdIndexes.isEmpty();
+    }
+
+    /**
+     * changeSet数量
+     */
+    int size() {
+        return addedColumns.size() + droppedColumns.size() + modifiedColumns.size() + alteredColumns.size()
+                + droppedIndexes.size() + createdIndexes.size();
+    }
+
+    String getHash() {
+        return hash;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<ColumnDef> getAddedColumns() {
+        return addedColumns;
+    }
+
+    public List<ColumnDef> getDroppedColumns() {
+        return droppedColumns;
+    }
+
+    public List<ColumnDef> getModifiedColumns() {
+        return modifiedColumns;
+    }
+
+    public List<ColumnDef> getAlteredColumns() {
+        return alteredColumns;
+    }
+
+    /**
+     * 变化的列在旧结构中的定义
+     */
+    ColumnDef getPreviousColumn(String columnName) {
+        return previousColumns.get(columnName);
+    }
+
+    public List<String> getDroppedIndexes() {
+        return droppedIndexes;
+    }
+
+    public Map<String, List<IndexInfo>> getCreatedIndexes() {
+        return createdIndexes;
+    }
+}
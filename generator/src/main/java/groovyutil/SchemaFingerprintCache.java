@@ -0,0 +1,151 @@
+package groovyutil;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @Description: 增量生成使用的表结构指纹缓存，每个库的脚本目录下保存一个指纹文件，
+ * 记录每张表的校验和（information_schema.TABLES的创建/更新时间以及COLUMNS、STATISTICS的crc32）以及表结构的指纹
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+class SchemaFingerprintCache {
+
+    /**
+     * 指纹文件名，与脚本存放在同一目录
+     */
+    static final String FILE_NAME = ".fingerprint";
+
+    private static final String SETTINGS_KEY = "@settings";
+
+    private final File file;
+    /**
+     * 上次生成时记录的指纹，key为表名
+     */
+    private final Map<String, Entry> previous;
+    /**
+     * 本次从information_schema查询到的表校验和，key为表名
+     */
+    private final Map<String, String> status;
+    /**
+     * 本次生成后的指纹
+     */
+    private final ConcurrentMap<String, Entry> current = new ConcurrentHashMap<>();
+    private final String settings;
+
+    private SchemaFingerprintCache(File file, Map<String, Entry> previous, Map<String, String> status, String settings) {
+        this.file = file;
+        this.previous = previous;
+        this.status = status;
+        this.settings = settings;
+    }
+
+    /**
+     * 读取目录下的指纹文件，生成参数（包名、作者等）变化时之前的指纹全部失效
+     *
+     * @param dir      库的脚本目录
+     * @param status   表的校验和
+     * @param settings 影响脚本内容的生成参数
+     */
+    static SchemaFingerprintCache load(File dir, Map<String, String> status, String settings) throws IOException {
+        File file = new File(dir, FILE_NAME);
+        Map<String, Entry> previous = new HashMap<>();
+        if (file.isFile()) {
+            String savedSettings = null;
+            try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] parts = line.split("\t");
+                    if (parts.length == 2 && SETTINGS_KEY.equals(parts[0])) {
+                        savedSettings = parts[1];
+                    } else if (parts.length == 3) {
+                        previous.put(parts[0], new Entry(parts[1], parts[2]));
+                    }
+                }
+            }
+            if (!settings.equals(savedSettings)) {
+                previous.clear();
+            }
+        }
+        return new SchemaFingerprintCache(file, previous, status, settings);
+    }
+
+    /**
+     * 表的校验和与上次相同且脚本仍存在，无需再获取表结构
+     */
+    boolean isUnchanged(String tableName) {
+        Entry entry = previous.get(tableName);
+        String tableStatus = status.get(tableName);
+        return entry != null && tableStatus != null && tableStatus.equals(entry.status)
+                && new File(file.getParentFile(), tableName + ".groovy").isFile();
+    }
+
+    /**
+     * 表结构指纹与上次相同
+     */
+    boolean isSameModel(String tableName, String fingerprint) {
+        Entry entry = previous.get(tableName);
+        return entry != null && entry.fingerprint.equals(fingerprint)
+                && new File(file.getParentFile(), tableName + ".groovy").isFile();
+    }
+
+    /**
+     * 表未变化，沿用上次的指纹
+     */
+    void keep(String tableName) {
+        Entry entry = previous.get(tableName);
+        if (entry != null) {
+            current.put(tableName, entry);
+        }
+    }
+
+    void update(String tableName, String fingerprint) {
+        String tableStatus = status.get(tableName);
+        current.put(tableName, new Entry(tableStatus == null ? "" : tableStatus, fingerprint));
+    }
+
+    /**
+     * 删除已不存在的表的脚本，并保存本次的指纹
+     */
+    void save() throws IOException {
+        for (String tableName : previous.keySet()) {
+            if (!status.containsKey(tableName)) {
+                Files.deleteIfExists(new File(file.getParentFile(), tableName + ".groovy").toPath());
+            }
+        }
+        File tmp = new File(file.getParentFile(), FILE_NAME + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(SETTINGS_KEY + "\t" + settings + "\n");
+            for (Map.Entry<String, Entry> entry : new TreeMap<>(current).entrySet()) {
+                writer.write(entry.getKey() + "\t" + entry.getValue().status + "\t" + entry.getValue().fingerprint + "\n");
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static class Entry {
+        /**
+         * 表的校验和
+         */
+        private final String status;
+        /**
+         * 表结构指纹
+         */
+        private final String fingerprint;
+
+        private Entry(String status, String fingerprint) {
+            this.status = status;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
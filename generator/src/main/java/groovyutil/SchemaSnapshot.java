@@ -0,0 +1,265 @@
+package groovyutil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * @Description: 表结构快照，把所有库、表、列、索引、主键保存为一个带版本号的二进制文件，
+ * 之后可以不连接数据库（也不需要数据库驱动）直接从快照生成脚本
+ * <p>
+ * 文件格式：魔数、版本号、字符串池、库/表结构（字符串均为字符串池下标，整数为变长编码）、CRC32校验值
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+class SchemaSnapshot {
+
+    /**
+     * 魔数 "GSNP"
+     */
+    static final int MAGIC = 0x47534E50;
+    static final int VERSION = 2;
+    /**
+     * 版本1的快照没有列的小数位数，读取时按0处理
+     */
+    private static final int VERSION_WITHOUT_DECIMAL_DIGITS = 1;
+
+    private static final int FLAG_NULLABLE = 1;
+    private static final int FLAG_AUTO_INCREMENT = 1 << 1;
+    private static final int FLAG_PRIMARY_KEY = 1 << 2;
+
+    private SchemaSnapshot() {
+    }
+
+    /**
+     * 写入快照
+     *
+     * @param schemas key为库名，value为库中的表，按生成顺序排列
+     */
+    static void write(File file, Map<String, List<TableSchema>> schemas) throws IOException {
+        StringPool pool = new StringPool();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(64 * 1024);
+        writeVarInt(body, schemas.size());
+        for (Map.Entry<String, List<TableSchema>> schema : schemas.entrySet()) {
+            writeVarInt(body, pool.index(schema.getKey()));
+            writeVarInt(body, schema.getValue().size());
+            for (TableSchema table : schema.getValue()) {
+                writeTable(body, pool, table);
+            }
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream(body.size() + pool.strings.size() * 16 + 16);
+        DataOutputStream out = new DataOutputStream(content);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeVarInt(out, pool.strings.size());
+        for (String value : pool.strings) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.write(bytes);
+        }
+        body.writeTo(out);
+        out.flush();
+        CRC32 crc = new CRC32();
+        crc.update(content.toByteArray(), 0, content.size());
+        out.writeInt((int) crc.getValue());
+        out.flush();
+
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (OutputStream os = Files.newOutputStream(tmp.toPath())) {
+            content.writeTo(os);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeTable(OutputStream out, StringPool pool, TableSchema table) throws IOException {
+        writeVarInt(out, pool.index(table.getTableName()));
+        List<ColumnDef> columns = table.getColumns();
+        writeVarInt(out, columns.size());
+        for (ColumnDef column : columns) {
+            writeVarInt(out, pool.index(column.getName()));
+            writeVarInt(out, pool.index(column.getType()));
+            writeVarInt(out, column.getSize());
+            writeVarInt(out, column.getDecimalDigits());
+            int flags = (column.isNullable() ? FLAG_NULLABLE : 0)
+                    | (column.isAutoIncrement() ? FLAG_AUTO_INCREMENT : 0)
+                    | (column.isPrimaryKey() ? FLAG_PRIMARY_KEY : 0);
+            out.write(flags);
+            writeVarInt(out, pool.index(column.getRemarks()));
+            writeVarInt(out, pool.index(column.getDefaultValue()));
+        }
+        //按HashMap的遍历顺序写入，读取时按相同顺序插入，保证渲染顺序不变
+        Map<String, List<IndexInfo>> indexMap = table.getIndexMap();
+        writeVarInt(out, indexMap.size());
+        for (Map.Entry<String, List<IndexInfo>> index : indexMap.entrySet()) {
+            writeVarInt(out, pool.index(index.getKey()));
+            writeVarInt(out, index.getValue().size());
+            for (IndexInfo info : index.getValue()) {
+                out.write(info.isNonUnique() ? 1 : 0);
+                writeVarInt(out, pool.index(info.getColumnName()));
+                writeVarInt(out, info.getOrdinalPosition());
+            }
+        }
+        writeVarInt(out, table.getPkColumn().size());
+        for (String pk : table.getPkColumn()) {
+            writeVarInt(out, pool.index(pk));
+        }
+    }
+
+    /**
+     * 通过内存映射读取快照
+     *
+     * @return key为库名，value为库中的表
+     */
+    static Map<String, List<TableSchema>> read(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 12) {
+                throw new IOException("Invalid snapshot file: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Invalid snapshot file: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION && version != VERSION_WITHOUT_DECIMAL_DIGITS) {
+                throw new IOException("Unsupported snapshot version " + version + ": " + file);
+            }
+            verifyChecksum(buffer, (int) size, file);
+
+            String[] strings = new String[readVarInt(buffer)];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[readVarInt(buffer)];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            int schemaCount = readVarInt(buffer);
+            Map<String, List<TableSchema>> schemas = new LinkedHashMap<>(schemaCount * 2);
+            for (int i = 0; i < schemaCount; i++) {
+                String db = string(strings, buffer);
+                int tableCount = readVarInt(buffer);
+                List<TableSchema> tables = new ArrayList<>(tableCount);
+                for (int j = 0; j < tableCount; j++) {
+                    tables.add(readTable(buffer, strings, version));
+                }
+                schemas.put(db, tables);
+            }
+            return schemas;
+        }
+    }
+
+    private static TableSchema readTable(ByteBuffer buffer, String[] strings, int version) {
+        String tableName = string(strings, buffer);
+        int columnCount = readVarInt(buffer);
+        List<ColumnDef> columns = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            String name = string(strings, buffer);
+            String type = string(strings, buffer);
+            int size = readVarInt(buffer);
+            int decimalDigits = version == VERSION_WITHOUT_DECIMAL_DIGITS ? 0 : readVarInt(buffer);
+            int flags = buffer.get();
+            String remarks = string(strings, buffer);
+            String defaultValue = string(strings, buffer);
+            columns.add(new ColumnDef(name, type, size, decimalDigits, (flags & FLAG_NULLABLE) != 0, (flags & FLAG_AUTO_INCREMENT) != 0,
+                    (flags & FLAG_PRIMARY_KEY) != 0, remarks, defaultValue));
+        }
+        int indexCount = readVarInt(buffer);
+        Map<String, List<IndexInfo>> indexMap = new HashMap<>(8);
+        for (int i = 0; i < indexCount; i++) {
+            String indexName = string(strings, buffer);
+            int indexColumnCount = readVarInt(buffer);
+            List<IndexInfo> list = new ArrayList<>(indexColumnCount);
+            for (int j = 0; j < indexColumnCount; j++) {
+                boolean nonUnique = buffer.get() != 0;
+                list.add(new IndexInfo(nonUnique, indexName, string(strings, buffer), readVarInt(buffer)));
+            }
+            indexMap.put(indexName, list);
+        }
+        int pkCount = readVarInt(buffer);
+        Set<String> pkColumn = new HashSet<>();
+        for (int i = 0; i < pkCount; i++) {
+            pkColumn.add(string(strings, buffer));
+        }
+        return new TableSchema(tableName, columns, indexMap, pkColumn);
+    }
+
+    private static void verifyChecksum(ByteBuffer buffer, int size, File file) throws IOException {
+        ByteBuffer content = buffer.duplicate();
+        content.position(0);
+        content.limit(size - 4);
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        if ((int) crc.getValue() != buffer.getInt(size - 4)) {
+            throw new IOException("Snapshot checksum mismatch: " + file);
+        }
+    }
+
+    /**
+     * 字符串池下标，0表示null，其余为下标加1
+     */
+    private static String string(String[] strings, ByteBuffer buffer) {
+        int index = readVarInt(buffer);
+        return index == 0 ? null : strings[index - 1];
+    }
+
+    static void writeVarInt(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * 字符串池，相同的类型名、列名只保存一次
+     */
+    private static class StringPool {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<String> strings = new ArrayList<>();
+
+        private int index(String value) {
+            if (value == null) {
+                return 0;
+            }
+            Integer index = indexes.get(value);
+            if (index == null) {
+                strings.add(value);
+                index = strings.size();
+                indexes.put(value, index);
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package groovyutil;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * @Description: 常驻监听模式：保持数据库连接，按间隔轮询每个库的校验和（information_schema的TABLES创建/更新时间、
+ * COLUMNS、STATISTICS的crc32之和，所有库一次查询）。库的校验和变化时再按表计算校验和，只重新生成有变化的表，
+ * 删除已不存在的表的脚本。可选开启本机HTTP端口：POST /regenerate立即检查一次，GET /script?db=库&table=表获取最新脚本，
+ * GET /status查看状态
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+class SchemaWatcher {
+
+    /**
+     * 默认轮询间隔（毫秒）
+     */
+    static final long DEFAULT_INTERVAL_MILLIS = 1000;
+
+    private static final String TABLE_CHECKSUM = "crc32(concat_ws('/', table_name, create_time, update_time))";
+    private static final String COLUMN_CHECKSUM = "crc32(concat_ws('/', table_name, column_name, ordinal_position, column_type, " +
+            "is_nullable, column_default, extra, column_comment))";
+    private static final String INDEX_CHECKSUM = "crc32(concat_ws('/', table_name, index_name, non_unique, seq_in_index, column_name))";
+
+    private final GroovyScriptGenerator generator;
+    private final ConnectionManager connectionManager;
+    private final ObjectFilter filter;
+    private final long interval;
+    /**
+     * 上次检查时每个库的校验和
+     */
+    private Map<String, String> schemaChecksums = new HashMap<>();
+    /**
+     * 上次检查时每张表的校验和，key为库名
+     */
+    private final Map<String, Map<String, String>> tableChecksums = new HashMap<>();
+    private long checks;
+    private long regenerated;
+    private long lastCheckTime;
+    private HttpServer server;
+
+    SchemaWatcher(GroovyScriptGenerator generator, ConnectionManager connectionManager, long interval) {
+        this.generator = generator;
+        this.connectionManager = connectionManager;
+        this.filter = generator.getFilter();
+        this.interval = interval;
+    }
+
+    /**
+     * 记录当前所有库、表的校验和，作为之后比较的基准，在首次全量生成之后调用
+     */
+    synchronized void init() throws SQLException {
+        schemaChecksums = obtainSchemaChecksums();
+        for (String db : schemaChecksums.keySet()) {
+            tableChecksums.put(db, obtainTableChecksums(db));
+        }
+        lastCheckTime = System.currentTimeMillis();
+    }
+
+    /**
+     * 开启本机HTTP端口
+     */
+    void startServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/regenerate", exchange -> {
+            try {
+                if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+                    respond(exchange, 405, "Use POST /regenerate\n");
+                    return;
+                }
+                int count = check();
+                respond(exchange, 200, "{\"regenerated\":" + count + "}\n");
+            } catch (SQLException | InterruptedException e) {
+                e.printStackTrace();
+                respond(exchange, 500, e + "\n");
+            }
+        });
+        server.createContext("/script", exchange -> {
+            try {
+                Map<String, String> query = query(exchange);
+                String db = query.get("db");
+                String table = query.get("table");
+                if (db == null || table == null) {
+                    respond(exchange, 400, "Use GET /script?db=<database>&table=<table>\n");
+                    return;
+                }
+                //返回前先检查一次，保证脚本是最新的
+                check();
+                //只接受监听中的库、表，名称直接用于拼接脚本路径，不能含有../等其他路径
+                if (!isWatched(db, table)) {
+                    respond(exchange, 404, "Table " + db + "." + table + " is not watched\n");
+                    return;
+                }
+                File file = generator.scriptFile(db, table);
+                if (file == null) {
+                    respond(exchange, 404, "No groovy script for " + db + "." + table + "\n");
+                    return;
+                }
+                respond(exchange, 200, new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+            } catch (SQLException | InterruptedException e) {
+                e.printStackTrace();
+                respond(exchange, 500, e + "\n");
+            }
+        });
+        server.createContext("/status", exchange -> respond(exchange, 200, status()));
+        server.start();
+        System.out.println("Watch endpoint started at http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/");
+    }
+
+    /**
+     * 按间隔轮询，直到线程被中断；单次检查失败（如连接断开）只输出异常，下一次继续
+     */
+    void run() {
+        System.out.println("Watching " + schemaChecksums.size() + " databases for changes every " + interval + " ms");
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(interval);
+                try {
+                    check();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (server != null) {
+                server.stop(0);
+            }
+        }
+    }
+
+    /**
+     * 检查一次，只重新生成有变化的表
+     *
+     * @return 重新生成的表数
+     */
+    synchronized int check() throws SQLException, InterruptedException {
+        checks++;
+        lastCheckTime = System.currentTimeMillis();
+        Map<String, String> current = obtainSchemaChecksums();
+        int count = 0;
+        for (Map.Entry<String, String> entry : current.entrySet()) {
+            String db = entry.getKey();
+            if (entry.getValue().equals(schemaChecksums.get(db))) {
+                continue;
+            }
+            Map<String, String> previousTables = tableChecksums.get(db);
+            if (previousTables == null) {
+                previousTables = new HashMap<>();
+            }
+            Map<String, String> currentTables = obtainTableChecksums(db);
+            List<String> changed = new ArrayList<>();
+            for (Map.Entry<String, String> table : currentTables.entrySet()) {
+                if (!table.getValue().equals(previousTables.get(table.getKey()))) {
+                    changed.add(table.getKey());
+                }
+            }
+            Set<String> dropped = new TreeSet<>(previousTables.keySet());
+            dropped.removeAll(currentTables.keySet());
+            if (!changed.isEmpty() || !dropped.isEmpty()) {
+                System.out.println("Database[" + db + "] : " + changed.size() + " changed tables, " + dropped.size() + " dropped tables detected");
+                count += generator.regenerateTables(db, changed, dropped);
+            }
+            tableChecksums.put(db, currentTables);
+        }
+        for (String db : schemaChecksums.keySet()) {
+            if (!current.containsKey(db)) {
+                tableChecksums.remove(db);
+                System.out.println("Database[" + db + "] : The database was dropped or has no tables, no script generated");
+            }
+        }
+        schemaChecksums = current;
+        regenerated += count;
+        return count;
+    }
+
+    /**
+     * 表是否在上次检查的库、表中（已按过滤规则过滤）
+     */
+    synchronized boolean isWatched(String db, String table) {
+        Map<String, String> tables = tableChecksums.get(db);
+        return tables != null && tables.containsKey(table);
+    }
+
+    /**
+     * 所有库的校验和，一次查询；没有表的库不在结果中
+     */
+    private Map<String, String> obtainSchemaChecksums() throws SQLException {
+        ObjectFilter.Condition condition = filter.schemaCondition("table_schema");
+        String sql = "select table_schema, 'T' kind, count(*) cnt, sum(" + TABLE_CHECKSUM + ") checksum from information_schema.tables " +
+                "where 1=1" + condition.getSql() + " group by table_schema " +
+                "union all select table_schema, 'C', count(*), sum(" + COLUMN_CHECKSUM + ") from information_schema.columns " +
+                "where 1=1" + condition.getSql() + " group by table_schema " +
+                "union all select table_schema, 'I', count(*), sum(" + INDEX_CHECKSUM + ") from information_schema.statistics " +
+                "where 1=1" + condition.getSql() + " group by table_schema";
+        Map<String, String> checksums = new TreeMap<>();
+        Connection con = connectionManager.acquire(null);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            List<String> params = condition.getParams();
+            for (int i = 0; i < 3; i++) {
+                for (int j = 0; j < params.size(); j++) {
+                    ps.setString(i * params.size() + j + 1, params.get(j));
+                }
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String db = rs.getString("table_schema");
+                    if (filter.acceptsSchema(db)) {
+                        checksums.merge(db, rs.getString("kind") + rs.getString("cnt") + ":" + rs.getString("checksum"), String::concat);
+                    }
+                }
+            }
+        } finally {
+            connectionManager.release(con);
+        }
+        return checksums;
+    }
+
+    private Map<String, String> obtainTableChecksums(String db) throws SQLException {
+        return obtainTableChecksums(connectionManager, filter, db);
+    }
+
+    /**
+     * 库中每张表的校验和：TABLES的创建/更新时间，以及COLUMNS、STATISTICS中该表各行的crc32之和。
+     * MySQL 8的instant DDL不一定更新create_time，列和索引的校验和可以发现这类变化，增量生成也用它判断表是否变化
+     */
+    static Map<String, String> obtainTableChecksums(ConnectionManager connectionManager, ObjectFilter filter, String db) throws SQLException {
+        String sql = "select table_name, 'T' kind, " + TABLE_CHECKSUM + " checksum from information_schema.tables where table_schema=? " +
+                "union all select table_name, 'C', sum(" + COLUMN_CHECKSUM + ") from information_schema.columns where table_schema=? group by table_name " +
+                "union all select table_name, 'I', sum(" + INDEX_CHECKSUM + ") from information_schema.statistics where table_schema=? group by table_name";
+        Map<String, String> checksums = new TreeMap<>();
+        Connection con = connectionManager.acquire(null);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, db);
+            ps.setString(2, db);
+            ps.setString(3, db);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String tableName = rs.getString("table_name");
+                    if (filter.acceptsTable(db, tableName)) {
+                        checksums.merge(tableName, rs.getString("kind") + ":" + rs.getString("checksum"), String::concat);
+                    }
+                }
+            }
+        } finally {
+            connectionManager.release(con);
+        }
+        return checksums;
+    }
+
+    private synchronized String status() {
+        int tables = 0;
+        for (Map<String, String> checksums : tableChecksums.values()) {
+            tables += checksums.size();
+        }
+        return "{\"databases\":" + schemaChecksums.size() + ",\"tables\":" + tables + ",\"checks\":" + checks
+                + ",\"regenerated\":" + regenerated + ",\"lastCheckTime\":" + lastCheckTime + "}\n";
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), "UTF-8"), URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+            }
+        }
+        return params;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
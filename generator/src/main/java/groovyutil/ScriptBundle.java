@@ -0,0 +1,191 @@
+package groovyutil;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * @Description: 合并输出，代替每张表一个脚本文件：每个库合并为一个changelog（根目录下的库名.groovy），
+ * 或所有脚本打包为一个zip（根目录下的scripts.zip，条目为库名/表名.groovy，内容与逐表生成的脚本相同）。
+ * 各表并发渲染到内存，全部完成后按库名、表名顺序一次写入，最后统一同步到磁盘
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+class ScriptBundle {
+
+    enum Mode {
+        /**
+         * 每个库一个changelog
+         */
+        CHANGELOG,
+        /**
+         * 所有脚本打包为一个zip
+         */
+        ZIP
+    }
+
+    static final String ZIP_FILE_NAME = "scripts.zip";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Mode mode;
+    private final String targetPath;
+    private final GroovyScriptRenderer renderer;
+    private final GenerationMetrics metrics;
+    /**
+     * 渲染结果，key为库名，value的key为表名
+     */
+    private final ConcurrentMap<String, ConcurrentSkipListMap<String, String>> scripts = new ConcurrentHashMap<>();
+    /**
+     * 库的外键依赖图，存在时changelog中的changeSet按依赖层级排列，key为库名
+     */
+    private final ConcurrentMap<String, DependencyGraph> graphs = new ConcurrentHashMap<>();
+
+    ScriptBundle(Mode mode, String targetPath, GroovyScriptRenderer renderer, GenerationMetrics metrics) {
+        this.mode = mode;
+        this.targetPath = targetPath;
+        this.renderer = renderer;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 渲染一张表，可在多个线程中同时调用
+     */
+    void add(String db, TableSchema table) {
+        long start = metrics.start();
+        StringBuilder sb = new StringBuilder(4096);
+        try {
+            if (mode == Mode.CHANGELOG) {
+                renderer.renderChangeSet(table, sb);
+            } else {
+                renderer.render(table, sb);
+                sb.append(renderer.lineSeparator());
+            }
+        } catch (IOException e) {
+            //StringBuilder不会抛出IOException
+            throw new IllegalStateException(e);
+        }
+        scripts.computeIfAbsent(db, k -> new ConcurrentSkipListMap<>()).put(table.getTableName(), sb.toString());
+        metrics.record(GenerationMetrics.Phase.RENDER, start);
+    }
+
+    /**
+     * 按依赖层级排列库的changeSet，层级相同时按表名排列
+     */
+    void setDependencyGraph(String db, DependencyGraph graph) {
+        graphs.put(db, graph);
+    }
+
+    /**
+     * 写入所有文件并同步到磁盘
+     *
+     * @return 写入的文件
+     */
+    List<File> finish() throws IOException {
+        long start = metrics.start();
+        Map<String, ConcurrentSkipListMap<String, String>> sorted = new TreeMap<>(scripts);
+        List<File> files = new ArrayList<>();
+        File root = new File(targetPath);
+        if (!root.exists()) {
+            root.mkdirs();
+        }
+        if (mode == Mode.CHANGELOG) {
+            List<FileChannel> channels = new ArrayList<>();
+            try {
+                for (Map.Entry<String, ConcurrentSkipListMap<String, String>> schema : sorted.entrySet()) {
+                    File file = new File(root, schema.getKey() + ".groovy");
+                    FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                    channels.add(channel);
+                    writeFully(channel, changelog(schema.getKey(), schema.getValue()));
+                    files.add(file);
+                }
+                for (FileChannel channel : channels) {
+                    channel.force(true);
+                }
+            } finally {
+                for (FileChannel channel : channels) {
+                    channel.close();
+                }
+            }
+        } else {
+            File file = new File(root, ZIP_FILE_NAME);
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+                ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8);
+                for (Map.Entry<String, ConcurrentSkipListMap<String, String>> schema : sorted.entrySet()) {
+                    for (Map.Entry<String, String> script : schema.getValue().entrySet()) {
+                        ZipEntry entry = new ZipEntry(schema.getKey() + "/" + script.getKey() + ".groovy");
+                        //固定条目时间，内容相同时生成的zip也相同
+                        entry.setTime(0);
+                        zip.putNextEntry(entry);
+                        zip.write(script.getValue().getBytes(StandardCharsets.UTF_8));
+                        zip.closeEntry();
+                    }
+                }
+                zip.finish();
+                out.flush();
+                channel.force(true);
+            }
+            files.add(file);
+        }
+        metrics.record(GenerationMetrics.Phase.WRITE, start);
+        return files;
+    }
+
+    /**
+     * 库的changelog：一个databaseChangeLog，包含库中每张表的changeSet
+     */
+    private ByteBuffer changelog(String db, Map<String, String> changeSets) throws IOException {
+        StringBuilder sb = new StringBuilder(changeSets.size() * 4096);
+        renderer.renderHeader(db, sb);
+        DependencyGraph graph = graphs.get(db);
+        if (graph != null) {
+            Map<String, String> remaining = new TreeMap<>(changeSets);
+            for (List<String> level : graph.getLevels()) {
+                for (String tableName : level) {
+                    String changeSet = remaining.remove(tableName);
+                    if (changeSet != null) {
+                        sb.append(changeSet);
+                    }
+                }
+            }
+            changeSets = remaining;
+        }
+        for (String changeSet : changeSets.values()) {
+            sb.append(changeSet);
+        }
+        sb.append('}').append(renderer.lineSeparator());
+        return ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Map<String, String> tables : scripts.values()) {
+            size += tables.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,20 @@
+package groovyutil;
+
+/**
+ * @Description: 脚本输出格式的扩展点。内置groovy、yaml、xml、ddl、flyway，其他格式实现本接口，
+ * 在META-INF/services/groovyutil.ScriptFormat中登记后即可在-formats中使用，名称与内置格式相同时替换内置格式
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public interface ScriptFormat {
+
+    /**
+     * 格式名称，用于-formats参数，也是多种格式时的输出子目录名
+     */
+    String getName();
+
+    /**
+     * 创建渲染器，每次生成创建一次，模板在此时编译并填入固定值
+     */
+    ScriptRenderer newRenderer(RenderSettings settings);
+}
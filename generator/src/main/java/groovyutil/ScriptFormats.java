@@ -0,0 +1,74 @@
+package groovyutil;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * @Description: 可用的输出格式：内置格式加上通过ServiceLoader登记的扩展格式，扩展格式与内置格式同名时替换内置格式
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+final class ScriptFormats {
+
+    private ScriptFormats() {
+    }
+
+    static Map<String, ScriptFormat> available() {
+        Map<String, ScriptFormat> formats = new LinkedHashMap<>();
+        for (ScriptFormat format : new ScriptFormat[]{new GroovyFormat(), new LiquibaseYamlFormat(), new LiquibaseXmlFormat(),
+                new MysqlDdlFormat(), new FlywaySqlFormat()}) {
+            formats.put(format.getName(), format);
+        }
+        for (ScriptFormat format : ServiceLoader.load(ScriptFormat.class, ScriptFormats.class.getClassLoader())) {
+            formats.put(format.getName(), format);
+        }
+        return formats;
+    }
+
+    /**
+     * 按逗号分隔的名称查找格式，保持给出的顺序并去掉重复的名称
+     *
+     * @throws IllegalArgumentException 格式不存在
+     */
+    static List<ScriptFormat> resolve(String names) {
+        Map<String, ScriptFormat> available = available();
+        Map<String, ScriptFormat> resolved = new LinkedHashMap<>();
+        for (String name : names.split(",")) {
+            name = name.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            ScriptFormat format = available.get(name);
+            if (format == null) {
+                throw new IllegalArgumentException("Unknown format [" + name + "], available formats: " + String.join(",", available.keySet()));
+            }
+            resolved.put(name, format);
+        }
+        if (resolved.isEmpty()) {
+            throw new IllegalArgumentException("No format given, available formats: " + String.join(",", available.keySet()));
+        }
+        return new ArrayList<>(resolved.values());
+    }
+
+    /**
+     * 是否包含内置的groovy格式，主changelog、种子数据等只针对groovy脚本的输出依赖它
+     */
+    static boolean includesGroovy(List<ScriptFormat> formats) {
+        for (ScriptFormat format : formats) {
+            if (format instanceof GroovyFormat) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否只生成内置的groovy脚本，此时保持原有的目录结构，并且支持增量、合并、比较等只针对groovy脚本的模式
+     */
+    static boolean isGroovyOnly(List<ScriptFormat> formats) {
+        return formats.size() == 1 && formats.get(0) instanceof GroovyFormat;
+    }
+}
@@ -0,0 +1,46 @@
+package groovyutil;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @Description: 由GroovyScriptGenerator.builder()配置好的一次生成，在当前JVM中运行，不需要单独启动进程。
+ * 每张表的结果（表结构、脚本、耗时、异常）交给监听并在结束后汇总返回，单表失败不会中断其他表，由调用方决定如何处理；
+ * 连接、库级别的失败直接抛出。可以多次运行，每次运行重新连接数据库
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public final class ScriptGeneration {
+
+    private final GroovyScriptGenerator.Options options;
+
+    ScriptGeneration(GroovyScriptGenerator.Options options) {
+        this.options = options;
+    }
+
+    public GenerationResult run() throws SQLException, IOException, InterruptedException {
+        return run(null);
+    }
+
+    /**
+     * @param listener 逐表接收结果，为空时只在结束后返回结果
+     */
+    public GenerationResult run(GenerationListener listener) throws SQLException, IOException, InterruptedException {
+        List<TableResult> tables = Collections.synchronizedList(new ArrayList<>());
+        long start = System.currentTimeMillis();
+        try {
+            GroovyScriptGenerator.generate(options.withListener(result -> {
+                tables.add(result);
+                if (listener != null) {
+                    listener.onTable(result);
+                }
+            }));
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("Database driver [" + e.getMessage() + "] not found", e);
+        }
+        return new GenerationResult(tables, System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,29 @@
+package groovyutil;
+
+import java.io.IOException;
+
+/**
+ * @Description: 单一输出格式的渲染器，由ScriptFormat按一次生成的参数创建，所有表共用，需要线程安全
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public interface ScriptRenderer {
+
+    /**
+     * 表的脚本文件名，只能由表名决定，库中增删其他表时不能变化
+     */
+    String getFileName(String tableName);
+
+    /**
+     * 迁移工具按库记录的版本号，如Flyway的V1_xxx，同一个库中不同的表不能相同，与文件名一样只能由表名决定；
+     * 没有版本号的格式返回空
+     */
+    default String getVersion(String tableName) {
+        return null;
+    }
+
+    /**
+     * 渲染单张表的脚本，不含文件末尾的换行
+     */
+    void render(TableSchema table, Appendable out) throws IOException;
+}
@@ -0,0 +1,118 @@
+package groovyutil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @Description: 预编译的脚本模板。模板中的${变量}在编译时拆分为文本片段和变量序号，渲染时按序号依次追加，不再解析模板；
+ * 作者、日期等一次生成中不变的值可以用with预先填入，与相邻文本合并为一个片段。模板不可变，可在多个线程之间共享
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public final class ScriptTemplate {
+
+    /**
+     * 文本片段，比变量多一个：片段0、变量0、片段1、变量1……片段n
+     */
+    private final String[] texts;
+    /**
+     * 每个位置上的变量在variables中的序号
+     */
+    private final int[] slots;
+    /**
+     * 渲染时需要提供的变量，按render参数的顺序
+     */
+    private final String[] variables;
+
+    private ScriptTemplate(String[] texts, int[] slots, String[] variables) {
+        this.texts = texts;
+        this.slots = slots;
+        this.variables = variables;
+    }
+
+    /**
+     * 编译模板
+     *
+     * @param template  模板文本，变量为${名称}
+     * @param variables 模板中的变量，同时也是render参数的顺序
+     */
+    public static ScriptTemplate compile(String template, String... variables) {
+        List<String> texts = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<String> names = Arrays.asList(variables);
+        int start = 0;
+        int open;
+        while ((open = template.indexOf("${", start)) >= 0) {
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed variable at " + open + " in template [" + template + "]");
+            }
+            String name = template.substring(open + 2, close);
+            int slot = names.indexOf(name);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Undeclared variable [" + name + "] in template [" + template + "]");
+            }
+            texts.add(template.substring(start, open));
+            slots.add(slot);
+            start = close + 1;
+        }
+        texts.add(template.substring(start));
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+        return new ScriptTemplate(texts.toArray(new String[0]), slotArray, variables.clone());
+    }
+
+    /**
+     * 填入固定的变量值，返回新的模板，原模板不变。填入的值原样输出，需要转义时由调用方先转义
+     */
+    public ScriptTemplate with(String variable, String value) {
+        int slot = Arrays.asList(variables).indexOf(variable);
+        if (slot < 0) {
+            throw new IllegalArgumentException("Unknown variable [" + variable + "]");
+        }
+        List<String> newTexts = new ArrayList<>();
+        List<Integer> newSlots = new ArrayList<>();
+        StringBuilder text = new StringBuilder(texts[0]);
+        for (int i = 0; i < slots.length; i++) {
+            if (slots[i] == slot) {
+                text.append(value).append(texts[i + 1]);
+                continue;
+            }
+            newTexts.add(text.toString());
+            //后面的变量序号前移一位
+            newSlots.add(slots[i] > slot ? slots[i] - 1 : slots[i]);
+            text.setLength(0);
+            text.append(texts[i + 1]);
+        }
+        newTexts.add(text.toString());
+        String[] newVariables = new String[variables.length - 1];
+        System.arraycopy(variables, 0, newVariables, 0, slot);
+        System.arraycopy(variables, slot + 1, newVariables, slot, variables.length - slot - 1);
+        int[] slotArray = new int[newSlots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = newSlots.get(i);
+        }
+        return new ScriptTemplate(newTexts.toArray(new String[0]), slotArray, newVariables);
+    }
+
+    /**
+     * 按变量的顺序提供值并渲染
+     */
+    public void render(Appendable out, CharSequence... values) throws IOException {
+        if (values.length != variables.length) {
+            throw new IllegalArgumentException("Expected values for " + Arrays.toString(variables) + ", got " + values.length);
+        }
+        out.append(texts[0]);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(values[slots[i]]).append(texts[i + 1]);
+        }
+    }
+
+    public List<String> getVariables() {
+        return Arrays.asList(variables.clone());
+    }
+}
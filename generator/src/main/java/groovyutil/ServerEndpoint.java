@@ -0,0 +1,167 @@
+package groovyutil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @Description: 数据库服务器地址。按JDBC URL的结构解析（前缀://主机:端口/库?参数），
+ * 只替换主机和端口部分，非默认端口、没有参数的URL都可以使用。每个服务器有自己的名称，作为脚本输出的子目录
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+class ServerEndpoint {
+
+    private final String name;
+    private final String url;
+    /**
+     * 该服务器的并发线程数，0表示使用-threads
+     */
+    private final int threads;
+
+    ServerEndpoint(String name, String url, int threads) {
+        this.name = name;
+        this.url = url;
+        this.threads = threads;
+    }
+
+    /**
+     * 解析服务器地址，格式为[名称=]地址[ 线程数]，地址为完整的JDBC URL或主机[:端口]。
+     * 只有主机、端口时，以模板URL为基础替换主机和端口，保留模板中的库和参数
+     *
+     * @param spec        服务器地址
+     * @param templateUrl -url指定的URL，只有主机、端口时必须存在
+     */
+    static ServerEndpoint parse(String spec, String templateUrl) {
+        String value = spec.trim();
+        int threads = 0;
+        String[] parts = value.split("\\s+");
+        if (parts.length > 2) {
+            throw new IllegalArgumentException("Invalid server endpoint [" + spec + "]");
+        }
+        if (parts.length == 2) {
+            threads = Integer.parseInt(parts[1]);
+            value = parts[0];
+        }
+        String name = null;
+        int eq = value.indexOf('=');
+        if (eq > 0 && !value.substring(0, eq).contains(":")) {
+            name = value.substring(0, eq);
+            value = value.substring(eq + 1);
+        }
+        String url;
+        if (value.startsWith("jdbc:")) {
+            url = value;
+        } else {
+            if (templateUrl == null || templateUrl.isEmpty()) {
+                throw new IllegalArgumentException("Server endpoint [" + spec + "] has no JDBC URL, configure [-url] as the template");
+            }
+            url = withAuthority(templateUrl, value);
+        }
+        if (name == null) {
+            name = authority(url);
+        }
+        return new ServerEndpoint(directoryName(name), url, threads);
+    }
+
+    /**
+     * 解析逗号分隔的服务器地址
+     */
+    static List<ServerEndpoint> parseList(String specs, String templateUrl) {
+        List<ServerEndpoint> endpoints = new ArrayList<>();
+        for (String spec : specs.split(",")) {
+            if (!spec.trim().isEmpty()) {
+                endpoints.add(parse(spec, templateUrl));
+            }
+        }
+        return endpoints;
+    }
+
+    /**
+     * 从文件加载服务器地址，每行一个，忽略空行和#开头的注释
+     */
+    static List<ServerEndpoint> load(File file, String templateUrl) throws IOException {
+        List<ServerEndpoint> endpoints = new ArrayList<>();
+        for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+            String spec = line.trim();
+            if (spec.isEmpty() || spec.startsWith("#")) {
+                continue;
+            }
+            endpoints.add(parse(spec, templateUrl));
+        }
+        return endpoints;
+    }
+
+    /**
+     * 检查名称不重复，名称相同的服务器会写入同一个目录
+     */
+    static void checkNames(List<ServerEndpoint> endpoints) {
+        Set<String> names = new HashSet<>();
+        for (ServerEndpoint endpoint : endpoints) {
+            if (!names.add(endpoint.name)) {
+                throw new IllegalArgumentException("Duplicate server name [" + endpoint.name + "], name the endpoints with name=host:port");
+            }
+        }
+    }
+
+    /**
+     * URL中的主机、端口部分
+     */
+    static String authority(String url) {
+        int start = authorityStart(url);
+        return url.substring(start, authorityEnd(url, start));
+    }
+
+    /**
+     * 替换URL中的主机、端口部分，库和参数保持不变
+     */
+    static String withAuthority(String url, String authority) {
+        int start = authorityStart(url);
+        return url.substring(0, start) + authority + url.substring(authorityEnd(url, start));
+    }
+
+    private static int authorityStart(String url) {
+        int index = url.indexOf("//");
+        if (index < 0) {
+            throw new IllegalArgumentException("Unsupported JDBC URL [" + url + "], expected jdbc:<driver>://host:port/...");
+        }
+        return index + 2;
+    }
+
+    private static int authorityEnd(String url, int start) {
+        int end = start;
+        while (end < url.length() && url.charAt(end) != '/' && url.charAt(end) != '?') {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * 用作目录名，冒号、逗号等字符替换为下划线
+     */
+    private static String directoryName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    int getThreads() {
+        return threads;
+    }
+
+    @Override
+    public String toString() {
+        return name + "(" + url + ")";
+    }
+}
@@ -0,0 +1,177 @@
+package groovyutil;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Description: 一次运行内按结构哈希（不含表名）缓存渲染结果。结构相同的表只渲染一次，
+ * 渲染时以占位符代替表名并在占位符处切分，之后同结构的表只需按片段依次追加、在片段之间填入表名。
+ * 同时记录每个结构出现在哪些库、表中，结束时输出重复结构的汇总
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+class StructureCache {
+
+    /**
+     * 渲染模板时代替表名的占位符，不会出现在库、表、列名和注释中
+     */
+    static final String PLACEHOLDER = "\u0000";
+
+    /**
+     * 汇总中列出的最大的重复结构数量
+     */
+    private static final int LARGEST_CLUSTERS = 10;
+
+    /**
+     * 渲染模板，key为渲染方式加结构哈希
+     */
+    private final ConcurrentMap<String, String[]> templates = new ConcurrentHashMap<>();
+    /**
+     * 每个结构所在的库、表，key为结构哈希，value为"库.表"
+     */
+    private final ConcurrentMap<String, Set<String>> clusters = new ConcurrentHashMap<>();
+    private final LongAdder rendered = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+
+    /**
+     * 记录表所在的库
+     */
+    void record(String db, TableSchema table) {
+        clusters.computeIfAbsent(table.structureHash(), k -> new ConcurrentSkipListSet<>()).add(db + "." + table.getTableName());
+    }
+
+    /**
+     * 按模板渲染，同一结构第一次渲染时生成模板
+     *
+     * @param kind    渲染方式，如完整脚本、单个changeSet
+     * @param content 以占位符为表名的渲染
+     */
+    void render(String kind, TableSchema table, Content content, Appendable out) throws IOException {
+        String key = kind + table.structureHash();
+        String[] segments = templates.get(key);
+        if (segments == null) {
+            StringBuilder sb = new StringBuilder(4096);
+            content.render(table.withTableName(PLACEHOLDER), sb);
+            segments = split(sb.toString());
+            String[] existing = templates.putIfAbsent(key, segments);
+            if (existing != null) {
+                segments = existing;
+            }
+            rendered.increment();
+        } else {
+            reused.increment();
+        }
+        String tableName = table.getTableName();
+        for (int i = 0; i < segments.length; i++) {
+            if (i > 0) {
+                out.append(tableName);
+            }
+            out.append(segments[i]);
+        }
+    }
+
+    /**
+     * 清除模板，渲染参数（包名、作者）变化时调用
+     */
+    void clearTemplates() {
+        templates.clear();
+    }
+
+    private static String[] split(String template) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        int index;
+        while ((index = template.indexOf(PLACEHOLDER, start)) >= 0) {
+            segments.add(template.substring(start, index));
+            start = index + PLACEHOLDER.length();
+        }
+        segments.add(template.substring(start));
+        return segments.toArray(new String[0]);
+    }
+
+    /**
+     * 出现在多张表中的结构，按表数从多到少排列
+     */
+    List<Map.Entry<String, Set<String>>> duplicates() {
+        List<Map.Entry<String, Set<String>>> duplicates = new ArrayList<>();
+        for (Map.Entry<String, Set<String>> entry : clusters.entrySet()) {
+            if (entry.getValue().size() > 1) {
+                duplicates.add(entry);
+            }
+        }
+        duplicates.sort((a, b) -> a.getValue().size() != b.getValue().size() ? b.getValue().size() - a.getValue().size()
+                : a.getKey().compareTo(b.getKey()));
+        return duplicates;
+    }
+
+    /**
+     * 输出汇总：结构数、重复的表数、模板复用次数，以及表数最多的重复结构
+     */
+    void printSummary() {
+        List<Map.Entry<String, Set<String>>> duplicates = duplicates();
+        int tables = 0;
+        for (Set<String> members : clusters.values()) {
+            tables += members.size();
+        }
+        int duplicateTables = 0;
+        for (Map.Entry<String, Set<String>> entry : duplicates) {
+            duplicateTables += entry.getValue().size();
+        }
+        System.out.println();
+        System.out.println("==== Duplicate table structures ====");
+        System.out.println("Tables: " + tables + ", structures: " + clusters.size() + ", duplicate structures: " + duplicates.size()
+                + " (" + duplicateTables + " tables), rendered: " + rendered.sum() + ", reused: " + reused.sum());
+        for (int i = 0; i < Math.min(LARGEST_CLUSTERS, duplicates.size()); i++) {
+            Map.Entry<String, Set<String>> entry = duplicates.get(i);
+            Set<String> members = entry.getValue();
+            System.out.println(String.format("  %s  %4d tables  %s%s", entry.getKey().substring(0, 12), members.size(),
+                    members.iterator().next(), members.size() > 1 ? ", ..." : ""));
+        }
+    }
+
+    /**
+     * 保存所有重复结构及其所在的库、表
+     */
+    void writeReport(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("{\n  \"structures\": " + clusters.size() + ",\n  \"duplicates\": [");
+            List<Map.Entry<String, Set<String>>> duplicates = duplicates();
+            for (int i = 0; i < duplicates.size(); i++) {
+                Map.Entry<String, Set<String>> entry = duplicates.get(i);
+                writer.write(i == 0 ? "\n" : ",\n");
+                writer.write("    {\"hash\": \"" + entry.getKey() + "\", \"tables\": [");
+                boolean first = true;
+                for (String member : entry.getValue()) {
+                    writer.write(first ? "\"" : ", \"");
+                    writer.write(member.replace("\\", "\\\\").replace("\"", "\\\""));
+                    writer.write('"');
+                    first = false;
+                }
+                writer.write("]}");
+            }
+            writer.write(duplicates.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+        }
+    }
+
+    /**
+     * 以占位符为表名的渲染
+     */
+    interface Content {
+        void render(TableSchema table, Appendable out) throws IOException;
+    }
+}
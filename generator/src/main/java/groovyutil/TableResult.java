@@ -0,0 +1,130 @@
+package groovyutil;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Description: 单张表的生成结果：表结构模型、渲染的脚本、耗时和异常，由生成器交给GenerationListener
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public final class TableResult {
+
+    public enum Status {
+        /**
+         * 脚本已写入
+         */
+        WRITTEN,
+        /**
+         * 表结构或脚本内容未变化，没有重写脚本
+         */
+        UNCHANGED,
+        /**
+         * 已加入合并输出，文件在所有表生成后写入
+         */
+        BUNDLED,
+        /**
+         * 抽取表结构、渲染或写入脚本失败，或导出表数据失败
+         */
+        FAILED
+    }
+
+    private final String db;
+    private final String tableName;
+    private final Status status;
+    /**
+     * 表结构，增量生成时未抽取的表、抽取失败的表为空
+     */
+    private final TableSchema model;
+    /**
+     * 渲染的脚本，未渲染或未要求保留脚本时为空
+     */
+    private final String script;
+    /**
+     * 脚本文件，合并输出或未写入时为空
+     */
+    private final File file;
+    private final long extractNanos;
+    private final long renderNanos;
+    private final Throwable error;
+    /**
+     * 输出格式，同时生成多种格式时每种格式各有一个结果；导出数据失败的结果为data
+     */
+    private final String format;
+
+    TableResult(String db, String tableName, Status status, TableSchema model, String script, File file,
+                long extractNanos, long renderNanos, Throwable error) {
+        this(db, tableName, status, model, script, file, extractNanos, renderNanos, error, GroovyFormat.NAME);
+    }
+
+    TableResult(String db, String tableName, Status status, TableSchema model, String script, File file,
+                long extractNanos, long renderNanos, Throwable error, String format) {
+        this.db = db;
+        this.tableName = tableName;
+        this.status = status;
+        this.model = model;
+        this.script = script;
+        this.file = file;
+        this.extractNanos = extractNanos;
+        this.renderNanos = renderNanos;
+        this.error = error;
+        this.format = format;
+    }
+
+    public String getDb() {
+        return db;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isFailed() {
+        return status == Status.FAILED;
+    }
+
+    public TableSchema getModel() {
+        return model;
+    }
+
+    public String getScript() {
+        return script;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * 抽取表结构的耗时（纳秒），使用批量抽取或快照中的表结构时为0
+     */
+    public long getExtractNanos() {
+        return extractNanos;
+    }
+
+    /**
+     * 渲染并写入脚本的耗时（纳秒）
+     */
+    public long getRenderNanos() {
+        return renderNanos;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    @Override
+    public String toString() {
+        return "Database[" + db + "] : Table[ " + tableName + " ] : "
+                + (GroovyFormat.NAME.equals(format) ? "" : "Format[" + format + "] : ") + status + " in "
+                + TimeUnit.NANOSECONDS.toMillis(extractNanos + renderNanos) + " ms" + (error == null ? "" : ", " + error);
+    }
+}
@@ -0,0 +1,253 @@
+package groovyutil;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * @Description: 单表结构，构建后不可变，可在多个线程之间安全共享
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+public class TableSchema {
+
+    /**
+     * 表名
+     */
+    private final String tableName;
+    /**
+     * 列定义，按列的顺序排列
+     */
+    private final List<ColumnDef> columns;
+    /**
+     * 索引信息，key为索引名称
+     */
+    private final Map<String, List<IndexInfo>> indexMap;
+    /**
+     * 主键列
+     */
+    private final Set<String> pkColumn;
+    /**
+     * 结构哈希，首次使用时计算；并发计算的结果相同，不需要同步
+     */
+    private String structureHash;
+
+    /**
+     * 复制传入的列、索引（包括每个索引的列）和主键，之后修改传入的集合不影响本对象；索引和主键保持传入时的遍历顺序
+     */
+    TableSchema(String tableName, List<ColumnDef> columns, Map<String, List<IndexInfo>> indexMap,
+                Set<String> pkColumn) {
+        this.tableName = tableName;
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+        Map<String, List<IndexInfo>> indexes = new LinkedHashMap<>(indexMap.size() * 2);
+        for (Map.Entry<String, List<IndexInfo>> entry : indexMap.entrySet()) {
+            indexes.put(entry.getKey(), Collections.unmodifiableList(new ArrayList<>(entry.getValue())));
+        }
+        this.indexMap = Collections.unmodifiableMap(indexes);
+        this.pkColumn = Collections.unmodifiableSet(new LinkedHashSet<>(pkColumn));
+    }
+
+    /**
+     * 共用另一张表已复制好的不可变集合
+     */
+    private TableSchema(String tableName, TableSchema structure) {
+        this.tableName = tableName;
+        this.columns = structure.columns;
+        this.indexMap = structure.indexMap;
+        this.pkColumn = structure.pkColumn;
+        this.structureHash = structure.structureHash;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<ColumnDef> getColumns() {
+        return columns;
+    }
+
+    public Map<String, List<IndexInfo>> getIndexMap() {
+        return indexMap;
+    }
+
+    public Set<String> getPkColumn() {
+        return pkColumn;
+    }
+
+    /**
+     * 表结构指纹：表名、列、索引、主键的SHA-256摘要，索引和主键按名称排序，与HashMap的遍历顺序无关
+     */
+    public String fingerprint() {
+        StringBuilder sb = new StringBuilder();
+        field(sb, tableName);
+        for (ColumnDef column : columns) {
+            field(sb, column.getName());
+            field(sb, column.getType());
+            field(sb, String.valueOf(column.getSize()));
+            decimalDigits(sb, column);
+            field(sb, String.valueOf(column.isNullable()));
+            field(sb, String.valueOf(column.isAutoIncrement()));
+            field(sb, String.valueOf(column.isPrimaryKey()));
+            field(sb, column.getRemarks());
+            field(sb, column.getDefaultValue());
+            sb.append('\n');
+        }
+        for (Map.Entry<String, List<IndexInfo>> entry : new TreeMap<>(indexMap).entrySet()) {
+            List<IndexInfo> indexInfos = new ArrayList<>(entry.getValue());
+            indexInfos.sort(Comparator.comparing(IndexInfo::getOrdinalPosition));
+            field(sb, entry.getKey());
+            field(sb, String.valueOf(indexInfos.get(0).isNonUnique()));
+            for (IndexInfo indexInfo : indexInfos) {
+                field(sb, indexInfo.getColumnName());
+            }
+            sb.append('\n');
+        }
+        for (String pk : new TreeSet<>(pkColumn)) {
+            field(sb, pk);
+        }
+        return sha256(sb.toString());
+    }
+
+    /**
+     * 结构哈希：不含表名的列、索引、主键的SHA-256摘要，索引按Map的遍历顺序，哈希相同的表渲染出的脚本只有表名不同
+     */
+    public String structureHash() {
+        String hash = structureHash;
+        if (hash == null) {
+            StringBuilder sb = new StringBuilder();
+            for (ColumnDef column : columns) {
+                field(sb, column.getName());
+                field(sb, column.getType());
+                field(sb, String.valueOf(column.getSize()));
+                decimalDigits(sb, column);
+                field(sb, String.valueOf(column.isNullable()));
+                field(sb, String.valueOf(column.isAutoIncrement()));
+                field(sb, String.valueOf(column.isPrimaryKey()));
+                field(sb, column.getRemarks());
+                field(sb, column.getDefaultValue());
+                sb.append('\n');
+            }
+            for (Map.Entry<String, List<IndexInfo>> entry : indexMap.entrySet()) {
+                field(sb, entry.getKey());
+                for (IndexInfo indexInfo : entry.getValue()) {
+                    field(sb, String.valueOf(indexInfo.isNonUnique()));
+                    field(sb, indexInfo.getColumnName());
+                    field(sb, String.valueOf(indexInfo.getOrdinalPosition()));
+                }
+                sb.append('\n');
+            }
+            for (String pk : new TreeSet<>(pkColumn)) {
+                field(sb, pk);
+            }
+            hash = sha256(sb.toString());
+            structureHash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * 规范顺序的结构：索引按名称排序，索引中的列按序号排序，列保持表中定义的顺序。
+     * 结果与抽取方式（逐表、批量、快照）及HashMap的遍历顺序无关，用于确定性输出
+     */
+    TableSchema canonical() {
+        Map<String, List<IndexInfo>> sorted = new LinkedHashMap<>();
+        for (Map.Entry<String, List<IndexInfo>> entry : new TreeMap<>(indexMap).entrySet()) {
+            List<IndexInfo> indexInfos = new ArrayList<>(entry.getValue());
+            indexInfos.sort(Comparator.comparing(IndexInfo::getOrdinalPosition));
+            sorted.put(entry.getKey(), indexInfos);
+        }
+        return new TableSchema(tableName, columns, sorted, pkColumn);
+    }
+
+    /**
+     * 结构相同、表名不同的表
+     */
+    TableSchema withTableName(String name) {
+        return new TableSchema(name, this);
+    }
+
+    /**
+     * 小数位数只在大于0时加入，没有小数位数的表的指纹、结构哈希（以及由它得到的确定性changeSet id）保持不变
+     */
+    private static void decimalDigits(StringBuilder sb, ColumnDef column) {
+        if (column.getDecimalDigits() > 0) {
+            field(sb, String.valueOf(column.getDecimalDigits()));
+        }
+    }
+
+    private static void field(StringBuilder sb, String value) {
+        //用不会出现在名称中的字符分隔，区分null与空串
+        sb.append(value == null ? "\u0001" : value).append('\u0000');
+    }
+
+    static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 批量抽取时逐行累加列、索引，最后一次性构建不可变的TableSchema
+     */
+    static class Builder {
+
+        private final String tableName;
+        private final Set<String> pkColumn;
+        private final Map<String, List<IndexInfo>> indexMap = new HashMap<>(8);
+        private final List<ColumnDef> columns = new ArrayList<>();
+
+        /**
+         * @param pkColumn 主键列，需在添加列之前确定，用于计算列的主键标志
+         */
+        Builder(String tableName, Set<String> pkColumn) {
+            this.tableName = tableName;
+            this.pkColumn = pkColumn == null ? new HashSet<>() : pkColumn;
+        }
+
+        String getTableName() {
+            return tableName;
+        }
+
+        Set<String> getPkColumn() {
+            return pkColumn;
+        }
+
+        void addColumn(ColumnDef column) {
+            columns.add(column);
+        }
+
+        void addIndex(IndexInfo info) {
+            //与obtainIndexParam保持相同的插入方式，保证HashMap的遍历顺序一致
+            if (indexMap.containsKey(info.getIndexName())) {
+                indexMap.get(info.getIndexName()).add(info);
+            } else {
+                List<IndexInfo> list = new ArrayList<>();
+                list.add(info);
+                indexMap.put(info.getIndexName(), list);
+            }
+        }
+
+        TableSchema build() {
+            return new TableSchema(tableName, columns, indexMap, pkColumn);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package groovyutil.standin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Description: 内存中的mysql替身库，只包含生成脚本需要的元数据（库、表、列、索引、主键）和导出数据用的少量行，
+ * 通过{@link StandInDriver}以jdbc:standin://名称/库名访问，用于基准测试和压测，不需要真实的数据库
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+public class StandInDatabase {
+
+    private static final Map<String, StandInDatabase> REGISTRY = new ConcurrentHashMap<>();
+
+    private final String name;
+    /**
+     * key为库名，按库名排序
+     */
+    private final Map<String, List<Table>> schemas = new TreeMap<>();
+    /**
+     * 执行的查询数，information_schema查询与DatabaseMetaData调用各计一次
+     */
+    private final AtomicLong queries = new AtomicLong();
+    /**
+     * 按类型统计的查询数，key为information_schema的表名或DatabaseMetaData的方法名
+     */
+    private final Map<String, AtomicLong> queryCounts = new ConcurrentHashMap<>();
+    /**
+     * 建立的连接数
+     */
+    private final AtomicLong connections = new AtomicLong();
+
+    private StandInDatabase(String name) {
+        this.name = name;
+    }
+
+    /**
+     * 注册一个替身库，同名的替身库会被替换
+     *
+     * @param name jdbc:standin://名称/库名 中的名称
+     */
+    public static StandInDatabase register(String name) {
+        StandInDriver.register();
+        StandInDatabase database = new StandInDatabase(name);
+        REGISTRY.put(name, database);
+        return database;
+    }
+
+    static StandInDatabase get(String name) {
+        return REGISTRY.get(name);
+    }
+
+    public static void unregister(String name) {
+        REGISTRY.remove(name);
+    }
+
+    /**
+     * 连接地址
+     *
+     * @param db 连接的默认库
+     */
+    public String url(String db) {
+        return StandInDriver.URL_PREFIX + name + "/" + db;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized List<Table> addSchema(String db) {
+        return schemas.computeIfAbsent(db, k -> Collections.synchronizedList(new ArrayList<>()));
+    }
+
+    synchronized List<String> schemaNames() {
+        return new ArrayList<>(schemas.keySet());
+    }
+
+    synchronized List<Table> tables(String db) {
+        List<Table> tables = db == null ? null : schemas.get(db);
+        if (tables == null) {
+            return Collections.emptyList();
+        }
+        synchronized (tables) {
+            return new ArrayList<>(tables);
+        }
+    }
+
+    Table table(String db, String tableName) {
+        for (Table table : tables(db)) {
+            if (table.name.equals(tableName)) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    public long getQueries() {
+        return queries.get();
+    }
+
+    public long getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * 按类型统计的查询数，按类型排序
+     */
+    public Map<String, Long> getQueryCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, AtomicLong> entry : queryCounts.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().get());
+        }
+        return counts;
+    }
+
+    public void resetCounters() {
+        queries.set(0);
+        connections.set(0);
+        queryCounts.clear();
+    }
+
+    void countQuery(String kind) {
+        queries.incrementAndGet();
+        queryCounts.computeIfAbsent(kind, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    void countConnection() {
+        connections.incrementAndGet();
+    }
+
+    /**
+     * 表
+     */
+    public static class Table {
+        final String name;
+        final List<Column> columns = new ArrayList<>();
+        final List<Index> indexes = new ArrayList<>();
+        final List<String> primaryKey = new ArrayList<>();
+        /**
+         * 数据行，值按列的顺序
+         */
+        final List<Object[]> rows = new ArrayList<>();
+        String createTime = "2026-01-01 00:00:00";
+        String updateTime;
+
+        public Table(String name) {
+            this.name = name;
+        }
+
+        public Table column(Column column) {
+            columns.add(column);
+            return this;
+        }
+
+        public Table index(String indexName, boolean unique, String... columnNames) {
+            indexes.add(new Index(indexName, unique, Arrays.asList(columnNames)));
+            return this;
+        }
+
+        /**
+         * 主键列，同时添加PRIMARY索引
+         */
+        public Table primaryKey(String... columnNames) {
+            primaryKey.addAll(Arrays.asList(columnNames));
+            return index("PRIMARY", true, columnNames);
+        }
+
+        /**
+         * 添加一行数据，值按列的顺序，空值为null；查询时按添加的顺序返回，不按主键排序
+         */
+        public Table row(Object... values) {
+            rows.add(values);
+            return this;
+        }
+
+        public Table updateTime(String updateTime) {
+            this.updateTime = updateTime;
+            return this;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public List<Column> getColumns() {
+            return columns;
+        }
+    }
+
+    /**
+     * 列，dataType、columnType与information_schema.COLUMNS中的含义相同，如int、int(11) unsigned
+     */
+    public static class Column {
+        final String name;
+        final String dataType;
+        final String columnType;
+        boolean nullable = true;
+        boolean autoIncrement;
+        String comment = "";
+        String defaultValue;
+
+        public Column(String name, String dataType, String columnType) {
+            this.name = name;
+            this.dataType = dataType;
+            this.columnType = columnType;
+        }
+
+        public Column notNull() {
+            this.nullable = false;
+            return this;
+        }
+
+        public Column autoIncrement() {
+            this.autoIncrement = true;
+            return this;
+        }
+
+        public Column comment(String comment) {
+            this.comment = comment;
+            return this;
+        }
+
+        public Column defaultValue(String defaultValue) {
+            this.defaultValue = defaultValue;
+            return this;
+        }
+    }
+
+    static class Index {
+        final String name;
+        final boolean unique;
+        final List<String> columns;
+
+        Index(String name, boolean unique, List<String> columns) {
+            this.name = name;
+            this.unique = unique;
+            this.columns = columns;
+        }
+    }
+}
@@ -0,0 +1,621 @@
+package groovyutil.standin;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * @Description: 替身库的jdbc驱动，地址格式为jdbc:standin://名称[:端口]/库名[?参数]。
+ * 只支持生成脚本用到的语句：show databases，information_schema的SCHEMATA、TABLES、COLUMNS、STATISTICS、KEY_COLUMN_USAGE（主键、外键）查询
+ * 和监听、增量生成的crc32校验和查询（不解析where中的过滤条件，只识别单表查询的table_name=?），
+ * 导出数据的select `列`... from `库`.`表`查询，以及DatabaseMetaData的getPrimaryKeys、getIndexInfo、getColumns，返回值与mysql驱动5.1的约定一致
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+public class StandInDriver implements Driver {
+
+    static final String URL_PREFIX = "jdbc:standin://";
+
+    private static volatile boolean registered;
+
+    /**
+     * 注册到DriverManager，重复调用只注册一次
+     */
+    public static synchronized void register() {
+        if (registered) {
+            return;
+        }
+        try {
+            DriverManager.registerDriver(new StandInDriver());
+            registered = true;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static {
+        register();
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        String path = url.substring(URL_PREFIX.length());
+        int query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        int slash = path.indexOf('/');
+        String host = slash >= 0 ? path.substring(0, slash) : path;
+        String db = slash >= 0 ? path.substring(slash + 1) : "";
+        StandInDatabase database = StandInDatabase.get(host);
+        if (database == null && host.indexOf(':') > 0) {
+            database = StandInDatabase.get(host.substring(0, host.indexOf(':')));
+        }
+        if (database == null) {
+            throw new SQLException("Unknown stand-in database: " + host);
+        }
+        database.countConnection();
+        return new StandInConnection(database, db).connection();
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    /**
+     * 一个连接，当前库可通过setCatalog切换
+     */
+    private static class StandInConnection {
+        private final StandInDatabase database;
+        private String catalog;
+
+        private StandInConnection(StandInDatabase database, String catalog) {
+            this.database = database;
+            this.catalog = catalog;
+        }
+
+        private Connection connection() {
+            return proxy(Connection.class, (p, method, args) -> {
+                switch (method.getName()) {
+                    case "prepareStatement":
+                        return statement((String) args[0]);
+                    case "createStatement":
+                        return statement(null);
+                    case "getMetaData":
+                        return metaData();
+                    case "setCatalog":
+                        catalog = (String) args[0];
+                        return null;
+                    case "getCatalog":
+                        return catalog;
+                    case "isValid":
+                        return true;
+                    default:
+                        return defaultValue(method);
+                }
+            });
+        }
+
+        private PreparedStatement statement(String preparedSql) {
+            List<Object> params = new ArrayList<>();
+            return proxy(PreparedStatement.class, (p, method, args) -> {
+                switch (method.getName()) {
+                    case "setString":
+                    case "setObject":
+                    case "setInt":
+                    case "setLong":
+                        int index = (Integer) args[0];
+                        while (params.size() < index) {
+                            params.add(null);
+                        }
+                        params.set(index - 1, args[1]);
+                        return null;
+                    case "executeQuery":
+                        return query(args != null && args.length > 0 ? (String) args[0] : preparedSql, params);
+                    default:
+                        return defaultValue(method);
+                }
+            });
+        }
+
+        private ResultSet query(String sql, List<Object> params) throws SQLException {
+            String lower = sql.toLowerCase(Locale.ROOT);
+            Rows rows;
+            if (lower.contains("crc32(")) {
+                rows = checksums(lower, params);
+            } else if (lower.contains(" from `")) {
+                rows = data(sql);
+            } else if (lower.contains("information_schema.schemata")) {
+                database.countQuery("schemata");
+                //不解析where条件，由调用方按过滤规则再次校验
+                rows = new Rows("schema_name");
+                rows.add("information_schema");
+                rows.add("mysql");
+                for (String schema : database.schemaNames()) {
+                    rows.add(schema);
+                }
+            } else if (lower.startsWith("show databases")) {
+                database.countQuery("show databases");
+                rows = new Rows("Database");
+                rows.add("information_schema");
+                rows.add("mysql");
+                for (String schema : database.schemaNames()) {
+                    rows.add(schema);
+                }
+            } else if (lower.contains("information_schema.columns")) {
+                database.countQuery("columns");
+                rows = new Rows("table_name", "column_name", "data_type", "column_type", "character_maximum_length",
+                        "numeric_precision", "numeric_scale", "datetime_precision", "is_nullable", "extra", "column_comment",
+                        "column_default", "ordinal_position");
+                for (StandInDatabase.Table table : tables(lower, params)) {
+                    int ordinal = 1;
+                    for (StandInDatabase.Column column : table.columns) {
+                        rows.add(table.name, column.name, column.dataType, column.columnType, characterLength(column),
+                                numericPrecision(column), numericScale(column), isTemporal(column.dataType) ? 0 : null,
+                                column.nullable ? "YES" : "NO", column.autoIncrement ? "auto_increment" : "",
+                                column.comment, column.defaultValue, ordinal++);
+                    }
+                }
+            } else if (lower.contains("information_schema.statistics")) {
+                database.countQuery("statistics");
+                rows = new Rows("table_name", "non_unique", "index_name", "column_name", "seq_in_index");
+                for (StandInDatabase.Table table : database.tables(schema(params))) {
+                    for (StandInDatabase.Index index : table.indexes) {
+                        int seq = 1;
+                        for (String column : index.columns) {
+                            rows.add(table.name, index.unique ? 0 : 1, index.name, column, seq++);
+                        }
+                    }
+                }
+            } else if (lower.contains("information_schema.key_column_usage") && lower.contains("referenced_table_name is not null")) {
+                //替身库中没有外键
+                database.countQuery("key_column_usage");
+                rows = new Rows("table_name", "referenced_table_schema", "referenced_table_name");
+            } else if (lower.contains("information_schema.key_column_usage")) {
+                database.countQuery("key_column_usage");
+                rows = new Rows("table_name", "column_name");
+                for (StandInDatabase.Table table : tables(lower, params)) {
+                    for (String column : table.primaryKey) {
+                        rows.add(table.name, column);
+                    }
+                }
+            } else if (lower.contains("information_schema.tables")) {
+                database.countQuery("tables");
+                rows = new Rows("table_name", "create_time", "update_time", "table_rows", "data_length");
+                for (StandInDatabase.Table table : database.tables(schema(params))) {
+                    rows.add(table.name, table.createTime, table.updateTime, table.rows.size(), table.rows.size() * 64L);
+                }
+            } else {
+                throw new SQLException("Unsupported statement for stand-in database: " + sql);
+            }
+            return rows.resultSet();
+        }
+
+        /**
+         * 监听和增量生成的校验和查询：每张表或每个库的TABLES、COLUMNS、STATISTICS各一行，校验和为相应行内容的crc32之和
+         */
+        private Rows checksums(String lower, List<Object> params) {
+            database.countQuery("checksums");
+            boolean perSchema = lower.startsWith("select table_schema");
+            Rows rows = perSchema ? new Rows("table_schema", "kind", "cnt", "checksum") : new Rows("table_name", "kind", "checksum");
+            List<String> schemas = perSchema ? database.schemaNames() : Collections.singletonList(schema(params));
+            for (String db : schemas) {
+                List<StandInDatabase.Table> tables = database.tables(db);
+                if (tables.isEmpty()) {
+                    continue;
+                }
+                long[][] sums = new long[tables.size()][3];
+                long[] counts = new long[3];
+                for (int i = 0; i < tables.size(); i++) {
+                    StandInDatabase.Table table = tables.get(i);
+                    sums[i][0] = crc32(table.name, table.createTime, table.updateTime);
+                    counts[0]++;
+                    for (StandInDatabase.Column column : table.columns) {
+                        sums[i][1] += crc32(table.name, column.name, column.columnType, column.nullable, column.defaultValue,
+                                column.autoIncrement, column.comment);
+                        counts[1]++;
+                    }
+                    for (StandInDatabase.Index index : table.indexes) {
+                        for (int seq = 0; seq < index.columns.size(); seq++) {
+                            sums[i][2] += crc32(table.name, index.name, index.unique, seq, index.columns.get(seq));
+                            counts[2]++;
+                        }
+                    }
+                }
+                String[] kinds = {"T", "C", "I"};
+                for (int kind = 0; kind < kinds.length; kind++) {
+                    if (perSchema) {
+                        long sum = 0;
+                        for (long[] tableSums : sums) {
+                            sum += tableSums[kind];
+                        }
+                        rows.add(db, kinds[kind], counts[kind], sum);
+                        continue;
+                    }
+                    for (int i = 0; i < tables.size(); i++) {
+                        rows.add(tables.get(i).name, kinds[kind], sums[i][kind]);
+                    }
+                }
+            }
+            return rows;
+        }
+
+        /**
+         * 导出数据的查询：按select中的列名返回表中的数据行
+         */
+        private Rows data(String sql) throws SQLException {
+            database.countQuery("data");
+            int from = sql.toLowerCase(Locale.ROOT).indexOf(" from `");
+            List<String> columnNames = identifiers(sql.substring(0, from));
+            List<String> names = identifiers(sql.substring(from));
+            StandInDatabase.Table table = names.size() < 2 ? null : database.table(names.get(0), names.get(1));
+            if (table == null) {
+                throw new SQLException("Table doesn't exist: " + sql);
+            }
+            int[] indexes = new int[columnNames.size()];
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = -1;
+                for (int c = 0; c < table.columns.size(); c++) {
+                    if (table.columns.get(c).name.equals(columnNames.get(i))) {
+                        indexes[i] = c;
+                    }
+                }
+                if (indexes[i] < 0) {
+                    throw new SQLException("Unknown column: " + columnNames.get(i));
+                }
+            }
+            Rows rows = new Rows(columnNames.toArray(new String[0]));
+            for (Object[] row : table.rows) {
+                Object[] values = new Object[indexes.length];
+                for (int i = 0; i < indexes.length; i++) {
+                    values[i] = indexes[i] < row.length ? row[indexes[i]] : null;
+                }
+                rows.add(values);
+            }
+            return rows;
+        }
+
+        /**
+         * 反引号中的名称，``为转义的反引号
+         */
+        private static List<String> identifiers(String sql) {
+            List<String> identifiers = new ArrayList<>();
+            int start = sql.indexOf('`');
+            while (start >= 0) {
+                StringBuilder name = new StringBuilder();
+                int i = start + 1;
+                while (i < sql.length()) {
+                    if (sql.charAt(i) == '`') {
+                        if (i + 1 < sql.length() && sql.charAt(i + 1) == '`') {
+                            name.append('`');
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    name.append(sql.charAt(i++));
+                }
+                identifiers.add(name.toString());
+                start = sql.indexOf('`', i + 1);
+            }
+            return identifiers;
+        }
+
+        /**
+         * 库中的表，单表查询（table_name=?）时第二个参数为表名
+         */
+        private List<StandInDatabase.Table> tables(String lower, List<Object> params) {
+            if (!lower.contains("table_name=?") || params.size() < 2) {
+                return database.tables(schema(params));
+            }
+            StandInDatabase.Table table = database.table(schema(params), String.valueOf(params.get(1)));
+            return table == null ? Collections.emptyList() : Collections.singletonList(table);
+        }
+
+        private static String schema(List<Object> params) {
+            return params.isEmpty() || params.get(0) == null ? null : params.get(0).toString();
+        }
+
+        private DatabaseMetaData metaData() {
+            return proxy(DatabaseMetaData.class, (p, method, args) -> {
+                String name = method.getName();
+                if (!"getPrimaryKeys".equals(name) && !"getIndexInfo".equals(name) && !"getColumns".equals(name)) {
+                    return defaultValue(method);
+                }
+                database.countQuery(name);
+                String db = args[0] != null ? (String) args[0] : catalog;
+                StandInDatabase.Table table = database.table(db, (String) args[2]);
+                Rows rows;
+                if ("getPrimaryKeys".equals(name)) {
+                    rows = new Rows("COLUMN_NAME");
+                    if (table != null) {
+                        for (String column : table.primaryKey) {
+                            rows.add(column);
+                        }
+                    }
+                } else if ("getIndexInfo".equals(name)) {
+                    rows = new Rows("NON_UNIQUE", "INDEX_NAME", "COLUMN_NAME", "ORDINAL_POSITION");
+                    if (table != null) {
+                        for (StandInDatabase.Index index : table.indexes) {
+                            int ordinal = 1;
+                            for (String column : index.columns) {
+                                rows.add(String.valueOf(!index.unique), index.name, column, String.valueOf(ordinal++));
+                            }
+                        }
+                    }
+                } else {
+                    rows = new Rows("COLUMN_NAME", "TYPE_NAME", "COLUMN_SIZE", "DECIMAL_DIGITS", "NULLABLE", "IS_AUTOINCREMENT", "REMARKS", "COLUMN_DEF");
+                    if (table != null) {
+                        for (StandInDatabase.Column column : table.columns) {
+                            rows.add(column.name, typeName(column), String.valueOf(columnSize(column)),
+                                    String.valueOf(decimalDigits(column)), column.nullable ? "1" : "0", column.autoIncrement ? "YES" : "NO", column.comment,
+                                    column.defaultValue);
+                        }
+                    }
+                }
+                return rows.resultSet();
+            });
+        }
+    }
+
+    private static long crc32(Object... values) {
+        CRC32 crc = new CRC32();
+        crc.update(Arrays.toString(values).getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    /**
+     * mysql驱动的TYPE_NAME：大写的类型名，unsigned类型带UNSIGNED后缀，tinyint(1)为BIT
+     */
+    private static String typeName(StandInDatabase.Column column) {
+        if ("tinyint(1)".equals(column.columnType)) {
+            return "BIT";
+        }
+        String typeName = column.columnType.contains("unsigned") ? column.dataType + " unsigned" : column.dataType;
+        return typeName.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * mysql驱动的COLUMN_SIZE：列定义括号中的长度，日期时间类型为显示宽度
+     */
+    private static int columnSize(StandInDatabase.Column column) {
+        int start = column.columnType.indexOf('(');
+        if (start > 0 && !isTemporal(column.dataType)) {
+            int end = start + 1;
+            while (end < column.columnType.length() && Character.isDigit(column.columnType.charAt(end))) {
+                end++;
+            }
+            return Integer.parseInt(column.columnType.substring(start + 1, end));
+        }
+        if ("datetime".equals(column.dataType) || "timestamp".equals(column.dataType)) {
+            return 19;
+        }
+        return 0;
+    }
+
+    /**
+     * mysql驱动的DECIMAL_DIGITS：列定义括号中逗号后的小数位数，没有时为0
+     */
+    private static int decimalDigits(StandInDatabase.Column column) {
+        int comma = column.columnType.indexOf(',');
+        if (comma < 0 || isTemporal(column.dataType)) {
+            return 0;
+        }
+        int end = comma + 1;
+        while (end < column.columnType.length() && Character.isDigit(column.columnType.charAt(end))) {
+            end++;
+        }
+        return Integer.parseInt(column.columnType.substring(comma + 1, end));
+    }
+
+    private static Object characterLength(StandInDatabase.Column column) {
+        return column.dataType.contains("char") ? (Object) (long) columnSize(column) : null;
+    }
+
+    private static Object numericPrecision(StandInDatabase.Column column) {
+        switch (column.dataType) {
+            case "bigint":
+                return 20;
+            case "int":
+                return 10;
+            case "tinyint":
+                return 3;
+            case "decimal":
+                return columnSize(column);
+            default:
+                return null;
+        }
+    }
+
+    private static Object numericScale(StandInDatabase.Column column) {
+        switch (column.dataType) {
+            case "bigint":
+            case "int":
+            case "tinyint":
+            case "decimal":
+                return decimalDigits(column);
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isTemporal(String dataType) {
+        return "date".equals(dataType) || "time".equals(dataType) || "datetime".equals(dataType)
+                || "timestamp".equals(dataType) || "year".equals(dataType);
+    }
+
+    /**
+     * 查询结果，列名不区分大小写
+     */
+    private static class Rows {
+        private final List<String> labels;
+        private final List<Object[]> values = new ArrayList<>();
+
+        private Rows(String... labels) {
+            this.labels = Arrays.asList(labels);
+        }
+
+        private void add(Object... row) {
+            values.add(row);
+        }
+
+        private int indexOf(Object column) throws SQLException {
+            if (column instanceof Integer) {
+                return (Integer) column - 1;
+            }
+            for (int i = 0; i < labels.size(); i++) {
+                if (labels.get(i).equalsIgnoreCase((String) column)) {
+                    return i;
+                }
+            }
+            throw new SQLException("Column not found: " + column);
+        }
+
+        private ResultSet resultSet() {
+            int[] cursor = {-1};
+            boolean[] wasNull = {false};
+            return proxy(ResultSet.class, (p, method, args) -> {
+                String name = method.getName();
+                switch (name) {
+                    case "next":
+                        return ++cursor[0] < values.size();
+                    case "wasNull":
+                        return wasNull[0];
+                    case "getMetaData":
+                        return metaData();
+                    default:
+                        break;
+                }
+                if (!name.startsWith("get") || args == null || args.length != 1) {
+                    return defaultValue(method);
+                }
+                Object value = values.get(cursor[0])[indexOf(args[0])];
+                wasNull[0] = value == null;
+                switch (name) {
+                    case "getString":
+                        return value == null ? null : value.toString();
+                    case "getInt":
+                        return value == null ? 0 : Integer.parseInt(value.toString());
+                    case "getLong":
+                        return value == null ? 0L : Long.parseLong(value.toString());
+                    case "getBoolean":
+                        return value != null && ("1".equals(value.toString()) || "true".equalsIgnoreCase(value.toString()));
+                    default:
+                        return value;
+                }
+            });
+        }
+
+        private ResultSetMetaData metaData() {
+            return proxy(ResultSetMetaData.class, (p, method, args) -> {
+                switch (method.getName()) {
+                    case "getColumnCount":
+                        return labels.size();
+                    case "getColumnLabel":
+                    case "getColumnName":
+                        return labels.get((Integer) args[0] - 1);
+                    case "getColumnType":
+                        return Types.VARCHAR;
+                    default:
+                        return defaultValue(method);
+                }
+            });
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StandInDriver.class.getClassLoader(), new Class[]{type}, (p, method, args) -> {
+            switch (method.getName()) {
+                case "unwrap":
+                    return p;
+                case "toString":
+                    return type.getSimpleName() + "@standin";
+                case "hashCode":
+                    return System.identityHashCode(p);
+                case "equals":
+                    return p == args[0];
+                default:
+                    return handler.invoke(p, method, args);
+            }
+        });
+    }
+
+    /**
+     * 不支持的方法返回默认值，如close、setFetchSize
+     */
+    private static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == double.class) {
+            return 0D;
+        }
+        if (type == float.class) {
+            return 0F;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,159 @@
+package groovyutil.standin;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @Description: 按给定规模生成替身库的库、表、列、索引，相同的参数和种子生成完全相同的结构
+ * @CreateDate: 2026/10/17
+ * @Version: 1.0.0
+ */
+public class SyntheticSchema {
+
+    private static final String[][] COLUMN_TYPES = {
+            {"varchar", "varchar(64)"},
+            {"varchar", "varchar(255)"},
+            {"bigint", "bigint(20)"},
+            {"int", "int(11)"},
+            {"int", "int(10) unsigned"},
+            {"tinyint", "tinyint(1)"},
+            {"tinyint", "tinyint(4)"},
+            {"decimal", "decimal(10,2)"},
+            {"datetime", "datetime"},
+            {"timestamp", "timestamp"},
+            {"text", "text"},
+            {"char", "char(32)"},
+    };
+
+    private int schemas = 1;
+    private int tables = 10;
+    private int columns = 10;
+    private int indexes = 2;
+    private int indexColumns = 2;
+    private int wideEvery;
+    private int wideColumns;
+    private int wideIndexes;
+    private long seed = 42;
+
+    /**
+     * 库的数量，库名为db_0、db_1...
+     */
+    public SyntheticSchema schemas(int schemas) {
+        this.schemas = schemas;
+        return this;
+    }
+
+    /**
+     * 每个库的表数量，表名为t_0000、t_0001...
+     */
+    public SyntheticSchema tables(int tables) {
+        this.tables = tables;
+        return this;
+    }
+
+    /**
+     * 每张表除主键外的列数
+     */
+    public SyntheticSchema columns(int columns) {
+        this.columns = columns;
+        return this;
+    }
+
+    /**
+     * 每张表除主键外的索引数
+     */
+    public SyntheticSchema indexes(int indexes) {
+        this.indexes = indexes;
+        return this;
+    }
+
+    /**
+     * 每个索引的最大列数
+     */
+    public SyntheticSchema indexColumns(int indexColumns) {
+        this.indexColumns = indexColumns;
+        return this;
+    }
+
+    /**
+     * 每every张表中有一张宽表，宽表除主键外有columns列、indexes个索引，用于模拟少量几百列、索引很多的大表
+     */
+    public SyntheticSchema wideTables(int every, int columns, int indexes) {
+        this.wideEvery = every;
+        this.wideColumns = columns;
+        this.wideIndexes = indexes;
+        return this;
+    }
+
+    public SyntheticSchema seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * 生成结构并注册为替身库
+     *
+     * @param name 替身库名称
+     */
+    public StandInDatabase register(String name) {
+        StandInDatabase database = StandInDatabase.register(name);
+        Random random = new Random(seed);
+        for (int s = 0; s < schemas; s++) {
+            List<StandInDatabase.Table> schema = database.addSchema(schemaName(s));
+            for (int t = 0; t < tables; t++) {
+                boolean wide = wideEvery > 0 && t % wideEvery == wideEvery - 1;
+                schema.add(table(String.format("t_%04d", t), wide ? wideColumns : columns, wide ? wideIndexes : indexes, random));
+            }
+        }
+        return database;
+    }
+
+    public static String schemaName(int index) {
+        return "db_" + index;
+    }
+
+    /**
+     * 生成单张表
+     */
+    public StandInDatabase.Table table(String tableName, Random random) {
+        return table(tableName, columns, indexes, random);
+    }
+
+    /**
+     * 生成单张表
+     *
+     * @param columns 除主键外的列数
+     * @param indexes 除主键外的索引数
+     */
+    public StandInDatabase.Table table(String tableName, int columns, int indexes, Random random) {
+        StandInDatabase.Table table = new StandInDatabase.Table(tableName);
+        table.column(new StandInDatabase.Column("id", "bigint", "bigint(20) unsigned").notNull().autoIncrement().comment("主键"));
+        for (int c = 0; c < columns; c++) {
+            String[] type = COLUMN_TYPES[random.nextInt(COLUMN_TYPES.length)];
+            StandInDatabase.Column column = new StandInDatabase.Column("col_" + c, type[0], type[1]).comment("列" + c);
+            if (random.nextInt(4) == 0) {
+                column.notNull();
+            }
+            if ("timestamp".equals(type[0]) || "datetime".equals(type[0]) && random.nextBoolean()) {
+                column.defaultValue("CURRENT_TIMESTAMP");
+            } else if ("tinyint".equals(type[0])) {
+                column.defaultValue("0");
+            }
+            table.column(column);
+        }
+        table.primaryKey("id");
+        if (columns > 0) {
+            for (int i = 0; i < indexes; i++) {
+                int width = 1 + random.nextInt(Math.max(1, Math.min(indexColumns, columns)));
+                String[] indexColumnNames = new String[width];
+                int first = random.nextInt(columns);
+                for (int j = 0; j < width; j++) {
+                    indexColumnNames[j] = "col_" + (first + j) % columns;
+                }
+                boolean unique = random.nextInt(5) == 0;
+                table.index((unique ? "uk_" : "idx_") + tableName + "_" + i, unique, indexColumnNames);
+            }
+        }
+        return table;
+    }
+}
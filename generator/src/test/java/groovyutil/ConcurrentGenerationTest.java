@@ -0,0 +1,91 @@
+package groovyutil;
+
+import groovyutil.standin.StandInDatabase;
+import groovyutil.standin.StandInDriver;
+import groovyutil.standin.SyntheticSchema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @Description: 并发生成（多线程、批量抽取）与顺序生成的脚本逐字节相同
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class ConcurrentGenerationTest {
+
+    private static final String DATABASE_NAME = "concurrent-generation";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private StandInDatabase database;
+
+    @Before
+    public void setUp() {
+        database = new SyntheticSchema().schemas(3).tables(12).columns(8).indexes(3).indexColumns(3).wideTables(5, 60, 12)
+                .register(DATABASE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        StandInDatabase.unregister(DATABASE_NAME);
+    }
+
+    @Test
+    public void threadsProduceTheSameScriptsAsSequential() throws Exception {
+        File sequential = generate("sequential", builder());
+        File concurrent = generate("threads", builder().threads(4));
+        assertSameTree(sequential, concurrent);
+    }
+
+    @Test
+    public void bulkThreadsProduceTheSameScriptsAsSequential() throws Exception {
+        File sequential = generate("sequential", builder());
+        File bulk = generate("bulk", builder().bulk(true).threads(4));
+        assertSameTree(sequential, bulk);
+    }
+
+    private GroovyScriptGenerator.Builder builder() {
+        return GroovyScriptGenerator.builder().url(database.url(SyntheticSchema.schemaName(0))).username("standin")
+                .password("standin").driver(StandInDriver.class.getName()).author("tester").packageName("db.changelog");
+    }
+
+    private File generate(String name, GroovyScriptGenerator.Builder builder) throws Exception {
+        File target = folder.newFolder(name);
+        GenerationResult result = builder.targetDirectory(target).build().run();
+        assertTrue(result.getFailures().toString(), result.isSuccessful());
+        assertEquals(36, result.count(TableResult.Status.WRITTEN));
+        return target;
+    }
+
+    private static void assertSameTree(File expected, File actual) throws IOException {
+        List<Path> expectedFiles = files(expected.toPath());
+        assertEquals(expectedFiles, files(actual.toPath()));
+        for (Path file : expectedFiles) {
+            assertArrayEquals(file.toString(), Files.readAllBytes(expected.toPath().resolve(file)),
+                    Files.readAllBytes(actual.toPath().resolve(file)));
+        }
+    }
+
+    private static List<Path> files(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile).map(root::relativize).sorted().collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+}
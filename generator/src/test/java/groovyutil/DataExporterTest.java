@@ -0,0 +1,149 @@
+package groovyutil;
+
+import groovyutil.standin.StandInDatabase;
+import groovyutil.standin.StandInDriver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @Description: 数据导出：按行数切分的CSV文件和loadData changelog、分批的insert changeSet，以及导出失败时交给listener的结果
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class DataExporterTest {
+
+    private static final String DATABASE_NAME = "data-export";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ConnectionManager connectionManager;
+
+    private String targetPath;
+
+    @Before
+    public void setUp() throws Exception {
+        StandInDatabase database = StandInDatabase.register(DATABASE_NAME);
+        List<StandInDatabase.Table> tables = database.addSchema("app");
+        tables.add(new StandInDatabase.Table("t_user")
+                .column(new StandInDatabase.Column("id", "bigint", "bigint(20)").notNull().autoIncrement())
+                .column(new StandInDatabase.Column("name", "varchar", "varchar(64)"))
+                .column(new StandInDatabase.Column("price", "decimal", "decimal(10,2)"))
+                .column(new StandInDatabase.Column("created", "datetime", "datetime"))
+                .primaryKey("id")
+                .row(1L, "alice", new BigDecimal("1.50"), "2026-10-18 08:00:00")
+                .row(2L, "say \"hi\"", null, "2026-10-18 09:00:00")
+                .row(3L, "o'brien", new BigDecimal("0.00"), null)
+                .row(4L, null, new BigDecimal("12.30"), "2026-10-18 10:00:00")
+                .row(5L, "eve", new BigDecimal("7.00"), "2026-10-18 11:00:00"));
+        tables.add(new StandInDatabase.Table("t_other")
+                .column(new StandInDatabase.Column("id", "bigint", "bigint(20)").notNull())
+                .primaryKey("id")
+                .row(1L));
+        connectionManager = new ConnectionManager(StandInDriver.class.getName(), database.url("app"), "standin", "standin");
+        targetPath = folder.getRoot().getPath() + File.separator;
+    }
+
+    @After
+    public void tearDown() {
+        connectionManager.close();
+        StandInDatabase.unregister(DATABASE_NAME);
+    }
+
+    @Test
+    public void exportsCsvChunksWithLoadDataChangelog() throws Exception {
+        DataExporter exporter = new DataExporter(ObjectFilter.acceptAll().includeTable("t_user"));
+        exporter.setChunkRows(2);
+        export(exporter);
+
+        File dataPath = new File(folder.getRoot(), "app" + File.separator + "data");
+        assertEquals("\"id\",\"name\",\"price\",\"created\"\r\n"
+                + "1,\"alice\",1.50,\"2026-10-18 08:00:00\"\r\n"
+                + "2,\"say \"\"hi\"\"\",NULL,\"2026-10-18 09:00:00\"\r\n", read(new File(dataPath, "t_user/00001.csv")));
+        assertEquals("\"id\",\"name\",\"price\",\"created\"\r\n"
+                + "5,\"eve\",7.00,\"2026-10-18 11:00:00\"\r\n", read(new File(dataPath, "t_user/00003.csv")));
+        assertFalse(new File(dataPath, "t_user/00004.csv").exists());
+
+        String changelog = read(new File(dataPath, "t_user.groovy"));
+        assertEquals(3, count(changelog, "loadData(tableName: \"t_user\""));
+        assertTrue(changelog.contains("file: \"t_user/00003.csv\""));
+        assertTrue(changelog.contains("column(name: \"price\", type: \"NUMERIC\")"));
+        assertTrue(changelog.contains("column(name: \"created\", type: \"DATE\")"));
+        //未被选中的表不导出
+        assertFalse(new File(dataPath, "t_other.groovy").exists());
+    }
+
+    @Test
+    public void exportsInsertChangeSetsInBatches() throws Exception {
+        DataExporter exporter = new DataExporter(ObjectFilter.acceptAll().includeTable("app.t_user"));
+        exporter.setFormat(DataExporter.Format.INSERT);
+        exporter.setBatchRows(2);
+        export(exporter);
+
+        File dataPath = new File(folder.getRoot(), "app" + File.separator + "data");
+        String chunk = read(new File(dataPath, "t_user/00001.groovy"));
+        assertEquals(3, count(chunk, "changeSet("));
+        assertEquals(5, count(chunk, "insert(tableName: \"t_user\")"));
+        assertTrue(chunk.contains("id: '2026-10-18-t_user-data-00001-00003'"));
+        assertTrue(chunk.contains("column(name: \"name\", value: 'o\\'brien')"));
+        assertTrue(chunk.contains("column(name: \"price\", valueNumeric: null)"));
+        assertTrue(chunk.contains("column(name: \"created\", valueDate: '2026-10-18 08:00:00')"));
+        assertTrue(read(new File(dataPath, "t_user.groovy")).contains("include(file: \"t_user/00001.groovy\", relativeToChangelogFile: true)"));
+    }
+
+    @Test
+    public void failedTableIsPassedToListener() throws Exception {
+        //数据文件目录被同名文件占用，写入数据文件失败
+        File dataPath = new File(folder.getRoot(), "app" + File.separator + "data");
+        assertTrue(dataPath.mkdirs());
+        assertTrue(new File(dataPath, "t_user").createNewFile());
+
+        List<TableResult> results = Collections.synchronizedList(new ArrayList<>());
+        DataExporter exporter = new DataExporter(ObjectFilter.acceptAll().includeTable("t_*"));
+        exporter.setListener(results::add);
+        export(exporter);
+
+        assertEquals(1, results.size());
+        TableResult result = results.get(0);
+        assertEquals(TableResult.Status.FAILED, result.getStatus());
+        assertEquals("app", result.getDb());
+        assertEquals("t_user", result.getTableName());
+        assertEquals(DataExporter.FORMAT, result.getFormat());
+        assertTrue(result.getError() instanceof IOException);
+        //其他表不受影响
+        assertTrue(new File(dataPath, "t_other/00001.csv").exists());
+    }
+
+    private void export(DataExporter exporter) throws Exception {
+        GroovyScriptRenderer renderer = new GroovyScriptRenderer("db.changelog", "tester", "2026-10-18");
+        exporter.export(connectionManager, renderer, targetPath, ObjectFilter.defaults(), Collections.singletonList("app"));
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + part.length())) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,116 @@
+package groovyutil;
+
+import groovyutil.standin.StandInDatabase;
+import groovyutil.standin.StandInDriver;
+import groovyutil.standin.SyntheticSchema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @Description: 结构去重：复用渲染结果生成的脚本与逐表渲染的脚本逐字节相同，报告列出结构相同的表
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class DedupeGenerationTest {
+
+    private static final String DATABASE_NAME = "dedupe-generation";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private StandInDatabase database;
+
+    /**
+     * 三个分片库中的t_order结构相同，其中两个分片库中的t_item结构相同；索引名包含表名，所以同结构的表同名
+     */
+    @Before
+    public void setUp() {
+        database = StandInDatabase.register(DATABASE_NAME);
+        SyntheticSchema synthetic = new SyntheticSchema().columns(12).indexes(3).indexColumns(3);
+        for (String shard : new String[]{"shard_0", "shard_1", "shard_2"}) {
+            List<StandInDatabase.Table> tables = database.addSchema(shard);
+            tables.add(synthetic.table("t_order", new Random(1)));
+            tables.add(synthetic.table("t_item", new Random("shard_2".equals(shard) ? 3 : 2)));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        StandInDatabase.unregister(DATABASE_NAME);
+    }
+
+    @Test
+    public void dedupedScriptsAreIdentical() throws Exception {
+        File plain = generate("plain", builder());
+        File report = new File(folder.getRoot(), "duplicates.json");
+        File deduped = generate("deduped", builder().dedupe(report).threads(3));
+        assertSameTree(plain, deduped);
+        assertTrue(report.isFile());
+    }
+
+    @Test
+    public void dedupedFormatsAreIdentical() throws Exception {
+        File plain = generate("plain", builder().formats("groovy", "yaml", "xml", "ddl"));
+        File deduped = generate("deduped", builder().formats("groovy", "yaml", "xml", "ddl").dedupe(new File(folder.getRoot(), "d.json")));
+        assertSameTree(plain, deduped);
+    }
+
+    @Test
+    public void reportListsDuplicateStructures() throws Exception {
+        File report = new File(folder.getRoot(), "duplicates.json");
+        generate("deduped", builder().dedupe(report));
+        String json = new String(Files.readAllBytes(report.toPath()), StandardCharsets.UTF_8);
+        assertTrue(json, json.contains("\"structures\": 3,"));
+        assertTrue(json, json.contains("\"tables\": [\"shard_0.t_order\", \"shard_1.t_order\", \"shard_2.t_order\"]"));
+        assertTrue(json, json.contains("\"tables\": [\"shard_0.t_item\", \"shard_1.t_item\"]"));
+        assertEquals(2, json.split("\"hash\"", -1).length - 1);
+    }
+
+    private GroovyScriptGenerator.Builder builder() {
+        return GroovyScriptGenerator.builder().url(database.url("shard_0")).username("standin").password("standin")
+                .driver(StandInDriver.class.getName()).author("tester").packageName("db.changelog");
+    }
+
+    private File generate(String name, GroovyScriptGenerator.Builder builder) throws Exception {
+        File target = folder.newFolder(name);
+        GenerationResult result = builder.targetDirectory(target).build().run();
+        assertTrue(result.getFailures().toString(), result.isSuccessful());
+        //每种格式每张表一个结果
+        assertEquals(0, result.getTables().size() % 6);
+        assertEquals(result.getTables().size(), result.count(TableResult.Status.WRITTEN));
+        return target;
+    }
+
+    private static void assertSameTree(File expected, File actual) throws IOException {
+        List<Path> expectedFiles = files(expected.toPath());
+        assertEquals(expectedFiles, files(actual.toPath()));
+        for (Path file : expectedFiles) {
+            assertArrayEquals(file.toString(), Files.readAllBytes(expected.toPath().resolve(file)),
+                    Files.readAllBytes(actual.toPath().resolve(file)));
+        }
+    }
+
+    private static List<Path> files(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile).map(root::relativize).sorted().collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package groovyutil;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @Description: 外键依赖图的拓扑层级和循环依赖
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class DependencyGraphTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void tablesWithoutForeignKeysAreInLevelZero() {
+        DependencyGraph graph = new DependencyGraph(Arrays.asList("b", "a", "c"), new HashMap<>());
+        assertEquals(Collections.singletonList(Arrays.asList("a", "b", "c")), graph.getLevels());
+        assertTrue(graph.getCycles().isEmpty());
+    }
+
+    @Test
+    public void levelFollowsLongestDependencyChain() {
+        Map<String, Set<String>> foreignKeys = new HashMap<>();
+        foreignKeys.put("order_item", references("orders", "product"));
+        foreignKeys.put("orders", references("customer"));
+        foreignKeys.put("payment", references("orders"));
+        DependencyGraph graph = new DependencyGraph(
+                Arrays.asList("customer", "order_item", "orders", "payment", "product"), foreignKeys);
+        assertEquals(Arrays.asList(
+                Arrays.asList("customer", "product"),
+                Collections.singletonList("orders"),
+                Arrays.asList("order_item", "payment")), graph.getLevels());
+        assertTrue(graph.getCycles().isEmpty());
+    }
+
+    @Test
+    public void cycleIsPlacedInOneLevel() {
+        Map<String, Set<String>> foreignKeys = new HashMap<>();
+        foreignKeys.put("a", references("b"));
+        foreignKeys.put("b", references("c"));
+        foreignKeys.put("c", references("a", "base"));
+        foreignKeys.put("d", references("c"));
+        DependencyGraph graph = new DependencyGraph(Arrays.asList("a", "b", "base", "c", "d"), foreignKeys);
+        assertEquals(Collections.singletonList(Arrays.asList("a", "b", "c")), graph.getCycles());
+        assertEquals(Arrays.asList(
+                Collections.singletonList("base"),
+                Arrays.asList("a", "b", "c"),
+                Collections.singletonList("d")), graph.getLevels());
+    }
+
+    @Test
+    public void selfReferenceIsNotACycle() {
+        Map<String, Set<String>> foreignKeys = new HashMap<>();
+        foreignKeys.put("category", references("category"));
+        DependencyGraph graph = new DependencyGraph(Collections.singletonList("category"), foreignKeys);
+        assertEquals(Collections.singletonList(Collections.singletonList("category")), graph.getLevels());
+        assertTrue(graph.getCycles().isEmpty());
+    }
+
+    @Test
+    public void longChainDoesNotOverflowTheStack() {
+        List<String> tables = new ArrayList<>();
+        Map<String, Set<String>> foreignKeys = new HashMap<>();
+        int count = 20000;
+        for (int i = 0; i < count; i++) {
+            String table = String.format("t%05d", i);
+            tables.add(table);
+            if (i > 0) {
+                foreignKeys.put(table, references(String.format("t%05d", i - 1)));
+            }
+        }
+        DependencyGraph graph = new DependencyGraph(tables, foreignKeys);
+        assertEquals(count, graph.getLevels().size());
+        assertEquals(Collections.singletonList("t19999"), graph.getLevels().get(count - 1));
+    }
+
+    @Test
+    public void manifestListsReferencesOutsideTheGraph() throws IOException {
+        Map<String, Set<String>> foreignKeys = new HashMap<>();
+        foreignKeys.put("orders", references("customer", "crm.account"));
+        Map<String, DependencyGraph> graphs = new LinkedHashMap<>();
+        graphs.put("shop", new DependencyGraph(Collections.singletonList("orders"), foreignKeys));
+        File manifest = new File(folder.getRoot(), DependencyGraph.MANIFEST_FILE_NAME);
+        DependencyGraph.writeManifest(manifest, graphs);
+        String json = new String(Files.readAllBytes(manifest.toPath()), StandardCharsets.UTF_8);
+        assertEquals("{\n"
+                + "  \"shop\": {\n"
+                + "    \"levels\": [\n"
+                + "      [\"orders\"]\n"
+                + "    ],\n"
+                + "    \"cycles\": [],\n"
+                + "    \"unresolved\": {\"orders\": [\"crm.account\", \"customer\"]}\n"
+                + "  }\n"
+                + "}\n", json);
+    }
+
+    private static Set<String> references(String... tables) {
+        return new TreeSet<>(Arrays.asList(tables));
+    }
+}
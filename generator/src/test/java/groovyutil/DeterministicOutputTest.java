@@ -0,0 +1,124 @@
+package groovyutil;
+
+import groovyutil.standin.StandInDatabase;
+import groovyutil.standin.StandInDriver;
+import groovyutil.standin.SyntheticSchema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @Description: 确定性生成：逐表抽取、批量并发抽取和从快照生成的脚本逐字节相同，changeSet id只由表结构决定
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class DeterministicOutputTest {
+
+    private static final String DATABASE_NAME = "deterministic-output";
+
+    private static final Pattern CHANGE_SET_ID = Pattern.compile("changeSet\\(author: 'tester', id: '([^']+)'");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private StandInDatabase database;
+
+    @Before
+    public void setUp() {
+        database = new SyntheticSchema().schemas(2).tables(8).columns(10).indexes(4).indexColumns(3).wideTables(4, 40, 10)
+                .register(DATABASE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        StandInDatabase.unregister(DATABASE_NAME);
+    }
+
+    @Test
+    public void extractionModesProduceIdenticalScripts() throws Exception {
+        File perTable = generate("per-table", connected());
+        File bulk = generate("bulk", connected().bulk(true).threads(4));
+
+        File snapshot = new File(folder.getRoot(), "schema.snapshot");
+        assertTrue(GroovyScriptGenerator.run(new String[]{"-url" + database.url(SyntheticSchema.schemaName(0)),
+                "-driver" + StandInDriver.class.getName(), "-usernamestandin", "-passwordstandin", "-bulk",
+                "-export-snapshot=" + snapshot.getPath()}, null));
+        File fromSnapshot = generate("snapshot", GroovyScriptGenerator.builder().fromSnapshot(snapshot).threads(2));
+
+        assertSameTree(perTable, bulk);
+        assertSameTree(perTable, fromSnapshot);
+    }
+
+    @Test
+    public void changeSetIdsDependOnlyOnTheStructure() throws Exception {
+        File target = generate("ids", connected());
+        String script = read(new File(target, "db_0" + File.separator + "t_0001.groovy"));
+        Matcher matcher = CHANGE_SET_ID.matcher(script);
+        assertTrue(script, matcher.find());
+        String id = matcher.group(1);
+        assertTrue(id, id.matches("t_0001-[0-9a-f]+"));
+
+        //结构不变时id不变，结构变化后id变化
+        assertEquals(id, changeSetId(generate("again", connected()), "db_0", "t_0001"));
+        database.addSchema("db_0").get(1).column(new StandInDatabase.Column("added", "int", "int(11)"));
+        String changed = changeSetId(generate("changed", connected()), "db_0", "t_0001");
+        assertTrue(changed, changed.startsWith("t_0001-") && !changed.equals(id));
+    }
+
+    private GroovyScriptGenerator.Builder connected() {
+        return GroovyScriptGenerator.builder().url(database.url(SyntheticSchema.schemaName(0))).username("standin")
+                .password("standin").driver(StandInDriver.class.getName());
+    }
+
+    private File generate(String name, GroovyScriptGenerator.Builder builder) throws Exception {
+        File target = folder.newFolder(name);
+        GenerationResult result = builder.author("tester").packageName("db.changelog").deterministic(true)
+                .targetDirectory(target).build().run();
+        assertTrue(result.getFailures().toString(), result.isSuccessful());
+        assertEquals(16, result.count(TableResult.Status.WRITTEN));
+        return target;
+    }
+
+    private static String changeSetId(File target, String db, String table) throws IOException {
+        Matcher matcher = CHANGE_SET_ID.matcher(read(new File(target, db + File.separator + table + ".groovy")));
+        assertTrue(matcher.find());
+        return matcher.group(1);
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static void assertSameTree(File expected, File actual) throws IOException {
+        List<Path> expectedFiles = files(expected.toPath());
+        assertEquals(expectedFiles, files(actual.toPath()));
+        for (Path file : expectedFiles) {
+            assertArrayEquals(file.toString(), Files.readAllBytes(expected.toPath().resolve(file)),
+                    Files.readAllBytes(actual.toPath().resolve(file)));
+        }
+    }
+
+    private static List<Path> files(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            return paths.filter(Files::isRegularFile).map(root::relativize).sorted().collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+}
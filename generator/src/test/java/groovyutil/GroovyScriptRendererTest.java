@@ -0,0 +1,74 @@
+package groovyutil;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @Description: 由ColumnDef渲染的groovy脚本与原有逐列解析getColumns结果生成的脚本逐字节相同
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class GroovyScriptRendererTest {
+
+    /**
+     * t_0_0.groovy为原有实现对同一张表生成的脚本
+     */
+    @Test
+    public void rendersSameScriptAsBaseline() throws IOException {
+        List<ColumnDef> columns = new ArrayList<>();
+        columns.add(new ColumnDef("id", "bigint unsigned", 20, 0, false, true, true, "\u4e3b\u952e", null));
+        columns.add(new ColumnDef("c0", "varchar", 64, 0, true, false, false, "col 0", null));
+        columns.add(new ColumnDef("c1", "datetime", 19, 0, true, false, false, "col 1", "CURRENT_TIMESTAMP"));
+        columns.add(new ColumnDef("c2", "tinyint", 1, 0, false, false, false, "col 2", "0"));
+        columns.add(new ColumnDef("c3", "decimal", 10, 2, true, false, false, "col 3", null));
+        columns.add(new ColumnDef("c4", "timestamp", 19, 0, true, false, false, "col 4", "CURRENT_TIMESTAMP"));
+        columns.add(new ColumnDef("c5", "varchar", 64, 0, true, false, false, "col 5", "x"));
+        //与obtainIndexParam相同，按getIndexInfo的返回顺序放入HashMap
+        Map<String, List<IndexInfo>> indexMap = new HashMap<>(8);
+        indexMap.put("PRIMARY", Arrays.asList(new IndexInfo(false, "PRIMARY", "id", 1)));
+        indexMap.put("uk_0", Arrays.asList(new IndexInfo(false, "uk_0", "c0", 1), new IndexInfo(false, "uk_0", "c1", 2)));
+        indexMap.put("idx_0", Arrays.asList(new IndexInfo(true, "idx_0", "c2", 1)));
+        TableSchema table = new TableSchema("t_0_0", columns, indexMap, new HashSet<>(Arrays.asList("id")));
+
+        GroovyScriptRenderer renderer = new GroovyScriptRenderer("default_package", "default_author", "2026-10-18");
+        assertEquals(baseline("t_0_0.groovy"), renderer.render(table));
+    }
+
+    @Test
+    public void skipsColumnsWithoutName() {
+        List<ColumnDef> columns = new ArrayList<>();
+        columns.add(new ColumnDef("", "varchar", 32, 0, true, false, false, "", null));
+        columns.add(new ColumnDef("name", "varchar", 32, 0, true, false, false, "", null));
+        TableSchema table = new TableSchema("t", columns, new HashMap<>(), new HashSet<>());
+        String script = new GroovyScriptRenderer("p", "a", "2026-10-18").render(table);
+        assertEquals(1, script.split("column\\(name:", -1).length - 1);
+    }
+
+    /**
+     * 脚本文件末尾的换行由写文件时添加，不属于渲染结果
+     */
+    private static String baseline(String name) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = GroovyScriptRendererTest.class.getResourceAsStream(name)) {
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                bytes.write(buffer, 0, read);
+            }
+        }
+        String script = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        return script.endsWith("\n") ? script.substring(0, script.length() - 1) : script;
+    }
+}
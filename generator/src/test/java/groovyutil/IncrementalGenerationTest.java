@@ -0,0 +1,122 @@
+package groovyutil;
+
+import groovyutil.standin.StandInDatabase;
+import groovyutil.standin.StandInDriver;
+import groovyutil.standin.SyntheticSchema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @Description: 增量生成：结构未变化的表不再生成、脚本文件不重写，只有变化的表重新生成
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class IncrementalGenerationTest {
+
+    private static final String DATABASE_NAME = "incremental-generation";
+
+    private static final long OLD_TIME = 1000000000000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private StandInDatabase database;
+
+    @Before
+    public void setUp() {
+        database = new SyntheticSchema().schemas(2).tables(5).columns(6).register(DATABASE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        StandInDatabase.unregister(DATABASE_NAME);
+    }
+
+    @Test
+    public void secondRunLeavesUnchangedTablesUntouched() throws Exception {
+        File target = folder.newFolder("scripts");
+        GenerationResult first = generate(target, false);
+        assertEquals(10, first.count(TableResult.Status.WRITTEN));
+
+        List<File> scripts = scripts(target);
+        assertEquals(10, scripts.size());
+        for (File script : scripts) {
+            assertTrue(script.setLastModified(OLD_TIME));
+        }
+        GenerationResult second = generate(target, false);
+        assertEquals(10, second.count(TableResult.Status.UNCHANGED));
+        assertEquals(0, second.count(TableResult.Status.WRITTEN));
+        for (File script : scripts) {
+            assertEquals(script.getName(), OLD_TIME, script.lastModified());
+        }
+    }
+
+    @Test
+    public void changedTableIsWrittenAgain() throws Exception {
+        File target = folder.newFolder("scripts");
+        generate(target, false);
+        File changed = new File(target, "db_1" + File.separator + "t_0003.groovy");
+        assertTrue(changed.setLastModified(OLD_TIME));
+
+        StandInDatabase.Table table = database.addSchema("db_1").get(3);
+        table.column(new StandInDatabase.Column("added", "varchar", "varchar(32)")).updateTime("2026-10-18 00:00:00");
+        GenerationResult result = generate(target, false);
+        assertEquals(9, result.count(TableResult.Status.UNCHANGED));
+        assertEquals(1, result.count(TableResult.Status.WRITTEN));
+        for (TableResult written : result.getTables()) {
+            if (written.getStatus() == TableResult.Status.WRITTEN) {
+                assertEquals("db_1", written.getDb());
+                assertEquals("t_0003", written.getTableName());
+            }
+        }
+        assertNotEquals(OLD_TIME, changed.lastModified());
+        assertTrue(new String(Files.readAllBytes(changed.toPath()), StandardCharsets.UTF_8).contains("name: 'added'"));
+    }
+
+    @Test
+    public void bulkExtractionSkipsUnchangedTables() throws Exception {
+        File target = folder.newFolder("scripts");
+        assertEquals(10, generate(target, true).count(TableResult.Status.WRITTEN));
+        database.resetCounters();
+        assertEquals(10, generate(target, true).count(TableResult.Status.UNCHANGED));
+        //未变化的库只执行校验和查询，不再抽取列和索引
+        assertNull(database.getQueryCounts().get("columns"));
+        assertNull(database.getQueryCounts().get("statistics"));
+    }
+
+    private GenerationResult generate(File target, boolean bulk) throws Exception {
+        GenerationResult result = GroovyScriptGenerator.builder().url(database.url(SyntheticSchema.schemaName(0)))
+                .username("standin").password("standin").driver(StandInDriver.class.getName()).author("tester")
+                .packageName("db.changelog").bulk(bulk).incremental(true).targetDirectory(target).build().run();
+        assertTrue(result.getFailures().toString(), result.isSuccessful());
+        assertEquals(10, result.getTables().size());
+        return result;
+    }
+
+    private static List<File> scripts(File target) {
+        List<File> scripts = new ArrayList<>();
+        for (String db : new String[]{"db_0", "db_1"}) {
+            File[] files = new File(target, db).listFiles((dir, name) -> name.endsWith(".groovy"));
+            if (files != null) {
+                for (File file : files) {
+                    scripts.add(file);
+                }
+            }
+        }
+        return scripts;
+    }
+}
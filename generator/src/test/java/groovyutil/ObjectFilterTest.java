@@ -0,0 +1,77 @@
+package groovyutil;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @Description: glob转换为like条件，以及Java端的匹配与下推的条件一致
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class ObjectFilterTest {
+
+    @Test
+    public void globIsConvertedToLike() {
+        ObjectFilter filter = ObjectFilter.acceptAll().includeTable("act*").includeTable("t?_log");
+        ObjectFilter.Condition condition = filter.tableCondition("db", "table_name");
+        assertEquals(" and (lower(table_name) like lower(?) or lower(table_name) like lower(?))", condition.getSql());
+        assertEquals(Arrays.asList("act%", "t_\\_log"), condition.getParams());
+    }
+
+    @Test
+    public void likeWildcardsInGlobAreEscaped() {
+        ObjectFilter filter = ObjectFilter.acceptAll().excludeSchema("a%b\\c");
+        ObjectFilter.Condition condition = filter.schemaCondition("schema_name");
+        assertEquals(" and lower(schema_name) not like lower(?)", condition.getSql());
+        assertEquals(Collections.singletonList("a\\%b\\\\c"), condition.getParams());
+        assertFalse(filter.acceptsSchema("a%b\\c"));
+        assertTrue(filter.acceptsSchema("axb\\c"));
+    }
+
+    @Test
+    public void globMatchingIgnoresCase() {
+        ObjectFilter filter = ObjectFilter.acceptAll().excludeTable("ACT_*");
+        assertFalse(filter.acceptsTable("db", "act_ru_task"));
+        assertFalse(filter.acceptsTable("db", "Act_Hi_Task"));
+        assertTrue(filter.acceptsTable("db", "actor"));
+    }
+
+    @Test
+    public void schemaQualifiedRuleAppliesOnlyToMatchingSchemas() {
+        ObjectFilter filter = ObjectFilter.defaults();
+        assertFalse(filter.acceptsTable("workflow_service", "act_ru_task"));
+        assertTrue(filter.acceptsTable("order_service", "act_ru_task"));
+        assertEquals(" and lower(table_name) not like lower(?) and lower(table_name) not like lower(?)",
+                filter.tableCondition("order_service", "table_name").getSql());
+        assertEquals(Arrays.asList("databasechangelog", "databasechangeloglock", "act%"),
+                filter.tableCondition("workflow_service", "table_name").getParams());
+    }
+
+    @Test
+    public void regexIsMatchedOnlyInJava() {
+        ObjectFilter filter = ObjectFilter.acceptAll().includeTable("regex:^t_(order|item)").includeTable("log*")
+                .excludeTable("regex:_bak$");
+        ObjectFilter.Condition condition = filter.tableCondition("db", "table_name");
+        assertEquals("", condition.getSql());
+        assertTrue(condition.getParams().isEmpty());
+        assertTrue(filter.acceptsTable("db", "t_order_detail"));
+        assertTrue(filter.acceptsTable("db", "log_2026"));
+        assertFalse(filter.acceptsTable("db", "t_order_bak"));
+        assertFalse(filter.acceptsTable("db", "t_user"));
+    }
+
+    @Test
+    public void copyIsIndependent() {
+        ObjectFilter filter = ObjectFilter.acceptAll();
+        ObjectFilter copy = filter.copy();
+        filter.excludeTable("tmp_*");
+        assertFalse(filter.acceptsTable("db", "tmp_x"));
+        assertTrue(copy.acceptsTable("db", "tmp_x"));
+    }
+}
@@ -0,0 +1,137 @@
+package groovyutil;
+
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @Description: 自适应限流：并发用满时加性增加到上限，慢查询时乘性减小且一批慢查询只减小一次，固定并发和每秒查询数的硬上限
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class QueryThrottleTest {
+
+    @Test
+    public void limitGrowsToMaxWhenSaturated() throws Exception {
+        QueryThrottle throttle = new QueryThrottle(8, 0, true);
+        assertEquals(QueryThrottle.INITIAL_LIMIT, throttle.getLimit());
+        FakeServer server = new FakeServer(1);
+        run(throttle.wrap(server.connection()), 16, 40);
+        assertEquals(8, throttle.getLimit());
+        assertTrue("max in flight " + server.maxInFlight, server.maxInFlight.get() > QueryThrottle.INITIAL_LIMIT);
+        assertTrue("max in flight " + server.maxInFlight, server.maxInFlight.get() <= 8);
+    }
+
+    @Test
+    public void slowQueriesBackOffOncePerBatch() throws Exception {
+        QueryThrottle throttle = new QueryThrottle(8, 0, true);
+        FakeServer server = new FakeServer(1);
+        Connection con = throttle.wrap(server.connection());
+        run(con, 16, 40);
+        assertEquals(8, throttle.getLimit());
+        long backoffs = throttle.getBackoffs();
+
+        //同时返回的一批慢查询只减小一次
+        server.delayMillis = 50;
+        run(con, 4, 1);
+        assertEquals(backoffs + 1, throttle.getBackoffs());
+        assertEquals(6, throttle.getLimit());
+        //超过一次慢查询的耗时后再次减小
+        Thread.sleep(60);
+        run(con, 4, 1);
+        assertEquals(backoffs + 2, throttle.getBackoffs());
+        assertEquals(4, throttle.getLimit());
+    }
+
+    @Test
+    public void fixedLimitWithoutAdaptation() throws Exception {
+        QueryThrottle throttle = new QueryThrottle(3, 0, false);
+        FakeServer server = new FakeServer(2);
+        run(throttle.wrap(server.connection()), 8, 10);
+        assertEquals(3, throttle.getLimit());
+        assertTrue("max in flight " + server.maxInFlight, server.maxInFlight.get() <= 3);
+    }
+
+    /**
+     * 每秒50次查询时，26次查询的开始时间间隔至少为25个20ms
+     */
+    @Test
+    public void maxQpsSpacesQueryStarts() throws Exception {
+        QueryThrottle throttle = new QueryThrottle(4, 50, false);
+        Connection con = throttle.wrap(new FakeServer(0).connection());
+        long start = System.nanoTime();
+        run(con, 2, 13);
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("elapsed " + elapsed + " ms", elapsed >= 480);
+        assertTrue(throttle.toString(), throttle.toString().endsWith(", max qps: 50"));
+    }
+
+    /**
+     * threads个线程各执行queries次getColumns
+     */
+    private static void run(Connection con, int threads, int queries) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    DatabaseMetaData metaData = con.getMetaData();
+                    for (int q = 0; q < queries; q++) {
+                        metaData.getColumns("db", null, "t", null);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 模拟服务器：getColumns耗时delayMillis，记录同时执行的最大查询数
+     */
+    private static class FakeServer {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+        private volatile long delayMillis;
+
+        private FakeServer(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        private Connection connection() {
+            DatabaseMetaData metaData = (DatabaseMetaData) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{DatabaseMetaData.class}, (p, method, args) -> {
+                        if (!"getColumns".equals(method.getName())) {
+                            return null;
+                        }
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        try {
+                            if (delayMillis > 0) {
+                                Thread.sleep(delayMillis);
+                            }
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                        return null;
+                    });
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (p, method, args) -> "getMetaData".equals(method.getName()) ? metaData : null);
+        }
+    }
+}
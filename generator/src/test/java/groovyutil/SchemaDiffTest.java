@@ -0,0 +1,156 @@
+package groovyutil;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @Description: 表结构比较：新增、删除、类型变化、属性变化的列，以及新增、删除、变化的索引
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class SchemaDiffTest {
+
+    private static final ColumnDef ID = new ColumnDef("id", "bigint", 20, 0, false, true, true, "主键", null);
+
+    @Test
+    public void sameStructureHasNoChanges() {
+        TableSchema table = table(Arrays.asList(ID, varchar("name", 64)), index("idx_name", true, "name"));
+        SchemaDiff diff = SchemaDiff.compare(table, table(Arrays.asList(ID, varchar("name", 64)), index("idx_name", true, "name")));
+        assertTrue(diff.isEmpty());
+        assertEquals(0, diff.size());
+    }
+
+    @Test
+    public void detectsAddedAndDroppedColumns() {
+        TableSchema base = table(Arrays.asList(ID, varchar("name", 64), varchar("old", 16)));
+        TableSchema target = table(Arrays.asList(ID, varchar("name", 64), varchar("added", 16)));
+        SchemaDiff diff = SchemaDiff.compare(base, target);
+        assertEquals(Collections.singletonList("added"), names(diff.getAddedColumns()));
+        assertEquals(Collections.singletonList("old"), names(diff.getDroppedColumns()));
+        assertTrue(diff.getModifiedColumns().isEmpty());
+        assertTrue(diff.getAlteredColumns().isEmpty());
+    }
+
+    @Test
+    public void detectsTypeAndSizeChanges() {
+        TableSchema base = table(Arrays.asList(ID, varchar("name", 64), varchar("code", 8)));
+        TableSchema target = table(Arrays.asList(ID, varchar("name", 128),
+                new ColumnDef("code", "char", 8, 0, true, false, false, null, null)));
+        SchemaDiff diff = SchemaDiff.compare(base, target);
+        assertEquals(Arrays.asList("name", "code"), names(diff.getModifiedColumns()));
+        assertEquals(64, diff.getPreviousColumn("name").getSize());
+        assertEquals("varchar", diff.getPreviousColumn("code").getType());
+    }
+
+    @Test
+    public void detectsDecimalScaleChanges() {
+        TableSchema base = table(Arrays.asList(ID, new ColumnDef("amount", "decimal", 10, 2, true, false, false, null, null)));
+        TableSchema target = table(Arrays.asList(ID, new ColumnDef("amount", "decimal", 10, 4, true, false, false, null, null)));
+        SchemaDiff diff = SchemaDiff.compare(base, target);
+        assertEquals(Collections.singletonList("amount"), names(diff.getModifiedColumns()));
+        assertEquals(2, diff.getPreviousColumn("amount").getDecimalDigits());
+        String script = new GroovyScriptRenderer("p", "a", "2026-10-18").renderDiff(diff);
+        assertTrue(script, script.contains("newDataType: \"decimal(10,4)\""));
+        assertTrue(script, script.contains("MODIFY `amount` decimal(10,4)"));
+    }
+
+    @Test
+    public void detectsNullableDefaultAndRemarksChanges() {
+        TableSchema base = table(Arrays.asList(ID,
+                new ColumnDef("a", "int", 11, 0, true, false, false, null, null),
+                new ColumnDef("b", "int", 11, 0, false, false, false, null, null),
+                new ColumnDef("c", "int", 11, 0, false, false, false, "old", null)));
+        TableSchema target = table(Arrays.asList(ID,
+                new ColumnDef("a", "int", 11, 0, false, false, false, null, null),
+                new ColumnDef("b", "int", 11, 0, false, false, false, null, "0"),
+                new ColumnDef("c", "int", 11, 0, false, false, false, "new", null)));
+        SchemaDiff diff = SchemaDiff.compare(base, target);
+        assertEquals(Arrays.asList("a", "b", "c"), names(diff.getAlteredColumns()));
+        assertTrue(diff.getModifiedColumns().isEmpty());
+        assertTrue(diff.getPreviousColumn("a").isNullable());
+    }
+
+    @Test
+    public void emptyAndMissingRemarksAreTheSame() {
+        TableSchema base = table(Arrays.asList(ID, new ColumnDef("a", "int", 11, 0, true, false, false, null, null)));
+        TableSchema target = table(Arrays.asList(ID, new ColumnDef("a", "int", 11, 0, true, false, false, "", null)));
+        assertTrue(SchemaDiff.compare(base, target).isEmpty());
+    }
+
+    @Test
+    public void detectsCreatedDroppedAndChangedIndexes() {
+        List<ColumnDef> columns = Arrays.asList(ID, varchar("a", 16), varchar("b", 16));
+        Map<String, List<IndexInfo>> baseIndexes = index("idx_old", true, "a");
+        baseIndexes.putAll(index("idx_changed", true, "a"));
+        baseIndexes.putAll(index("idx_same", true, "a", "b"));
+        Map<String, List<IndexInfo>> targetIndexes = index("idx_new", false, "b");
+        targetIndexes.putAll(index("idx_changed", true, "a", "b"));
+        targetIndexes.putAll(index("idx_same", true, "a", "b"));
+        SchemaDiff diff = SchemaDiff.compare(table(columns, baseIndexes), table(columns, targetIndexes));
+        assertEquals(Arrays.asList("idx_changed", "idx_old"), diff.getDroppedIndexes());
+        assertEquals(Arrays.asList("idx_changed", "idx_new"), new ArrayList<>(diff.getCreatedIndexes().keySet()));
+        assertEquals(4, diff.size());
+    }
+
+    @Test
+    public void indexColumnOrderFollowsOrdinalPosition() {
+        List<ColumnDef> columns = Arrays.asList(ID, varchar("a", 16), varchar("b", 16));
+        Map<String, List<IndexInfo>> base = new HashMap<>();
+        base.put("idx", Arrays.asList(new IndexInfo(true, "idx", "b", 2), new IndexInfo(true, "idx", "a", 1)));
+        assertTrue(SchemaDiff.compare(table(columns, base), table(columns, index("idx", true, "a", "b"))).isEmpty());
+        assertFalse(SchemaDiff.compare(table(columns, base), table(columns, index("idx", true, "b", "a"))).isEmpty());
+    }
+
+    @Test
+    public void hashIdentifiesTheChange() {
+        TableSchema base = table(Arrays.asList(ID, varchar("name", 64)));
+        TableSchema first = table(Arrays.asList(ID, varchar("name", 128)));
+        TableSchema second = table(Arrays.asList(ID, varchar("name", 255)));
+        assertEquals(SchemaDiff.compare(base, first).getHash(), SchemaDiff.compare(base, first).getHash());
+        assertNotEquals(SchemaDiff.compare(base, first).getHash(), SchemaDiff.compare(base, second).getHash());
+    }
+
+    private static ColumnDef varchar(String name, int size) {
+        return new ColumnDef(name, "varchar", size, 0, true, false, false, null, null);
+    }
+
+    private static Map<String, List<IndexInfo>> index(String name, boolean nonUnique, String... columns) {
+        List<IndexInfo> index = new ArrayList<>();
+        for (int i = 0; i < columns.length; i++) {
+            index.add(new IndexInfo(nonUnique, name, columns[i], i + 1));
+        }
+        Map<String, List<IndexInfo>> indexMap = new HashMap<>();
+        indexMap.put(name, index);
+        return indexMap;
+    }
+
+    private static TableSchema table(List<ColumnDef> columns) {
+        return table(columns, new HashMap<>());
+    }
+
+    private static TableSchema table(List<ColumnDef> columns, Map<String, List<IndexInfo>> indexMap) {
+        Map<String, List<IndexInfo>> indexes = new HashMap<>(indexMap);
+        indexes.put("PRIMARY", Collections.singletonList(new IndexInfo(false, "PRIMARY", "id", 1)));
+        return new TableSchema("t", columns, indexes, new HashSet<>(Collections.singletonList("id")));
+    }
+
+    private static List<String> names(List<ColumnDef> columns) {
+        List<String> names = new ArrayList<>();
+        for (ColumnDef column : columns) {
+            names.add(column.getName());
+        }
+        return names;
+    }
+}
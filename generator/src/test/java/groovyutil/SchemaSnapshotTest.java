@@ -0,0 +1,128 @@
+package groovyutil;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @Description: 快照的写入读取往返、CRC校验失败以及不支持的版本号
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class SchemaSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTripKeepsStructure() throws IOException {
+        Map<String, List<TableSchema>> schemas = schemas();
+        File file = folder.newFile("schema.snapshot");
+        SchemaSnapshot.write(file, schemas);
+        Map<String, List<TableSchema>> read = SchemaSnapshot.read(file);
+
+        assertEquals(new ArrayList<>(schemas.keySet()), new ArrayList<>(read.keySet()));
+        for (Map.Entry<String, List<TableSchema>> schema : schemas.entrySet()) {
+            List<TableSchema> tables = read.get(schema.getKey());
+            assertEquals(schema.getValue().size(), tables.size());
+            for (int i = 0; i < tables.size(); i++) {
+                TableSchema expected = schema.getValue().get(i);
+                TableSchema actual = tables.get(i);
+                assertEquals(expected.getTableName(), actual.getTableName());
+                assertEquals(expected.fingerprint(), actual.fingerprint());
+                assertEquals(expected.structureHash(), actual.structureHash());
+            }
+        }
+        ColumnDef amount = read.get("db0").get(0).getColumns().get(2);
+        assertEquals(10, amount.getSize());
+        assertEquals(2, amount.getDecimalDigits());
+        assertNull(amount.getRemarks());
+    }
+
+    @Test
+    public void rejectsCorruptedContent() throws IOException {
+        File file = folder.newFile("corrupted.snapshot");
+        SchemaSnapshot.write(file, schemas());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long position = raf.length() / 2;
+            raf.seek(position);
+            int value = raf.read();
+            raf.seek(position);
+            raf.write(value ^ 0xFF);
+        }
+        try {
+            SchemaSnapshot.read(file);
+            fail("The corrupted snapshot was read");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("checksum mismatch"));
+        }
+    }
+
+    @Test
+    public void rejectsUnsupportedVersion() throws IOException {
+        File file = folder.newFile("future.snapshot");
+        SchemaSnapshot.write(file, schemas());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            //魔数之后为版本号
+            raf.seek(4);
+            raf.writeInt(SchemaSnapshot.VERSION + 1);
+        }
+        try {
+            SchemaSnapshot.read(file);
+            fail("The snapshot of an unknown version was read");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Unsupported snapshot version"));
+        }
+    }
+
+    @Test
+    public void rejectsOtherFiles() throws IOException {
+        File file = folder.newFile("other.snapshot");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.writeBytes("not a snapshot file");
+        }
+        try {
+            SchemaSnapshot.read(file);
+            fail("A file without the magic number was read");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Invalid snapshot file"));
+        }
+    }
+
+    private static Map<String, List<TableSchema>> schemas() {
+        Map<String, List<TableSchema>> schemas = new LinkedHashMap<>();
+        schemas.put("db0", Arrays.asList(orders("orders"), orders("orders_history")));
+        schemas.put("db1", Collections.singletonList(orders("payments")));
+        return schemas;
+    }
+
+    private static TableSchema orders(String tableName) {
+        List<ColumnDef> columns = new ArrayList<>();
+        columns.add(new ColumnDef("id", "bigint unsigned", 20, 0, false, true, true, "\u4e3b\u952e", null));
+        columns.add(new ColumnDef("code", "varchar", 32, 0, false, false, false, "\u7f16\u53f7", ""));
+        columns.add(new ColumnDef("amount", "decimal", 10, 2, true, false, false, null, "0.00"));
+        columns.add(new ColumnDef("created", "datetime", 19, 0, true, false, false, "", "CURRENT_TIMESTAMP"));
+        Map<String, List<IndexInfo>> indexMap = new HashMap<>(8);
+        indexMap.put("PRIMARY", Collections.singletonList(new IndexInfo(false, "PRIMARY", "id", 1)));
+        indexMap.put("uk_code", Arrays.asList(new IndexInfo(false, "uk_code", "code", 1), new IndexInfo(false, "uk_code", "created", 2)));
+        indexMap.put("idx_amount", Collections.singletonList(new IndexInfo(true, "idx_amount", "amount", 1)));
+        return new TableSchema(tableName, columns, indexMap, new HashSet<>(Collections.singletonList("id")));
+    }
+}
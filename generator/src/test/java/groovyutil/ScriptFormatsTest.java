@@ -0,0 +1,158 @@
+package groovyutil;
+
+import groovyutil.standin.StandInDatabase;
+import groovyutil.standin.StandInDriver;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @Description: 各输出格式由同一个表结构渲染：yaml、xml、ddl、flyway的内容（包括decimal的小数位数），
+ * flyway的文件名与版本号，以及同一个库中版本号冲突的检查
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class ScriptFormatsTest {
+
+    private static final RenderSettings SETTINGS = new RenderSettings("tester", "db.changelog", "2026-10-18", false);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void rendersYaml() throws IOException {
+        String yaml = render("yaml");
+        assertTrue(yaml, yaml.startsWith("databaseChangeLog:\r\n- changeSet:\r\n    id: \"2026-10-18-t_order\"\r\n    author: \"tester\"\r\n"));
+        assertTrue(yaml, yaml.contains("        - column:\r\n            name: amount\r\n            type: decimal(10,2)\r\n"));
+        assertTrue(yaml, yaml.contains("            remarks: \"user name\"\r\n            defaultValue: \"x\"\r\n"));
+        assertTrue(yaml, yaml.contains("    - createIndex:\r\n        tableName: t_order\r\n        indexName: uk_name\r\n        unique: true\r\n"));
+        assertEquals("t_order.yaml", renderer("yaml").getFileName("t_order"));
+    }
+
+    @Test
+    public void rendersXml() throws IOException {
+        String xml = render("xml");
+        assertTrue(xml, xml.startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"));
+        assertTrue(xml, xml.contains("\t<changeSet author=\"tester\" id=\"2026-10-18-t_order\">\r\n"));
+        assertTrue(xml, xml.contains("\t\t\t<column name=\"amount\" type=\"decimal(10,2)\">\r\n"));
+        assertTrue(xml, xml.contains("\t\t<createIndex tableName=\"t_order\" indexName=\"idx_amount\" unique=\"false\">\r\n"
+                + "\t\t\t<column name=\"amount\"/>\r\n\t\t\t<column name=\"created\"/>\r\n"));
+        assertTrue(xml, xml.endsWith("</databaseChangeLog>"));
+    }
+
+    @Test
+    public void rendersMysqlDdl() throws IOException {
+        assertEquals("CREATE TABLE `t_order` (\r\n"
+                + "  `id` bigint(20) unsigned NOT NULL AUTO_INCREMENT COMMENT 'id',\r\n"
+                + "  `name` varchar(64) NOT NULL DEFAULT 'x' COMMENT 'user name',\r\n"
+                + "  `amount` decimal(10,2),\r\n"
+                + "  `created` datetime DEFAULT CURRENT_TIMESTAMP,\r\n"
+                + "  PRIMARY KEY (`id`),\r\n"
+                + "  KEY `idx_amount` (`amount`, `created`),\r\n"
+                + "  UNIQUE KEY `uk_name` (`name`)\r\n"
+                + ");", render("ddl"));
+        assertEquals("t_order.sql", renderer("ddl").getFileName("t_order"));
+    }
+
+    @Test
+    public void rendersFlywayMigration() throws IOException {
+        assertEquals("-- changeSet 2026-10-18-t_order by tester\r\n"
+                + "CREATE TABLE `t_order` (\r\n"
+                + "  `id` bigint(20) unsigned NOT NULL AUTO_INCREMENT COMMENT 'id',\r\n"
+                + "  `name` varchar(64) NOT NULL DEFAULT 'x' COMMENT 'user name',\r\n"
+                + "  `amount` decimal(10,2),\r\n"
+                + "  `created` datetime DEFAULT CURRENT_TIMESTAMP,\r\n"
+                + "  PRIMARY KEY (`id`)\r\n"
+                + ");\r\n"
+                + "CREATE INDEX `idx_amount` ON `t_order` (`amount`, `created`);\r\n"
+                + "CREATE UNIQUE INDEX `uk_name` ON `t_order` (`name`);", render("flyway"));
+        ScriptRenderer flyway = renderer("flyway");
+        assertEquals("V1_1268315617", flyway.getVersion("t_order"));
+        assertEquals("V1_1268315617__create_t_order.sql", flyway.getFileName("t_order"));
+    }
+
+    /**
+     * groovy的完整脚本与原有脚本保持一致，类型不带小数位数
+     */
+    @Test
+    public void groovyKeepsTheOriginalType() throws IOException {
+        String groovy = render("groovy");
+        assertTrue(groovy, groovy.contains("column(name: 'amount', type: 'decimal(10)', remarks: \"null\")"));
+        assertNull(renderer("groovy").getVersion("t_order"));
+    }
+
+    @Test
+    public void unknownFormatIsRejected() {
+        try {
+            ScriptFormats.resolve("yaml,unknown");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("unknown"));
+        }
+    }
+
+    /**
+     * t_uejgtcuo和t_iiwucoup的版本号相同，同一个库中的第二张表失败，其他库不受影响
+     */
+    @Test
+    public void flywayVersionCollisionFailsTheTable() throws Exception {
+        assertEquals(FlywaySqlFormat.version("t_uejgtcuo"), FlywaySqlFormat.version("t_iiwucoup"));
+        StandInDatabase database = StandInDatabase.register("flyway-versions");
+        try {
+            database.addSchema("app").addAll(Arrays.asList(table("t_uejgtcuo"), table("t_iiwucoup")));
+            database.addSchema("other").add(table("t_iiwucoup"));
+            GenerationResult result = GroovyScriptGenerator.builder().url(database.url("app")).username("standin")
+                    .password("standin").driver(StandInDriver.class.getName()).formats("flyway")
+                    .targetDirectory(folder.newFolder("scripts")).build().run();
+            assertEquals(2, result.count(TableResult.Status.WRITTEN));
+            assertEquals(1, result.getFailures().size());
+            TableResult failure = result.getFailures().get(0);
+            assertEquals("app", failure.getDb());
+            assertEquals("flyway", failure.getFormat());
+            assertTrue(failure.getError().getMessage(), failure.getError().getMessage().contains("is already used by table"));
+        } finally {
+            StandInDatabase.unregister("flyway-versions");
+        }
+    }
+
+    private static StandInDatabase.Table table(String name) {
+        return new StandInDatabase.Table(name).column(new StandInDatabase.Column("id", "bigint", "bigint(20)").notNull()).primaryKey("id");
+    }
+
+    private static ScriptRenderer renderer(String format) {
+        return ScriptFormats.resolve(format).get(0).newRenderer(SETTINGS);
+    }
+
+    private static String render(String format) throws IOException {
+        StringBuilder out = new StringBuilder();
+        renderer(format).render(table(), out);
+        return out.toString();
+    }
+
+    private static TableSchema table() {
+        List<ColumnDef> columns = new ArrayList<>();
+        columns.add(new ColumnDef("id", "bigint unsigned", 20, 0, false, true, true, "id", null));
+        columns.add(new ColumnDef("name", "varchar", 64, 0, false, false, false, "user name", "x"));
+        columns.add(new ColumnDef("amount", "decimal", 10, 2, true, false, false, null, null));
+        columns.add(new ColumnDef("created", "datetime", 19, 0, true, false, false, null, "CURRENT_TIMESTAMP"));
+        Map<String, List<IndexInfo>> indexMap = new HashMap<>();
+        indexMap.put("PRIMARY", Arrays.asList(new IndexInfo(false, "PRIMARY", "id", 1)));
+        indexMap.put("uk_name", Arrays.asList(new IndexInfo(false, "uk_name", "name", 1)));
+        indexMap.put("idx_amount", Arrays.asList(new IndexInfo(true, "idx_amount", "amount", 1),
+                new IndexInfo(true, "idx_amount", "created", 2)));
+        return new TableSchema("t_order", columns, indexMap, new HashSet<>(Arrays.asList("id")));
+    }
+}
@@ -0,0 +1,137 @@
+package groovyutil;
+
+import groovyutil.standin.StandInDatabase;
+import groovyutil.standin.StandInDriver;
+import groovyutil.standin.SyntheticSchema;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @Description: 编程接口：构建时校验参数，逐表结果交给监听并汇总返回，单表失败不中断其他表，可多次运行
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class ScriptGenerationTest {
+
+    private static final String DATABASE_NAME = "script-generation";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private StandInDatabase database;
+
+    @Before
+    public void setUp() {
+        database = new SyntheticSchema().schemas(2).tables(3).register(DATABASE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        StandInDatabase.unregister(DATABASE_NAME);
+    }
+
+    @Test
+    public void listenerReceivesEveryResult() throws Exception {
+        File target = folder.newFolder("scripts");
+        List<TableResult> received = Collections.synchronizedList(new ArrayList<>());
+        GenerationResult result = builder(target).threads(2).build().run(received::add);
+
+        assertTrue(result.isSuccessful());
+        assertEquals(6, result.getTables().size());
+        assertEquals(6, result.count(TableResult.Status.WRITTEN));
+        assertEquals(new HashSet<>(result.getTables()), new HashSet<>(received));
+        for (TableResult table : result.getTables()) {
+            assertEquals(table.getTableName(), table.getModel().getTableName());
+            assertEquals(new File(new File(target, table.getDb()), table.getTableName() + ".groovy"), table.getFile());
+            String file = new String(Files.readAllBytes(table.getFile().toPath()), StandardCharsets.UTF_8);
+            assertTrue(file.startsWith(table.getScript()));
+        }
+    }
+
+    @Test
+    public void scriptsAreNotKeptWhenCaptureIsOff() throws Exception {
+        GenerationResult result = builder(folder.newFolder("scripts")).captureScripts(false).build().run();
+        assertEquals(6, result.count(TableResult.Status.WRITTEN));
+        for (TableResult table : result.getTables()) {
+            assertNull(table.getScript());
+            assertTrue(table.getFile().isFile());
+        }
+    }
+
+    @Test
+    public void failedTableDoesNotStopTheOthers() throws Exception {
+        File target = folder.newFolder("scripts");
+        //脚本文件的位置被非空目录占用，写入失败
+        File blocked = new File(target, "db_1" + File.separator + "t_0002.groovy");
+        assertTrue(blocked.mkdirs());
+        assertTrue(new File(blocked, "keep").createNewFile());
+
+        GenerationResult result = builder(target).build().run();
+        assertFalse(result.isSuccessful());
+        assertEquals(5, result.count(TableResult.Status.WRITTEN));
+        assertEquals(1, result.getFailures().size());
+        TableResult failure = result.getFailures().get(0);
+        assertEquals("db_1", failure.getDb());
+        assertEquals("t_0002", failure.getTableName());
+        assertNotNull(failure.getError());
+        assertTrue(result.toString(), result.toString().contains("failed: 1"));
+    }
+
+    @Test
+    public void generationCanRunAgain() throws Exception {
+        ScriptGeneration generation = builder(folder.newFolder("scripts")).incremental(true).build();
+        assertEquals(6, generation.run().count(TableResult.Status.WRITTEN));
+        assertEquals(6, generation.run().count(TableResult.Status.UNCHANGED));
+    }
+
+    @Test
+    public void invalidOptionsAreRejectedOnBuild() throws Exception {
+        try {
+            GroovyScriptGenerator.builder().url(database.url("db_0")).build();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("[-target]"));
+        }
+        try {
+            builder(folder.newFolder("scripts")).formats("groovy", "unknown").build();
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("unknown"));
+        }
+    }
+
+    @Test
+    public void unknownDriverIsReportedAsSqlException() throws Exception {
+        try {
+            builder(folder.newFolder("scripts")).driver("com.example.MissingDriver").build().run();
+            fail();
+        } catch (SQLException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("com.example.MissingDriver"));
+        }
+    }
+
+    private GroovyScriptGenerator.Builder builder(File target) {
+        return GroovyScriptGenerator.builder().url(database.url(SyntheticSchema.schemaName(0))).username("standin")
+                .password("standin").driver(StandInDriver.class.getName()).author("tester").packageName("db.changelog")
+                .targetDirectory(target);
+    }
+}
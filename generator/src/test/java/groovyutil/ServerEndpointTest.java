@@ -0,0 +1,144 @@
+package groovyutil;
+
+import groovyutil.standin.StandInDatabase;
+import groovyutil.standin.StandInDriver;
+import groovyutil.standin.SyntheticSchema;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @Description: 服务器地址的解析：以-url为模板替换主机和端口并保留库和参数（包括用户名、密码参数），名称、线程数，
+ * 地址文件和重复名称的检查，以及按服务器分目录生成
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class ServerEndpointTest {
+
+    private static final String TEMPLATE = "jdbc:mysql://primary:3306/app?user=reader&password=p%40ss&useSSL=false";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void hostReplacesOnlyTheAuthority() {
+        ServerEndpoint endpoint = ServerEndpoint.parse("replica-1:3307", TEMPLATE);
+        assertEquals("jdbc:mysql://replica-1:3307/app?user=reader&password=p%40ss&useSSL=false", endpoint.getUrl());
+        assertEquals("replica-1_3307", endpoint.getName());
+        assertEquals(0, endpoint.getThreads());
+    }
+
+    @Test
+    public void templateWithoutDatabaseOrParameters() {
+        assertEquals("jdbc:mysql://shard-2", ServerEndpoint.parse("shard-2", "jdbc:mysql://localhost").getUrl());
+        assertEquals("jdbc:mysql://shard-2:3310?user=root", ServerEndpoint.parse("shard-2:3310", "jdbc:mysql://localhost?user=root").getUrl());
+    }
+
+    @Test
+    public void nameAndThreads() {
+        ServerEndpoint endpoint = ServerEndpoint.parse(" eu=db.eu.example.com:3306  4 ", TEMPLATE);
+        assertEquals("eu", endpoint.getName());
+        assertEquals(4, endpoint.getThreads());
+        assertEquals("jdbc:mysql://db.eu.example.com:3306/app?user=reader&password=p%40ss&useSSL=false", endpoint.getUrl());
+    }
+
+    @Test
+    public void fullUrlIsKept() {
+        String url = "jdbc:mysql://other:3306/erp?user=admin&password=secret";
+        ServerEndpoint endpoint = ServerEndpoint.parse(url, TEMPLATE);
+        assertEquals(url, endpoint.getUrl());
+        assertEquals("other_3306", endpoint.getName());
+        //URL参数中的=不会被当作名称
+        assertEquals(url, ServerEndpoint.parse(url, null).getUrl());
+        assertEquals("erp", ServerEndpoint.parse("erp=" + url + " 2", null).getName());
+    }
+
+    @Test
+    public void hostWithoutTemplateIsRejected() {
+        try {
+            ServerEndpoint.parse("replica-1:3306", "");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("[-url]"));
+        }
+    }
+
+    @Test
+    public void parseListSkipsEmptyEntries() {
+        List<ServerEndpoint> endpoints = ServerEndpoint.parseList("a:3306, ,b:3306 2,", TEMPLATE);
+        assertEquals(Arrays.asList("a_3306", "b_3306"), names(endpoints));
+        assertEquals(2, endpoints.get(1).getThreads());
+    }
+
+    @Test
+    public void loadIgnoresCommentsAndBlankLines() throws IOException {
+        File file = folder.newFile("hosts.txt");
+        Files.write(file.toPath(), Arrays.asList("# shards", "", "shard0=10.0.0.1:3306 8", "  # disabled=10.0.0.9", "shard1=10.0.0.2:3306"),
+                StandardCharsets.UTF_8);
+        List<ServerEndpoint> endpoints = ServerEndpoint.load(file, TEMPLATE);
+        assertEquals(Arrays.asList("shard0", "shard1"), names(endpoints));
+        assertEquals(8, endpoints.get(0).getThreads());
+        assertEquals("jdbc:mysql://10.0.0.2:3306/app?user=reader&password=p%40ss&useSSL=false", endpoints.get(1).getUrl());
+    }
+
+    @Test
+    public void duplicateNamesAreRejected() {
+        ServerEndpoint.checkNames(ServerEndpoint.parseList("a:3306,a:3307", TEMPLATE));
+        try {
+            ServerEndpoint.checkNames(ServerEndpoint.parseList("x=a:3306,x=b:3306", TEMPLATE));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("[x]"));
+        }
+    }
+
+    /**
+     * 替身库的地址忽略端口，两个服务器连接同一个替身库，脚本写入各自的目录且内容相同
+     */
+    @Test
+    public void eachServerIsGeneratedIntoItsOwnDirectory() throws Exception {
+        StandInDatabase database = new SyntheticSchema().schemas(2).tables(4).register("fan-out");
+        try {
+            File target = folder.newFolder("scripts");
+            List<TableResult> results = Collections.synchronizedList(new ArrayList<>());
+            assertTrue(GroovyScriptGenerator.run(new String[]{"-url" + database.url(SyntheticSchema.schemaName(0)),
+                    "-driver" + StandInDriver.class.getName(), "-usernamestandin", "-passwordstandin",
+                    "-target" + target.getPath() + File.separator, "-hosts=a=fan-out:3306 2,b=fan-out:3307"}, results::add));
+            assertEquals(16, results.size());
+            for (TableResult result : results) {
+                assertEquals(TableResult.Status.WRITTEN, result.getStatus());
+            }
+            for (String db : new String[]{"db_0", "db_1"}) {
+                for (int t = 0; t < 4; t++) {
+                    String script = db + File.separator + String.format("t_%04d.groovy", t);
+                    assertArrayEquals(script, Files.readAllBytes(new File(target, "a" + File.separator + script).toPath()),
+                            Files.readAllBytes(new File(target, "b" + File.separator + script).toPath()));
+                }
+            }
+        } finally {
+            StandInDatabase.unregister("fan-out");
+        }
+    }
+
+    private static List<String> names(List<ServerEndpoint> endpoints) {
+        List<String> names = new ArrayList<>();
+        for (ServerEndpoint endpoint : endpoints) {
+            names.add(endpoint.getName());
+        }
+        return names;
+    }
+}
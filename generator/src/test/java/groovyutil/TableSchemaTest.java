@@ -0,0 +1,48 @@
+package groovyutil;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * @Description: 表结构指纹与结构哈希包含decimal的小数位数，没有小数位数的表的哈希不变
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+public class TableSchemaTest {
+
+    private static final ColumnDef ID = new ColumnDef("id", "bigint", 20, 0, false, true, true, "", null);
+
+    @Test
+    public void decimalScaleChangesTheHashes() {
+        TableSchema two = table(new ColumnDef("amount", "decimal", 10, 2, true, false, false, null, null));
+        TableSchema four = table(new ColumnDef("amount", "decimal", 10, 4, true, false, false, null, null));
+        assertNotEquals(two.fingerprint(), four.fingerprint());
+        assertNotEquals(two.structureHash(), four.structureHash());
+        RenderSettings settings = new RenderSettings("p", "a", "2026-10-18", true);
+        assertNotEquals(settings.changeSetId(two), settings.changeSetId(four));
+    }
+
+    /**
+     * 已发布的确定性changeSet id不能因加入小数位数而变化
+     */
+    @Test
+    public void hashesWithoutScaleAreUnchanged() {
+        TableSchema table = table(new ColumnDef("amount", "decimal", 10, 0, true, false, false, null, null));
+        assertEquals("1ad6cf1ada52336439cec02254cb727bf068729275308ecdcbf911969bace447", table.structureHash());
+    }
+
+    private static TableSchema table(ColumnDef column) {
+        List<ColumnDef> columns = Arrays.asList(ID, column);
+        HashMap<String, List<IndexInfo>> indexMap = new HashMap<>();
+        indexMap.put("PRIMARY", Collections.singletonList(new IndexInfo(false, "PRIMARY", "id", 1)));
+        return new TableSchema("t", columns, indexMap, new HashSet<>(Collections.singletonList("id")));
+    }
+}
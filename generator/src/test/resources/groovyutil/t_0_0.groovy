@@ -0,0 +1,38 @@
+package default_package
+
+databaseChangeLog(logicalFilePath: 't_0_0.groovy') {
+	changeSet(author: 'default_author', id: '2026-10-18-t_0_0') {
+		createTable(tableName: "t_0_0") {
+			column(name: 'id', type: 'bigint unsigned(20)', autoIncrement: true, remarks: "主键") {
+				constraints(nullable: false,
+					primaryKey: true
+				)
+			}
+			column(name: 'c0', type: 'varchar(64)', remarks: "col 0") {
+				constraints(nullable: true)
+			}
+			column(name: 'c1', type: 'datetime',remarks:"col 1", defaultValueComputed: "CURRENT_TIMESTAMP") {
+				constraints(nullable: true)
+			}
+			column(name: 'c2', type: 'tinyint(1)', remarks: "col 2", defaultValue: "0") {
+				constraints(nullable: false)
+			}
+			column(name: 'c3', type: 'decimal(10)', remarks: "col 3") {
+				constraints(nullable: true)
+			}
+			column(name: 'c4', type: 'timestamp',remarks:"col 4", defaultValueComputed: "CURRENT_TIMESTAMP") {
+				constraints(nullable: true)
+			}
+			column(name: 'c5', type: 'varchar(64)', remarks: "col 5", defaultValue: "x") {
+				constraints(nullable: true)
+			}
+		}
+		createIndex(tableName: "t_0_0", indexName: "idx_0", unique: false) {
+			column(name: "c2")
+		}
+		createIndex(tableName: "t_0_0", indexName: "uk_0", unique: true) {
+			column(name: "c0")
+			column(name: "c1")
+		}
+	}
+}
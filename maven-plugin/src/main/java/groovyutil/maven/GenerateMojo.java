@@ -0,0 +1,301 @@
+package groovyutil.maven;
+
+import groovyutil.GenerationResult;
+import groovyutil.GroovyScriptGenerator;
+import groovyutil.TableResult;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+
+/**
+ * @Description: groovy-generator:generate，在构建的JVM中生成脚本，不再单独启动进程。
+ * 默认增量生成：表的校验和与结构指纹未变化时跳过，内容相同的脚本不重写，下游插件看到的文件保持不变；
+ * 从快照生成时，快照和参数都未变化则直接跳过。单表失败时输出每张表的异常，并使构建失败（可用failOnError关闭）。
+ * 插件描述文件由maven-plugin-plugin按注解生成，参数也可以用groovy.generator.参数名属性指定
+ * @CreateDate: 2026/10/18
+ * @Version: 1.0.0
+ */
+@Mojo(name = "generate", defaultPhase = LifecyclePhase.GENERATE_RESOURCES, threadSafe = true)
+public class GenerateMojo extends AbstractMojo {
+
+    /**
+     * 从快照生成时记录参数的文件，保存在脚本根目录
+     */
+    private static final String STAMP_FILE_NAME = ".generator-stamp";
+
+    /**
+     * 跳过生成
+     */
+    @Parameter(property = "groovy.generator.skip", defaultValue = "false")
+    private boolean skip;
+
+    /**
+     * 脚本存放的根目录，每个库的脚本存放在以库名命名的子目录
+     */
+    @Parameter(property = "groovy.generator.targetDirectory", defaultValue = "${project.build.directory}/groovy-scripts", required = true)
+    private File targetDirectory;
+
+    /**
+     * 数据库连接地址，从快照生成时不需要
+     */
+    @Parameter(property = "groovy.generator.url")
+    private String url;
+
+    /**
+     * 数据库用户名
+     */
+    @Parameter(property = "groovy.generator.username")
+    private String username;
+
+    /**
+     * 数据库密码
+     */
+    @Parameter(property = "groovy.generator.password")
+    private String password;
+
+    /**
+     * 数据库驱动，其他驱动作为插件的dependency添加
+     */
+    @Parameter(property = "groovy.generator.driver", defaultValue = "com.mysql.jdbc.Driver")
+    private String driver;
+
+    /**
+     * 脚本的作者
+     */
+    @Parameter(property = "groovy.generator.author")
+    private String author;
+
+    /**
+     * 脚本的包名
+     */
+    @Parameter(property = "groovy.generator.packageName")
+    private String packageName;
+
+    /**
+     * 按库从information_schema一次抽取表结构
+     */
+    @Parameter(property = "groovy.generator.bulk", defaultValue = "false")
+    private boolean bulk;
+
+    /**
+     * 并发线程数
+     */
+    @Parameter(property = "groovy.generator.threads", defaultValue = "1")
+    private int threads;
+
+    /**
+     * 跳过未变化的表，内容相同的脚本不重写，只对groovy格式有效。连接数据库生成时按表的校验和与结构指纹逐表跳过，
+     * 仍会连接数据库查询校验和；从快照生成时还会在脚本根目录记录快照和参数，都未变化时整个生成直接跳过。
+     * 为false时每次都全量生成
+     */
+    @Parameter(property = "groovy.generator.incremental", defaultValue = "true")
+    private boolean incremental;
+
+    /**
+     * 逗号分隔的输出格式：groovy、yaml、xml、ddl、flyway，多种格式时每种格式写入以格式名命名的子目录；非groovy格式不支持增量生成
+     */
+    @Parameter(property = "groovy.generator.formats", defaultValue = "groovy")
+    private String formats;
+
+    /**
+     * changeSet id由表结构哈希生成，相同的结构总是生成相同的脚本
+     */
+    @Parameter(property = "groovy.generator.deterministic", defaultValue = "false")
+    private boolean deterministic;
+
+    /**
+     * 按外键依赖层级生成主changelog
+     */
+    @Parameter(property = "groovy.generator.dependencies", defaultValue = "false")
+    private boolean dependencies;
+
+    /**
+     * 按查询耗时自适应调整元数据查询的并发
+     */
+    @Parameter(property = "groovy.generator.throttle", defaultValue = "false")
+    private boolean throttle;
+
+    /**
+     * 每秒元数据查询数的上限，0表示不限制
+     */
+    @Parameter(property = "groovy.generator.maxQps", defaultValue = "0")
+    private int maxQps;
+
+    /**
+     * 逗号分隔的库名规则
+     */
+    @Parameter(property = "groovy.generator.includeSchemas")
+    private String includeSchemas;
+
+    /**
+     * 逗号分隔的排除库名规则
+     */
+    @Parameter(property = "groovy.generator.excludeSchemas")
+    private String excludeSchemas;
+
+    /**
+     * 逗号分隔的表名规则，可用库名限定
+     */
+    @Parameter(property = "groovy.generator.includeTables")
+    private String includeTables;
+
+    /**
+     * 逗号分隔的排除表名规则
+     */
+    @Parameter(property = "groovy.generator.excludeTables")
+    private String excludeTables;
+
+    /**
+     * 过滤规则的properties文件
+     */
+    @Parameter(property = "groovy.generator.filterConfig")
+    private File filterConfig;
+
+    /**
+     * 从快照生成，不连接数据库
+     */
+    @Parameter(property = "groovy.generator.fromSnapshot")
+    private File fromSnapshot;
+
+    /**
+     * 与快照比较，只为有变化的表生成增量脚本
+     */
+    @Parameter(property = "groovy.generator.diffBase")
+    private File diffBase;
+
+    /**
+     * 有表生成失败时使构建失败
+     */
+    @Parameter(property = "groovy.generator.failOnError", defaultValue = "true")
+    private boolean failOnError;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (skip) {
+            getLog().info("Groovy script generation is skipped");
+            return;
+        }
+        File stamp = new File(targetDirectory, STAMP_FILE_NAME);
+        String configuration = configurationHash();
+        if (incremental && isUpToDate(stamp, configuration)) {
+            getLog().info("Groovy scripts are up to date with " + fromSnapshot);
+            return;
+        }
+        //增量生成只针对groovy脚本，其他格式每次全量生成，内容相同的文件同样不重写
+        boolean groovyOnly = formats == null || formats.trim().isEmpty() || "groovy".equals(formats.trim());
+        GroovyScriptGenerator.Builder builder = GroovyScriptGenerator.builder()
+                .targetDirectory(targetDirectory)
+                .author(author)
+                .packageName(packageName)
+                .bulk(bulk)
+                .threads(threads)
+                .incremental(incremental && groovyOnly)
+                .deterministic(deterministic)
+                .dependencies(dependencies)
+                .throttle(throttle)
+                .maxQps(maxQps)
+                .includeSchemas(includeSchemas)
+                .excludeSchemas(excludeSchemas)
+                .includeTables(includeTables)
+                .excludeTables(excludeTables)
+                .captureScripts(false);
+        if (fromSnapshot != null) {
+            builder.fromSnapshot(fromSnapshot);
+        } else {
+            builder.url(url).username(username).password(password).driver(driver);
+        }
+        if (diffBase != null) {
+            builder.diffBase(diffBase);
+        }
+        if (!groovyOnly) {
+            builder.formats(formats.split(","));
+        }
+        GenerationResult result;
+        try {
+            if (filterConfig != null) {
+                builder.filterConfig(filterConfig);
+            }
+            result = builder.build().run(table -> {
+                if (table.isFailed()) {
+                    getLog().error(table.toString(), table.getError());
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            throw new MojoExecutionException("Invalid configuration: " + e.getMessage(), e);
+        } catch (SQLException | IOException e) {
+            throw new MojoExecutionException("Groovy script generation failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Groovy script generation was interrupted", e);
+        }
+        getLog().info(result.toString());
+        if (!result.isSuccessful()) {
+            if (failOnError) {
+                throw new MojoFailureException(result.count(TableResult.Status.FAILED) + " tables failed, see the errors above");
+            }
+            return;
+        }
+        if (fromSnapshot != null && incremental) {
+            writeStamp(stamp, configuration);
+        }
+    }
+
+    /**
+     * 从快照生成时，快照、比较的快照、过滤配置都不晚于上次生成，且参数相同，则不需要重新生成。
+     * 连接数据库生成时无法预先判断，由增量生成跳过未变化的表
+     */
+    private boolean isUpToDate(File stamp, String configuration) {
+        if (fromSnapshot == null || !stamp.isFile()) {
+            return false;
+        }
+        long generated = stamp.lastModified();
+        for (File input : new File[]{fromSnapshot, diffBase, filterConfig}) {
+            if (input != null && (!input.isFile() || input.lastModified() > generated)) {
+                return false;
+            }
+        }
+        try {
+            return configuration.equals(new String(Files.readAllBytes(stamp.toPath()), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void writeStamp(File stamp, String configuration) throws MojoExecutionException {
+        try {
+            Files.write(stamp.toPath(), configuration.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new MojoExecutionException("Failed to write " + stamp, e);
+        }
+    }
+
+    /**
+     * 影响脚本内容的参数的哈希，不含连接信息
+     */
+    private String configurationHash() {
+        String configuration = String.join("\n", String.valueOf(fromSnapshot), String.valueOf(diffBase), String.valueOf(filterConfig),
+                String.valueOf(formats), String.valueOf(author), String.valueOf(packageName), String.valueOf(deterministic), String.valueOf(dependencies),
+                String.valueOf(includeSchemas), String.valueOf(excludeSchemas), String.valueOf(includeTables), String.valueOf(excludeTables));
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(configuration.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}